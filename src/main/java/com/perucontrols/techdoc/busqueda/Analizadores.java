@@ -0,0 +1,64 @@
+package com.perucontrols.techdoc.busqueda;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.es.SpanishLightStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+import java.util.Map;
+
+/**
+ * Análisis del índice global. El texto libre usa un analizador español: minúsculas, sin palabras
+ * vacías, sin tildes ("valvula" encuentra "válvula") y con raíz ligera ("bombas" encuentra
+ * "bomba"). Los códigos (matrícula, número de serie y de parte, versión) se indexan enteros,
+ * solo en minúsculas y sin tildes, para que la coincidencia exacta puntúe por encima del resto.
+ */
+final class Analizadores {
+
+    private Analizadores() {
+    }
+
+    static Analyzer crear() {
+        return new PerFieldAnalyzerWrapper(new Espanol(), Map.of(IndiceBusqueda.CODIGO, new Codigo()));
+    }
+
+    private static final class Espanol extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String campo) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new LowerCaseFilter(tokenizer);
+            // Antes de quitar tildes: la lista de palabras vacías las incluye ("más", "él")
+            stream = new StopFilter(stream, SpanishAnalyzer.getDefaultStopSet());
+            stream = new ASCIIFoldingFilter(stream);
+            stream = new SpanishLightStemFilter(stream);
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+
+        @Override
+        protected TokenStream normalize(String campo, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+
+    private static final class Codigo extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String campo) {
+            Tokenizer tokenizer = new KeywordTokenizer();
+            return new TokenStreamComponents(tokenizer, new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer)));
+        }
+
+        @Override
+        protected TokenStream normalize(String campo, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
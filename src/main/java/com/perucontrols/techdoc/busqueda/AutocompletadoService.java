@@ -0,0 +1,260 @@
+package com.perucontrols.techdoc.busqueda;
+
+import com.perucontrols.techdoc.cache.InvalidationBus;
+import com.perucontrols.techdoc.dto.SugerenciaDTO;
+import com.perucontrols.techdoc.model.Componente;
+import com.perucontrols.techdoc.model.Embarcacion;
+import com.perucontrols.techdoc.model.Sistema;
+import com.perucontrols.techdoc.repository.ComponenteRepository;
+import com.perucontrols.techdoc.repository.EmbarcacionRepository;
+import com.perucontrols.techdoc.repository.SistemaRepository;
+import com.perucontrols.techdoc.service.EntityStreamer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Autocompletado de nombres y códigos (matrícula, número de serie y de parte) de embarcaciones,
+ * sistemas y componentes, servido desde un {@link IndicePrefijos} en memoria por tipo: no consulta
+ * la base ni en cada tecla ni en cada petición.
+ * <p>
+ * Se carga entero al arrancar, antes de declarar la instancia lista, y después se mantiene con
+ * los avisos del {@link InvalidationBus}, igual que el índice de búsqueda global: los ids avisados
+ * se releen de la primaria cada {@code techdoc.busqueda.intervalo}.
+ */
+@Slf4j
+@Service
+public class AutocompletadoService {
+
+    public static final int MAX_SUGERENCIAS = 50;
+
+    /** En este orden: los componentes toman la embarcación de su sistema del índice de sistemas. */
+    private static final List<TipoResultado> TIPOS =
+            List.of(TipoResultado.EMBARCACION, TipoResultado.SISTEMA, TipoResultado.COMPONENTE);
+
+    private final EmbarcacionRepository embarcacionRepository;
+    private final SistemaRepository sistemaRepository;
+    private final ComponenteRepository componenteRepository;
+    private final EntityStreamer entityStreamer;
+    private final InvalidationBus bus;
+    private final BusquedaProperties properties;
+    private final TransactionTemplate primaria;
+    private final Map<TipoResultado, IndicePrefijos> indices = new ConcurrentHashMap<>();
+    private final ColaCambios cambios = new ColaCambios(TIPOS);
+    private final AtomicBoolean cargando = new AtomicBoolean();
+
+    public AutocompletadoService(EmbarcacionRepository embarcacionRepository, SistemaRepository sistemaRepository,
+                                 ComponenteRepository componenteRepository, EntityStreamer entityStreamer, InvalidationBus bus,
+                                 BusquedaProperties properties, PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.embarcacionRepository = embarcacionRepository;
+        this.sistemaRepository = sistemaRepository;
+        this.componenteRepository = componenteRepository;
+        this.entityStreamer = entityStreamer;
+        this.bus = bus;
+        this.properties = properties;
+        // Lectura-escritura: el aviso llega tras el commit y una réplica podría no tenerlo aún
+        this.primaria = new TransactionTemplate(transactionManager);
+        TIPOS.forEach(tipo -> indices.put(tipo, new IndicePrefijos(tipo)));
+
+        Gauge.builder("techdoc.autocompletado.entidades", this,
+                        s -> s.indices.values().stream().mapToInt(IndicePrefijos::entidades).sum())
+                .description("Embarcaciones, sistemas y componentes en el índice de autocompletado")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void suscribir() {
+        cambios.suscribir(bus);
+    }
+
+    /** Síncrono: la readiness se publica después de los listeners de ApplicationReadyEvent. */
+    @EventListener(ApplicationReadyEvent.class)
+    void cargarAlArrancar() {
+        if (!cargando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            cargar(EnumSet.copyOf(TIPOS));
+        } catch (RuntimeException e) {
+            cambios.rehacer(TIPOS);
+            log.warn("No se pudo cargar el autocompletado al arrancar; se reintentará: {}", e.getMessage());
+        } finally {
+            cargando.set(false);
+        }
+    }
+
+    /**
+     * Hasta {@code limite} completaciones de {@code q}, en orden alfabético y una por entidad. Con
+     * {@code tipos} vacío, de los tres tipos; con {@code idEmbarcacion}, solo de esa embarcación.
+     */
+    public List<SugerenciaDTO> sugerir(String q, Set<TipoResultado> tipos, Long idEmbarcacion, int limite) {
+        String prefijo = q == null ? "" : IndicePrefijos.normalizar(q);
+        if (prefijo.isEmpty()) {
+            throw new IllegalArgumentException("El texto a completar no puede estar vacío");
+        }
+        if (limite < 1 || limite > MAX_SUGERENCIAS) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_SUGERENCIAS);
+        }
+        Set<TipoResultado> buscados = tipos == null || tipos.isEmpty() ? EnumSet.copyOf(TIPOS) : tipos;
+        if (!TIPOS.containsAll(buscados)) {
+            throw new IllegalArgumentException("Solo se autocompletan " + TIPOS);
+        }
+
+        // Una entidad puede coincidir por nombre y por código: se piden de más y se deja la primera
+        List<Map.Entry<String, SugerenciaDTO>> candidatas = new ArrayList<>();
+        for (TipoResultado tipo : buscados) {
+            candidatas.addAll(indices.get(tipo).completar(prefijo, idEmbarcacion, 2 * limite));
+        }
+        return unaPorEntidad(candidatas, limite);
+    }
+
+    /** Mezcla las completaciones de varios tipos en orden alfabético, quedándose con la primera de cada entidad. */
+    static List<SugerenciaDTO> unaPorEntidad(List<Map.Entry<String, SugerenciaDTO>> candidatas, int limite) {
+        candidatas.sort(Map.Entry.<String, SugerenciaDTO>comparingByKey()
+                .thenComparing(e -> e.getValue().getTipo()));
+        List<SugerenciaDTO> sugerencias = new ArrayList<>(limite);
+        Set<String> vistas = new HashSet<>();
+        for (Map.Entry<String, SugerenciaDTO> candidata : candidatas) {
+            SugerenciaDTO sugerencia = candidata.getValue();
+            if (vistas.add(sugerencia.getTipo() + ":" + sugerencia.getId())) {
+                sugerencias.add(sugerencia);
+                if (sugerencias.size() == limite) {
+                    break;
+                }
+            }
+        }
+        return sugerencias;
+    }
+
+    /** Aplica los cambios avisados; sin base de datos, los ids vuelven a la cola. */
+    @Scheduled(fixedDelayString = "${techdoc.busqueda.intervalo:200ms}")
+    public void procesarPendientes() {
+        if (!cargando.compareAndSet(false, true)) {
+            return;
+        }
+        Set<TipoResultado> enteros = cambios.tomarCompletos();
+        if (!enteros.isEmpty()) {
+            // Un aviso "todo" (p. ej. tras reconectar el bus) obliga a recargar el tipo entero
+            recargarEnSegundoPlano(enteros);
+            return;
+        }
+        try {
+            cambios.aplicar(properties.getLote(),
+                    (tipo, lote) -> primaria.executeWithoutResult(status -> actualizar(tipo, lote)));
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron aplicar al autocompletado {}", e.getMessage());
+        } finally {
+            cargando.set(false);
+        }
+    }
+
+    /**
+     * Fuera del hilo de @Scheduled, que comparten el bus y los demás workers: recorrer las tres
+     * tablas los frenaría. Libera {@code cargando} al terminar; si falla, se reintenta en el
+     * siguiente ciclo.
+     */
+    private void recargarEnSegundoPlano(Set<TipoResultado> tipos) {
+        Thread.ofVirtual().name("autocompletado-recarga").start(() -> {
+            try {
+                cargar(tipos);
+            } catch (RuntimeException e) {
+                cambios.rehacer(tipos);
+                log.warn("No se pudo recargar el autocompletado de {}: {}", tipos, e.getMessage());
+            } finally {
+                cargando.set(false);
+            }
+        });
+    }
+
+    /**
+     * Carga los tipos en índices nuevos y los publica uno a uno al terminar cada tipo. Lo que se
+     * avise mientras tanto queda en la cola y se aplica después (releerlo es inocuo).
+     */
+    private void cargar(Set<TipoResultado> tipos) {
+        long inicio = System.nanoTime();
+        for (TipoResultado tipo : TIPOS) {
+            if (!tipos.contains(tipo)) {
+                continue;
+            }
+            IndicePrefijos nuevo = new IndicePrefijos(tipo);
+            primaria.executeWithoutResult(status -> {
+                switch (tipo) {
+                    case EMBARCACION -> entityStreamer.forEach(embarcacionRepository.streamAll(), Function.identity(),
+                            e -> guardar(nuevo, e));
+                    case SISTEMA -> entityStreamer.forEach(sistemaRepository.streamAll(), Function.identity(),
+                            s -> guardar(nuevo, s));
+                    case COMPONENTE -> entityStreamer.forEach(componenteRepository.streamAll(), Function.identity(),
+                            c -> guardar(nuevo, c));
+                    default -> throw new IllegalStateException("Tipo sin autocompletado: " + tipo);
+                }
+            });
+            indices.put(tipo, nuevo);
+        }
+        log.info("Autocompletado cargado en {} ms: {}", (System.nanoTime() - inicio) / 1_000_000,
+                tipos.stream().map(t -> t + "=" + indices.get(t).entidades()).toList());
+    }
+
+    private void actualizar(TipoResultado tipo, List<Long> ids) {
+        IndicePrefijos indice = indices.get(tipo);
+        Set<Long> faltan = new HashSet<>(ids);
+        switch (tipo) {
+            case EMBARCACION -> embarcacionRepository.findAllById(ids).forEach(e -> {
+                guardar(indice, e);
+                faltan.remove(e.getId());
+            });
+            case SISTEMA -> sistemaRepository.findAllById(ids).forEach(s -> {
+                boolean existia = indice.contiene(s.getId());
+                Long anterior = indice.embarcacionDe(s.getId());
+                guardar(indice, s);
+                Long actual = indice.embarcacionDe(s.getId());
+                if (existia && !actual.equals(anterior)) {
+                    indices.get(TipoResultado.COMPONENTE).moverSistema(s.getId(), actual);
+                }
+                faltan.remove(s.getId());
+            });
+            case COMPONENTE -> componenteRepository.findAllById(ids).forEach(c -> {
+                guardar(indice, c);
+                faltan.remove(c.getId());
+            });
+            default -> throw new IllegalStateException("Tipo sin autocompletado: " + tipo);
+        }
+        faltan.forEach(indice::borrar);
+    }
+
+    private static void guardar(IndicePrefijos indice, Embarcacion e) {
+        indice.guardar(e.getId(), e.getId(), null, e.getNombre(), e.getMatricula());
+    }
+
+    /** El id de un proxy LAZY se lee sin inicializarlo. */
+    private static void guardar(IndicePrefijos indice, Sistema s) {
+        indice.guardar(s.getId(), s.getEmbarcacion().getId(), s.getId(), s.getNombre(), s.getNumeroSerie());
+    }
+
+    private void guardar(IndicePrefijos indice, Componente c) {
+        Sistema sistema = c.getSistema();
+        IndicePrefijos sistemas = indices.get(TipoResultado.SISTEMA);
+        // Un sistema aún no indexado (creado junto al componente) se consulta una vez por el proxy
+        Long idEmbarcacion = sistemas.contiene(sistema.getId())
+                ? sistemas.embarcacionDe(sistema.getId())
+                : sistema.getEmbarcacion().getId();
+        indice.guardar(c.getId(), idEmbarcacion, sistema.getId(), c.getNombre(), c.getNumeroParte());
+    }
+}
@@ -0,0 +1,330 @@
+package com.perucontrols.techdoc.busqueda;
+
+import com.perucontrols.techdoc.cache.InvalidationBus;
+import com.perucontrols.techdoc.dto.PaginatedResponse;
+import com.perucontrols.techdoc.dto.ResultadoGlobalDTO;
+import com.perucontrols.techdoc.exception.OperacionEnCursoException;
+import com.perucontrols.techdoc.model.Componente;
+import com.perucontrols.techdoc.model.Documentacion;
+import com.perucontrols.techdoc.model.Embarcacion;
+import com.perucontrols.techdoc.model.Mantenimiento;
+import com.perucontrols.techdoc.model.Sistema;
+import com.perucontrols.techdoc.model.VersionSoftware;
+import com.perucontrols.techdoc.repository.ComponenteRepository;
+import com.perucontrols.techdoc.repository.DocumentacionRepository;
+import com.perucontrols.techdoc.repository.EmbarcacionRepository;
+import com.perucontrols.techdoc.repository.MantenimientoRepository;
+import com.perucontrols.techdoc.repository.SistemaRepository;
+import com.perucontrols.techdoc.repository.VersionSoftwareRepository;
+import com.perucontrols.techdoc.service.EntityStreamer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Búsqueda global sobre embarcaciones, sistemas, componentes, documentación, mantenimientos y
+ * versiones de software, servida desde el {@link IndiceBusqueda} sin consultar la base.
+ * <p>
+ * El índice se mantiene con los mismos avisos que invalidan las cachés: cada escritura confirmada
+ * publica sus ids en el {@link InvalidationBus} (en este nodo y en los demás), se encolan en una
+ * {@link ColaCambios} y el worker los relee de la primaria cada {@code intervalo}, actualizando o
+ * borrando su documento.
+ * La reconstrucción completa recorre los seis tipos en paralelo.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(BusquedaProperties.class)
+public class BusquedaGlobalService {
+
+    public static final int MAX_RESULTADOS = 100;
+
+    private final IndiceBusqueda indice;
+    private final InvalidationBus bus;
+    private final EntityStreamer entityStreamer;
+    private final BusquedaProperties properties;
+    private final TransactionTemplate primaria;
+    private final Map<TipoResultado, Fuente<?>> fuentes = new EnumMap<>(TipoResultado.class);
+    private final ColaCambios cambios = new ColaCambios(EnumSet.allOf(TipoResultado.class));
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+    /** Excluye los lotes incrementales de la reconstrucción: un guardar tras borrarTipo duplicaría la entidad. */
+    private final ReentrantLock escritura = new ReentrantLock();
+
+    public BusquedaGlobalService(IndiceBusqueda indice, InvalidationBus bus, EntityStreamer entityStreamer,
+                                 BusquedaProperties properties, PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 EmbarcacionRepository embarcacionRepository, SistemaRepository sistemaRepository,
+                                 ComponenteRepository componenteRepository, DocumentacionRepository documentacionRepository,
+                                 MantenimientoRepository mantenimientoRepository,
+                                 VersionSoftwareRepository versionSoftwareRepository) {
+        this.indice = indice;
+        this.bus = bus;
+        this.entityStreamer = entityStreamer;
+        this.properties = properties;
+        // Lectura-escritura: el aviso llega tras el commit y una réplica podría no tenerlo aún
+        this.primaria = new TransactionTemplate(transactionManager);
+
+        fuentes.put(TipoResultado.EMBARCACION, new Fuente<>(embarcacionRepository::findAllById,
+                embarcacionRepository::streamAll, Embarcacion::getId, BusquedaGlobalService::documento));
+        fuentes.put(TipoResultado.SISTEMA, new Fuente<>(sistemaRepository::findAllById,
+                sistemaRepository::streamAll, Sistema::getId, BusquedaGlobalService::documento));
+        fuentes.put(TipoResultado.COMPONENTE, new Fuente<>(componenteRepository::findAllById,
+                componenteRepository::streamAll, Componente::getId, BusquedaGlobalService::documento));
+        fuentes.put(TipoResultado.DOCUMENTO, new Fuente<>(documentacionRepository::findAllById,
+                documentacionRepository::streamAll, Documentacion::getId, BusquedaGlobalService::documento));
+        fuentes.put(TipoResultado.MANTENIMIENTO, new Fuente<>(mantenimientoRepository::findAllById,
+                mantenimientoRepository::streamAll, Mantenimiento::getId, BusquedaGlobalService::documento));
+        fuentes.put(TipoResultado.VERSION_SOFTWARE, new Fuente<>(versionSoftwareRepository::findAllById,
+                versionSoftwareRepository::streamAll, VersionSoftware::getId, BusquedaGlobalService::documento));
+
+        Gauge.builder("techdoc.busqueda.pendientes", this, s -> s.cambios.pendientes())
+                .description("Cambios avisados aún no aplicados al índice de búsqueda global")
+                .register(meterRegistry);
+        Gauge.builder("techdoc.busqueda.documentos", indice, IndiceBusqueda::documentos)
+                .description("Documentos en el índice de búsqueda global")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void suscribir() {
+        cambios.suscribir(bus);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void reconstruirAlArrancar() {
+        if (properties.isReconstruirAlArrancar()) {
+            enSegundoPlano(EnumSet.allOf(TipoResultado.class));
+        }
+    }
+
+    public PaginatedResponse<ResultadoGlobalDTO> buscar(String q, Set<TipoResultado> tipos, int page, int size) {
+        if (q == null || q.isBlank()) {
+            throw new IllegalArgumentException("El texto de búsqueda no puede estar vacío");
+        }
+        if (page < 0 || size < 1 || size > MAX_RESULTADOS || (long) (page + 1) * size > 10 * MAX_RESULTADOS) {
+            throw new IllegalArgumentException(String.format(
+                    "El tamaño de página debe estar entre 1 y %d, hasta el resultado %d", MAX_RESULTADOS, 10 * MAX_RESULTADOS));
+        }
+        return PaginatedResponse.from(indice.buscar(q.trim(), tipos == null ? Set.of() : tipos, PageRequest.of(page, size)));
+    }
+
+    /**
+     * Vuelve a indexar los tipos desde la base, un hilo por tipo. Las búsquedas siguen viendo el
+     * índice anterior hasta que terminan todos; si alguno falla, se descarta lo reconstruido.
+     *
+     * @return documentos indexados por tipo
+     */
+    public Map<TipoResultado, Long> reconstruir(Set<TipoResultado> tipos) {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            throw new OperacionEnCursoException("Ya hay una reconstrucción del índice en curso");
+        }
+        return reconstruirTipos(tipos);
+    }
+
+    private Map<TipoResultado, Long> reconstruirTipos(Set<TipoResultado> tipos) {
+        long inicio = System.nanoTime();
+        ExecutorService hilos = Executors.newFixedThreadPool(Math.max(1, Math.min(properties.getHilos(), tipos.size())));
+        // Espera a que termine el lote incremental en curso, si lo hay
+        escritura.lock();
+        try {
+            // Lo encolado hasta aquí queda cubierto; lo que llegue durante la reconstrucción se aplica después
+            tipos.forEach(cambios::descartar);
+            indice.pausar();
+            Map<TipoResultado, Future<Long>> tareas = new EnumMap<>(TipoResultado.class);
+            for (TipoResultado tipo : tipos) {
+                tareas.put(tipo, hilos.submit(() -> reindexar(tipo)));
+            }
+            Map<TipoResultado, Long> total = new EnumMap<>(TipoResultado.class);
+            for (Map.Entry<TipoResultado, Future<Long>> tarea : tareas.entrySet()) {
+                total.put(tarea.getKey(), tarea.getValue().get());
+            }
+            indice.reanudar();
+            log.info("Índice de búsqueda reconstruido en {} ms: {}", (System.nanoTime() - inicio) / 1_000_000, total);
+            return total;
+        } catch (ExecutionException | InterruptedException | IOException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            revertir();
+            throw new IllegalStateException("Error al reconstruir el índice de búsqueda", e);
+        } finally {
+            hilos.shutdownNow();
+            escritura.unlock();
+            reconstruyendo.set(false);
+        }
+    }
+
+    /** Aplica al índice los cambios avisados; sin base de datos, los ids vuelven a la cola. */
+    @Scheduled(fixedDelayString = "${techdoc.busqueda.intervalo:200ms}")
+    public void procesarPendientes() {
+        if (reconstruyendo.get() || !escritura.tryLock()) {
+            return;
+        }
+        try {
+            Set<TipoResultado> enteros = cambios.tomarCompletos();
+            if (!enteros.isEmpty()) {
+                // Un aviso "todo" (p. ej. tras reconectar el bus) no dice qué cambió: se rehace el tipo entero
+                enSegundoPlano(enteros);
+                return;
+            }
+            cambios.aplicar(properties.getLote(), this::actualizar);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron indexar {}", e.getMessage());
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private <E> void actualizar(TipoResultado tipo, List<Long> ids) {
+        @SuppressWarnings("unchecked")
+        Fuente<E> fuente = (Fuente<E>) fuentes.get(tipo);
+        primaria.executeWithoutResult(status -> {
+            Set<Long> faltan = new HashSet<>(ids);
+            try {
+                for (E entidad : fuente.buscar().apply(ids)) {
+                    Long id = fuente.id().apply(entidad);
+                    indice.guardar(tipo, id, fuente.documento().apply(entidad));
+                    faltan.remove(id);
+                }
+                for (Long id : faltan) {
+                    indice.borrar(tipo, id);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <E> long reindexar(TipoResultado tipo) throws IOException {
+        @SuppressWarnings("unchecked")
+        Fuente<E> fuente = (Fuente<E>) fuentes.get(tipo);
+        indice.borrarTipo(tipo);
+        Long total = primaria.execute(status ->
+                entityStreamer.forEach(fuente.todos().get(), fuente.documento(), indice::agregar));
+        log.info("Índice de búsqueda: {} documentos de {}", total, tipo);
+        return total;
+    }
+
+    /**
+     * Fuera del hilo de @Scheduled, que comparten el bus y los demás workers. Si falla (p. ej. sin
+     * base al arrancar), se reintenta en el siguiente ciclo del worker.
+     */
+    private void enSegundoPlano(Set<TipoResultado> tipos) {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            cambios.rehacer(tipos);
+            return;
+        }
+        Thread.ofVirtual().name("busqueda-reconstruccion").start(() -> {
+            try {
+                reconstruirTipos(tipos);
+            } catch (RuntimeException e) {
+                cambios.rehacer(tipos);
+                log.warn("No se pudo reconstruir el índice de búsqueda de {}; se reintentará: {}", tipos, e.getMessage());
+            }
+        });
+    }
+
+    private void revertir() {
+        try {
+            indice.revertir();
+        } catch (IOException e) {
+            log.error("No se pudo descartar la reconstrucción del índice de búsqueda", e);
+        }
+    }
+
+    // Campos por entidad; los pesos de cada campo están en IndiceBusqueda.PESOS
+
+    private static Document documento(Embarcacion e) {
+        Document doc = IndiceBusqueda.documento(TipoResultado.EMBARCACION, e.getId(), null, e.getNombre());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CODIGO, e.getMatricula());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.NOMBRE, e.getNombre());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CONTENIDO, e.getMatricula());
+        return doc;
+    }
+
+    private static Document documento(Sistema s) {
+        Document doc = IndiceBusqueda.documento(TipoResultado.SISTEMA, s.getId(), s.getId(), s.getNombre());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CODIGO, s.getNumeroSerie());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.NOMBRE, s.getNombre());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CONTENIDO, s.getNumeroSerie());
+        return doc;
+    }
+
+    private static Document documento(Componente c) {
+        Document doc = IndiceBusqueda.documento(TipoResultado.COMPONENTE, c.getId(), idSistema(c.getSistema()), c.getNombre());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CODIGO, c.getNumeroParte());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.NOMBRE, c.getNombre());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.MARCA, unir(c.getFabricante(), c.getModelo()));
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CONTENIDO, c.getNumeroParte());
+        return doc;
+    }
+
+    private static Document documento(Documentacion d) {
+        Document doc = IndiceBusqueda.documento(TipoResultado.DOCUMENTO, d.getId(), idSistema(d.getSistema()), d.getTitulo());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.NOMBRE, d.getTitulo());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.ETIQUETAS, String.join(" ", d.getEtiquetas()));
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CONTENIDO, d.getDescripcion());
+        return doc;
+    }
+
+    private static Document documento(Mantenimiento m) {
+        String titulo = unir(m.getTipo() != null ? m.getTipo().name() : null,
+                m.getFechaInicio() != null ? m.getFechaInicio().toLocalDate().toString() : null);
+        Document doc = IndiceBusqueda.documento(TipoResultado.MANTENIMIENTO, m.getId(), idSistema(m.getSistema()), titulo);
+        IndiceBusqueda.texto(doc, IndiceBusqueda.HALLAZGOS, m.getHallazgos());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.RECOMENDACIONES, m.getRecomendaciones());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CONTENIDO, m.getDescripcion());
+        return doc;
+    }
+
+    private static Document documento(VersionSoftware v) {
+        Document doc = IndiceBusqueda.documento(TipoResultado.VERSION_SOFTWARE, v.getId(), idSistema(v.getSistema()), v.getVersion());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CODIGO, v.getVersion());
+        IndiceBusqueda.texto(doc, IndiceBusqueda.CONTENIDO, v.getChangelog());
+        return doc;
+    }
+
+    /** El id de un proxy LAZY se lee sin inicializarlo. */
+    private static Long idSistema(Sistema sistema) {
+        return sistema != null ? sistema.getId() : null;
+    }
+
+    private static String unir(String... partes) {
+        return Stream.of(partes).filter(p -> p != null && !p.isBlank()).collect(Collectors.joining(" "));
+    }
+
+    private record Fuente<E>(Function<Collection<Long>, List<E>> buscar,
+                             Supplier<Stream<E>> todos,
+                             Function<E, Long> id,
+                             Function<E, Document> documento) {
+    }
+}
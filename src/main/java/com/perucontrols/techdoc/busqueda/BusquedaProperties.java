@@ -0,0 +1,39 @@
+package com.perucontrols.techdoc.busqueda;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "techdoc.busqueda")
+public class BusquedaProperties {
+
+    /** Carpeta del índice Lucene. Es local: cada nodo mantiene el suyo y no puede compartirse entre procesos. */
+    private Path directorio = Path.of(System.getProperty("java.io.tmpdir"), "techdoc-indice");
+
+    /** Pausa entre ciclos que aplican al índice los cambios avisados por el InvalidationBus. */
+    private Duration intervalo = Duration.ofMillis(200);
+
+    /** Máximo de ids cargados por consulta al aplicar cambios. */
+    private int lote = 500;
+
+    /** Cada cuánto los cambios aplicados se hacen visibles a las búsquedas. */
+    private Duration refresco = Duration.ofMillis(200);
+
+    /** Cada cuánto se confirman en disco los cambios aplicados. */
+    private Duration commit = Duration.ofMinutes(1);
+
+    /** Hilos de la reconstrucción completa; cada tipo de entidad se recorre en uno. */
+    private int hilos = 6;
+
+    /**
+     * Reconstruir el índice al arrancar, en segundo plano. Mientras tanto se busca sobre el índice
+     * guardado en disco, que puede no reflejar los cambios hechos con el nodo apagado.
+     */
+    private boolean reconstruirAlArrancar = true;
+
+    /** Memoria del IndexWriter antes de volcar un segmento a disco. */
+    private double bufferMb = 64;
+}
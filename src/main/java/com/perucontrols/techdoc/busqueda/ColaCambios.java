@@ -0,0 +1,98 @@
+package com.perucontrols.techdoc.busqueda;
+
+import com.perucontrols.techdoc.cache.InvalidationBus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Cambios avisados por el {@link InvalidationBus} aún no aplicados a un índice en memoria: los ids
+ * de cada tipo y qué tipos deben rehacerse enteros (aviso "todo"). La comparten el índice de
+ * búsqueda global y el autocompletado, que los releen de la primaria en su worker.
+ */
+final class ColaCambios {
+
+    private final Map<TipoResultado, Set<Long>> pendientes = new EnumMap<>(TipoResultado.class);
+    private final Set<TipoResultado> completos = ConcurrentHashMap.newKeySet();
+
+    ColaCambios(Collection<TipoResultado> tipos) {
+        tipos.forEach(tipo -> pendientes.put(tipo, ConcurrentHashMap.newKeySet()));
+    }
+
+    void suscribir(InvalidationBus bus) {
+        pendientes.forEach((tipo, cola) -> bus.suscribir(tipo.getTabla(), new InvalidationBus.Suscriptor() {
+            @Override
+            public void invalidar(Collection<Long> ids) {
+                cola.addAll(ids);
+            }
+
+            @Override
+            public void invalidarTodo() {
+                completos.add(tipo);
+            }
+        }));
+    }
+
+    /** Los tipos con un aviso "todo" pendiente; quedan fuera de la cola hasta {@link #rehacer}. */
+    Set<TipoResultado> tomarCompletos() {
+        Set<TipoResultado> enteros = EnumSet.noneOf(TipoResultado.class);
+        for (TipoResultado tipo : pendientes.keySet()) {
+            if (completos.remove(tipo)) {
+                enteros.add(tipo);
+            }
+        }
+        return enteros;
+    }
+
+    /** Vuelve a pedir la carga completa de los tipos, p. ej. si la anterior falló. */
+    void rehacer(Collection<TipoResultado> tipos) {
+        completos.addAll(tipos);
+    }
+
+    /** Antes de cargar el tipo entero: lo avisado hasta aquí queda cubierto por la carga. */
+    void descartar(TipoResultado tipo) {
+        completos.remove(tipo);
+        pendientes.get(tipo).clear();
+    }
+
+    /**
+     * Aplica los ids pendientes en lotes de hasta {@code maximo}, tipo a tipo en orden. Si un lote
+     * falla, vuelve a la cola y se lanza una excepción que dice cuál: el resto espera al siguiente
+     * ciclo.
+     */
+    void aplicar(int maximo, BiConsumer<TipoResultado, List<Long>> accion) {
+        pendientes.forEach((tipo, cola) -> {
+            while (!cola.isEmpty()) {
+                List<Long> lote = tomar(cola, maximo);
+                try {
+                    accion.accept(tipo, lote);
+                } catch (RuntimeException e) {
+                    cola.addAll(lote);
+                    throw new IllegalStateException(String.format("%d cambios de %s: %s", lote.size(), tipo, e.getMessage()), e);
+                }
+            }
+        });
+    }
+
+    int pendientes() {
+        return pendientes.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private static List<Long> tomar(Set<Long> cola, int maximo) {
+        List<Long> lote = new ArrayList<>(Math.min(cola.size(), maximo));
+        Iterator<Long> it = cola.iterator();
+        while (it.hasNext() && lote.size() < maximo) {
+            lote.add(it.next());
+            it.remove();
+        }
+        return lote;
+    }
+}
@@ -0,0 +1,298 @@
+package com.perucontrols.techdoc.busqueda;
+
+import com.perucontrols.techdoc.dto.ResultadoGlobalDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice Lucene embebido de la búsqueda global. Un documento por entidad, con clave
+ * {@code TIPO:id}; las búsquedas no tocan la base de datos.
+ * <p>
+ * Los cambios se aplican con el IndexWriter y se hacen visibles cada {@code refresco} (near
+ * real time, sin esperar al commit); el commit a disco va cada {@code commit}. Durante una
+ * reconstrucción completa ambos se pausan y las búsquedas siguen viendo el índice anterior.
+ * <p>
+ * Todo uso del writer y del SearcherManager va bajo el cerrojo de lectura; {@link #revertir} los
+ * cierra y reabre bajo el de escritura, así que nadie ve los ya cerrados.
+ */
+@Slf4j
+@Component
+public class IndiceBusqueda {
+
+    static final String CLAVE = "clave";
+    static final String TIPO = "tipo";
+    static final String ID = "id";
+    static final String ID_SISTEMA = "idSistema";
+    static final String TITULO = "titulo";
+
+    static final String CODIGO = "codigo";
+    static final String NOMBRE = "nombre";
+    static final String MARCA = "marca";
+    static final String ETIQUETAS = "etiquetas";
+    static final String HALLAZGOS = "hallazgos";
+    static final String RECOMENDACIONES = "recomendaciones";
+    static final String CONTENIDO = "contenido";
+
+    /** Peso de cada campo: un código exacto pesa más que el nombre, y este más que el texto libre. */
+    static final Map<String, Float> PESOS = Map.of(
+            CODIGO, 8f,
+            NOMBRE, 4f,
+            MARCA, 3f,
+            ETIQUETAS, 3f,
+            HALLAZGOS, 2f,
+            RECOMENDACIONES, 1.5f,
+            CONTENIDO, 1f);
+
+    private final BusquedaProperties properties;
+    private final Analyzer analizador = Analizadores.crear();
+
+    private final ReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    private Directory directorio;
+    private IndexWriter writer;
+    private SearcherManager searchers;
+    private volatile boolean pausado;
+
+    public IndiceBusqueda(BusquedaProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void abrir() throws IOException {
+        Files.createDirectories(properties.getDirectorio());
+        directorio = FSDirectory.open(properties.getDirectorio());
+        writer = new IndexWriter(directorio, new IndexWriterConfig(analizador)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(properties.getBufferMb()));
+        searchers = new SearcherManager(writer, null);
+        log.info("Índice de búsqueda abierto en {}: {} documentos", properties.getDirectorio(), writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    void cerrar() throws IOException {
+        cerrojo.writeLock().lock();
+        try {
+            searchers.close();
+            // Sin commit si se cierra a mitad de una reconstrucción: queda el índice confirmado anterior
+            if (pausado) {
+                writer.rollback();
+            } else {
+                writer.close();
+            }
+            directorio.close();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca {@code q} con la sintaxis simple de Lucene: todas las palabras son obligatorias,
+     * "frases", {@code |} para alternativas, {@code -} para excluir y {@code *} como prefijo.
+     * Con {@code tipos} vacío se busca en todos.
+     */
+    public Page<ResultadoGlobalDTO> buscar(String q, Collection<TipoResultado> tipos, Pageable pageable) {
+        SimpleQueryParser parser = new SimpleQueryParser(analizador, PESOS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder().add(parser.parse(q), BooleanClause.Occur.MUST);
+        if (!tipos.isEmpty()) {
+            consulta.add(new TermInSetQuery(TIPO, tipos.stream().map(t -> new BytesRef(t.name())).toList()),
+                    BooleanClause.Occur.FILTER);
+        }
+        Query query = consulta.build();
+
+        cerrojo.readLock().lock();
+        try {
+            IndexSearcher searcher = searchers.acquire();
+            try {
+                int desde = (int) pageable.getOffset();
+                TopDocs top = searcher.search(query, desde + pageable.getPageSize());
+                StoredFields campos = searcher.storedFields();
+                List<ResultadoGlobalDTO> resultados = new ArrayList<>();
+                for (int i = desde; i < top.scoreDocs.length; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    Document doc = campos.document(hit.doc);
+                    IndexableField idSistema = doc.getField(ID_SISTEMA);
+                    resultados.add(new ResultadoGlobalDTO(
+                            TipoResultado.valueOf(doc.get(TIPO)),
+                            doc.getField(ID).numericValue().longValue(),
+                            idSistema != null ? idSistema.numericValue().longValue() : null,
+                            doc.get(TITULO),
+                            hit.score));
+                }
+                // Por encima de 1000 coincidencias Lucene deja de contar: el total es un mínimo
+                return new PageImpl<>(resultados, pageable, top.totalHits.value);
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al consultar el índice de búsqueda", e);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /** Documento base de una entidad; los campos de texto se añaden con {@link #texto}. */
+    static Document documento(TipoResultado tipo, Long id, Long idSistema, String titulo) {
+        Document doc = new Document();
+        doc.add(new StringField(CLAVE, clave(tipo, id), Field.Store.NO));
+        doc.add(new StringField(TIPO, tipo.name(), Field.Store.YES));
+        doc.add(new StoredField(ID, id));
+        if (idSistema != null) {
+            doc.add(new StoredField(ID_SISTEMA, idSistema));
+        }
+        if (titulo != null) {
+            doc.add(new StoredField(TITULO, titulo));
+        }
+        return doc;
+    }
+
+    static void texto(Document doc, String campo, String valor) {
+        if (valor != null && !valor.isBlank()) {
+            doc.add(new TextField(campo, valor, Field.Store.NO));
+        }
+    }
+
+    void guardar(TipoResultado tipo, Long id, Document doc) throws IOException {
+        conWriter(w -> w.updateDocument(new Term(CLAVE, clave(tipo, id)), doc));
+    }
+
+    void borrar(TipoResultado tipo, Long id) throws IOException {
+        conWriter(w -> w.deleteDocuments(new Term(CLAVE, clave(tipo, id))));
+    }
+
+    /**
+     * Para la reconstrucción: {@link #borrarTipo} y luego {@code agregar} sin comprobar la clave.
+     * Un hilo que siga agregando tras {@link #revertir} falla en vez de escribir en el índice reabierto.
+     */
+    void agregar(Document doc) {
+        try {
+            conWriter(w -> {
+                if (!pausado) {
+                    throw new IllegalStateException("La reconstrucción del índice de búsqueda se descartó");
+                }
+                w.addDocument(doc);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void borrarTipo(TipoResultado tipo) throws IOException {
+        conWriter(w -> w.deleteDocuments(new Term(TIPO, tipo.name())));
+    }
+
+    long documentos() {
+        cerrojo.readLock().lock();
+        try {
+            return writer.getDocStats().numDocs;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /** Confirma lo pendiente y deja de publicar cambios hasta {@link #reanudar} o {@link #revertir}. */
+    void pausar() throws IOException {
+        conWriter(w -> {
+            w.commit();
+            pausado = true;
+        });
+    }
+
+    /** Confirma la reconstrucción y la hace visible de una vez. */
+    void reanudar() throws IOException {
+        conWriter(w -> {
+            w.commit();
+            pausado = false;
+            searchers.maybeRefreshBlocking();
+        });
+    }
+
+    /** Descarta lo hecho desde {@link #pausar}: rollback cierra el writer, así que se reabre. */
+    void revertir() throws IOException {
+        cerrojo.writeLock().lock();
+        try {
+            pausado = false;
+            searchers.close();
+            writer.rollback();
+            directorio.close();
+            abrir();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${techdoc.busqueda.refresco:200ms}")
+    public void refrescar() throws IOException {
+        conWriter(w -> {
+            if (!pausado) {
+                searchers.maybeRefresh();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${techdoc.busqueda.commit:1m}")
+    public void confirmar() throws IOException {
+        conWriter(w -> {
+            if (!pausado && w.hasUncommittedChanges()) {
+                w.commit();
+            }
+        });
+    }
+
+    /** Bajo el cerrojo de lectura: varios hilos pueden escribir a la vez, pero no durante {@link #revertir}. */
+    private void conWriter(OperacionWriter operacion) throws IOException {
+        cerrojo.readLock().lock();
+        try {
+            operacion.aplicar(writer);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface OperacionWriter {
+        void aplicar(IndexWriter writer) throws IOException;
+    }
+
+    private static String clave(TipoResultado tipo, Long id) {
+        return tipo.name() + ":" + id;
+    }
+}
@@ -0,0 +1,131 @@
+package com.perucontrols.techdoc.busqueda;
+
+import com.perucontrols.techdoc.dto.SugerenciaDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de prefijos de un tipo de entidad: un mapa ordenado por texto normalizado (minúsculas,
+ * sin tildes, espacios simples) y otro por embarcación. Las completaciones de un prefijo son un
+ * rango contiguo del mapa, así que las primeras se leen sin recorrer el resto.
+ * <p>
+ * Un solo hilo escribe a la vez; las lecturas no se bloquean. Las sugerencias son compartidas y
+ * no deben modificarse.
+ */
+final class IndicePrefijos {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    /** Separa el texto de la entidad en la clave; ordena antes que cualquier carácter ("bomba" antes que "bomba x"). */
+    private static final char SEPARADOR = '\u0000';
+
+    private final TipoResultado tipo;
+    private final NavigableMap<String, SugerenciaDTO> todas = new ConcurrentSkipListMap<>();
+    private final Map<Long, NavigableMap<String, SugerenciaDTO>> porEmbarcacion = new ConcurrentHashMap<>();
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+    IndicePrefijos(TipoResultado tipo) {
+        this.tipo = tipo;
+    }
+
+    /** Reemplaza las entradas de la entidad por su nombre y sus códigos. */
+    void guardar(Long id, Long idEmbarcacion, Long idSistema, String nombre, String... codigos) {
+        borrar(id);
+        List<String> textos = new ArrayList<>(1 + codigos.length);
+        textos.add(nombre);
+        textos.addAll(Arrays.asList(codigos));
+        Map<String, SugerenciaDTO> nuevas = new LinkedHashMap<>();
+        for (String texto : textos) {
+            if (texto != null && !texto.isBlank()) {
+                nuevas.putIfAbsent(normalizar(texto) + SEPARADOR + id, new SugerenciaDTO(tipo, id, idEmbarcacion, texto.trim(), nombre));
+            }
+        }
+        entradas.put(id, new Entrada(idEmbarcacion, idSistema, nombre, codigos, List.copyOf(nuevas.keySet())));
+        nuevas.forEach((clave, sugerencia) -> {
+            todas.put(clave, sugerencia);
+            if (idEmbarcacion != null) {
+                porEmbarcacion.computeIfAbsent(idEmbarcacion, k -> new ConcurrentSkipListMap<>()).put(clave, sugerencia);
+            }
+        });
+    }
+
+    void borrar(Long id) {
+        Entrada anterior = entradas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        NavigableMap<String, SugerenciaDTO> embarcacion = anterior.idEmbarcacion() != null
+                ? porEmbarcacion.get(anterior.idEmbarcacion()) : null;
+        for (String clave : anterior.claves()) {
+            todas.remove(clave);
+            if (embarcacion != null) {
+                embarcacion.remove(clave);
+            }
+        }
+    }
+
+    boolean contiene(Long id) {
+        return entradas.containsKey(id);
+    }
+
+    Long embarcacionDe(Long id) {
+        Entrada entrada = entradas.get(id);
+        return entrada != null ? entrada.idEmbarcacion() : null;
+    }
+
+    /**
+     * Pasa a otra embarcación las entradas que cuelgan de un sistema que ha cambiado de embarcación.
+     * Recorre todo el índice, pero solo ocurre al mover un sistema.
+     */
+    void moverSistema(Long idSistema, Long idEmbarcacion) {
+        entradas.forEach((id, entrada) -> {
+            if (idSistema.equals(entrada.idSistema()) && !Objects.equals(idEmbarcacion, entrada.idEmbarcacion())) {
+                guardar(id, idEmbarcacion, idSistema, entrada.nombre(), entrada.codigos());
+            }
+        });
+    }
+
+    /**
+     * Hasta {@code limite} completaciones del prefijo ya normalizado, en orden alfabético, con su
+     * clave para poder mezclarlas con las de otros tipos. Con {@code idEmbarcacion}, solo las de
+     * esa embarcación.
+     */
+    List<Map.Entry<String, SugerenciaDTO>> completar(String prefijo, Long idEmbarcacion, int limite) {
+        NavigableMap<String, SugerenciaDTO> mapa = idEmbarcacion == null ? todas : porEmbarcacion.get(idEmbarcacion);
+        if (mapa == null) {
+            return List.of();
+        }
+        List<Map.Entry<String, SugerenciaDTO>> resultado = new ArrayList<>(limite);
+        for (Map.Entry<String, SugerenciaDTO> entrada : mapa.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false).entrySet()) {
+            resultado.add(entrada);
+            if (resultado.size() == limite) {
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    int entidades() {
+        return entradas.size();
+    }
+
+    static String normalizar(String texto) {
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinTildes.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    private record Entrada(Long idEmbarcacion, Long idSistema, String nombre, String[] codigos, List<String> claves) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.perucontrols.techdoc.busqueda;
+
+import com.perucontrols.techdoc.cache.Tablas;
+
+/** Entidades del índice de búsqueda global, con la tabla que las avisa en el InvalidationBus. */
+public enum TipoResultado {
+    EMBARCACION(Tablas.EMBARCACIONES),
+    SISTEMA(Tablas.SISTEMAS),
+    COMPONENTE(Tablas.COMPONENTES),
+    DOCUMENTO(Tablas.DOCUMENTACION),
+    MANTENIMIENTO(Tablas.MANTENIMIENTOS),
+    VERSION_SOFTWARE(Tablas.VERSIONES_SOFTWARE);
+
+    private final String tabla;
+
+    TipoResultado(String tabla) {
+        this.tabla = tabla;
+    }
+
+    public String getTabla() {
+        return tabla;
+    }
+}
@@ -0,0 +1,35 @@
+package com.perucontrols.techdoc.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "techdoc.cache")
+public class CacheProperties {
+
+    /** Máximo de entradas por tipo de entidad. */
+    private long maximumSize = 10_000;
+
+    /** Vida de una entrada encontrada. */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /** Vida de una entrada negativa (id inexistente). */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    /**
+     * Tras invalidar un id, sus fallos de caché se cargan de la primaria durante este tiempo, para
+     * no guardar todo el TTL lo que devuelva una réplica atrasada. Debe cubrir su retraso.
+     */
+    private Duration ventanaPrimaria = Duration.ofSeconds(5);
+
+    /** Máximo de resultados de búsqueda guardados en {@link ResultCache}. */
+    private long resultadosMaximumSize = 2_000;
+
+    /**
+     * Vida máxima de un resultado de búsqueda. Acota lo que dura un resultado leído de una réplica
+     * atrasada justo después de una escritura.
+     */
+    private Duration resultadosTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,238 @@
+package com.perucontrols.techdoc.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perucontrols.techdoc.dto.ApiResponseDto;
+import com.perucontrols.techdoc.dto.TipoSistemaDTO;
+import com.perucontrols.techdoc.exception.ResourceNotFoundException;
+import com.perucontrols.techdoc.mapper.TipoSistemaMapper;
+import com.perucontrols.techdoc.model.TipoSistema;
+import com.perucontrols.techdoc.repository.MarcasModificacion.MarcaModificacion;
+import com.perucontrols.techdoc.repository.TipoSistemaRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Catálogo de tipos de sistema en memoria. Se carga al arrancar en una instantánea inmutable
+ * indexada por id, categoría y nombre normalizado (minúsculas, sin tildes), que además guarda
+ * ya serializadas las respuestas JSON de los listados: leer el catálogo no consulta la base
+ * ni pasa por Jackson.
+ * <p>
+ * Tras cada escritura confirmada se recarga desde la primaria y se reemplaza la instantánea de
+ * una vez; los demás nodos recargan al recibir el aviso del {@link InvalidationBus}. Los DTOs
+ * de la instantánea son compartidos y no deben modificarse.
+ */
+@Slf4j
+@Component
+public class CatalogoTiposSistema {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final TipoSistemaRepository repository;
+    private final TipoSistemaMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate primaria;
+    private final InvalidationBus bus;
+
+    private volatile Snapshot snapshot;
+
+    public CatalogoTiposSistema(TipoSistemaRepository repository, TipoSistemaMapper mapper, ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager, InvalidationBus bus) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        // Transacción de lectura-escritura a propósito: la recarga va a la primaria, no a una réplica atrasada
+        this.primaria = new TransactionTemplate(transactionManager);
+        this.bus = bus;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        recargar();
+        bus.suscribir(Tablas.TIPOS_SISTEMA, new InvalidationBus.Suscriptor() {
+            @Override
+            public void invalidar(Collection<Long> ids) {
+                recargar();
+            }
+
+            @Override
+            public void invalidarTodo() {
+                recargar();
+            }
+        });
+    }
+
+    public List<TipoSistemaDTO> todos() {
+        return snapshot.todos;
+    }
+
+    public Optional<TipoSistemaDTO> buscar(Long id) {
+        return Optional.ofNullable(snapshot.porId.get(id));
+    }
+
+    public boolean contiene(Long id) {
+        return snapshot.porId.containsKey(id);
+    }
+
+    public List<TipoSistemaDTO> porCategoria(TipoSistema.CategoriaSistema categoria) {
+        return snapshot.porCategoria.getOrDefault(categoria, List.of());
+    }
+
+    /** Tipos cuyo nombre contiene {@code texto}, sin distinguir mayúsculas ni tildes. */
+    public List<TipoSistemaDTO> porNombre(String texto) {
+        String buscado = normalizar(texto);
+        Snapshot actual = snapshot;
+        List<TipoSistemaDTO> resultado = new ArrayList<>();
+        actual.porNombre.forEach((nombre, tipos) -> {
+            if (nombre.contains(buscado)) {
+                resultado.addAll(tipos);
+            }
+        });
+        resultado.sort(Comparator.comparing(TipoSistemaDTO::getId));
+        return resultado;
+    }
+
+    /** Marca del catálogo para el ETag de los listados, sin consultar la base. */
+    public MarcaModificacion marca() {
+        return snapshot.marca;
+    }
+
+    /** Respuesta {@code ApiResponseDto} ya serializada con todo el catálogo. */
+    public byte[] jsonTodos() {
+        return snapshot.jsonTodos;
+    }
+
+    public byte[] jsonPorCategoria(TipoSistema.CategoriaSistema categoria) {
+        Snapshot actual = snapshot;
+        return actual.jsonPorCategoria.getOrDefault(categoria, actual.sobre(List.of()));
+    }
+
+    public byte[] jsonPorId(Long id) {
+        byte[] json = snapshot.jsonPorId.get(id);
+        if (json == null) {
+            throw new ResourceNotFoundException("Tipo de sistema no encontrado con ID: " + id);
+        }
+        return json;
+    }
+
+    public byte[] jsonPorNombre(String texto) {
+        Snapshot actual = snapshot;
+        return actual.sobre(porNombre(texto).stream().map(t -> actual.jsonItems.get(t.getId())).toList());
+    }
+
+    /** Recarga el catálogo cuando la transacción actual confirme; el bus avisa también al resto de nodos. */
+    public void recargarTrasCommit() {
+        bus.publicarTodo(Tablas.TIPOS_SISTEMA);
+    }
+
+    public synchronized void recargar() {
+        List<TipoSistemaDTO> tipos = primaria.execute(status -> repository.findAll().stream()
+                .map(mapper::toDTO)
+                .sorted(Comparator.comparing(TipoSistemaDTO::getId))
+                .toList());
+        snapshot = new Snapshot(tipos, objectMapper);
+        log.info("Catálogo de tipos de sistema cargado: {} tipos", tipos.size());
+    }
+
+    static String normalizar(String texto) {
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static final class Snapshot {
+
+        private final List<TipoSistemaDTO> todos;
+        private final Map<Long, TipoSistemaDTO> porId;
+        private final Map<TipoSistema.CategoriaSistema, List<TipoSistemaDTO>> porCategoria;
+        private final Map<String, List<TipoSistemaDTO>> porNombre;
+        private final Map<Long, byte[]> jsonItems;
+        private final Map<Long, byte[]> jsonPorId;
+        private final Map<TipoSistema.CategoriaSistema, byte[]> jsonPorCategoria;
+        private final byte[] jsonTodos;
+        private final MarcaModificacion marca;
+        private final byte[] inicio;
+        private final byte[] fin;
+
+        Snapshot(List<TipoSistemaDTO> tipos, ObjectMapper objectMapper) {
+            try {
+                // El sobre se obtiene de Jackson una sola vez para respetar su configuración
+                String vacio = objectMapper.writeValueAsString(ApiResponseDto.success(List.of()));
+                int corte = vacio.lastIndexOf("[]");
+                this.inicio = vacio.substring(0, corte + 1).getBytes(StandardCharsets.UTF_8);
+                this.fin = vacio.substring(corte + 1).getBytes(StandardCharsets.UTF_8);
+
+                Map<Long, TipoSistemaDTO> ids = new LinkedHashMap<>();
+                Map<Long, byte[]> items = new LinkedHashMap<>();
+                Map<Long, byte[]> individuales = new LinkedHashMap<>();
+                Map<TipoSistema.CategoriaSistema, List<TipoSistemaDTO>> categorias =
+                        new EnumMap<>(TipoSistema.CategoriaSistema.class);
+                Map<String, List<TipoSistemaDTO>> nombres = new LinkedHashMap<>();
+                for (TipoSistemaDTO tipo : tipos) {
+                    ids.put(tipo.getId(), tipo);
+                    items.put(tipo.getId(), objectMapper.writeValueAsBytes(tipo));
+                    individuales.put(tipo.getId(), objectMapper.writeValueAsBytes(ApiResponseDto.success(tipo)));
+                    if (tipo.getCategoria() != null) {
+                        categorias.computeIfAbsent(tipo.getCategoria(), c -> new ArrayList<>()).add(tipo);
+                    }
+                    if (tipo.getNombre() != null) {
+                        nombres.computeIfAbsent(normalizar(tipo.getNombre()), n -> new ArrayList<>()).add(tipo);
+                    }
+                }
+
+                this.todos = List.copyOf(tipos);
+                this.porId = Map.copyOf(ids);
+                this.jsonItems = Map.copyOf(items);
+                this.jsonPorId = Map.copyOf(individuales);
+                this.porCategoria = new EnumMap<>(TipoSistema.CategoriaSistema.class);
+                this.jsonPorCategoria = new EnumMap<>(TipoSistema.CategoriaSistema.class);
+                categorias.forEach((categoria, lista) -> {
+                    porCategoria.put(categoria, List.copyOf(lista));
+                    jsonPorCategoria.put(categoria, sobre(lista.stream().map(t -> items.get(t.getId())).toList()));
+                });
+                Map<String, List<TipoSistemaDTO>> copiaNombres = new LinkedHashMap<>();
+                nombres.forEach((nombre, lista) -> copiaNombres.put(nombre, List.copyOf(lista)));
+                this.porNombre = copiaNombres;
+                this.jsonTodos = sobre(todos.stream().map(t -> items.get(t.getId())).toList());
+                this.marca = new MarcaModificacion(todos.stream()
+                        .map(TipoSistemaDTO::getUpdatedAt)
+                        .filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder())
+                        .orElse(null), todos.size());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("No se pudo serializar el catálogo de tipos de sistema", e);
+            }
+        }
+
+        /** Arma {@code {"success":true,...,"data":[item,item]}} a partir de ítems ya serializados. */
+        byte[] sobre(List<byte[]> elementos) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.writeBytes(inicio);
+            for (int i = 0; i < elementos.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.writeBytes(elementos.get(i));
+            }
+            out.writeBytes(fin);
+            return out.toByteArray();
+        }
+    }
+}
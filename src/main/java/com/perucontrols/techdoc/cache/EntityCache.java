@@ -0,0 +1,201 @@
+package com.perucontrols.techdoc.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.perucontrols.techdoc.dto.CacheStatsDTO;
+import com.perucontrols.techdoc.exception.ResourceNotFoundException;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria de DTOs por id para un tipo de entidad, con expiración por tamaño y TTL.
+ * <p>
+ * Los ids inexistentes se guardan como entradas negativas (con un TTL más corto) y vuelven a
+ * lanzar {@link ResourceNotFoundException} sin consultar la base. Los métodos {@code getById}
+ * que la usan no son transaccionales: un acierto no debe abrir transacción ni pedir conexión;
+ * en un fallo, el repositorio abre su propia transacción de solo lectura.
+ * <p>
+ * Las escrituras invalidan al momento y otra vez tras el commit, para descartar un valor que
+ * otro hilo haya leído de la base antes de que la escritura fuera visible. La segunda la entrega
+ * el {@link InvalidationBus}, que también la lleva al resto de nodos.
+ * <p>
+ * Los fallos de caché pasan por {@link LecturaResiliente}: si la base no responde se sirve el
+ * último DTO leído, aunque ya haya salido de esta caché. Los de un id invalidado hace menos de
+ * {@code ventanaPrimaria} se leen de la primaria: una réplica atrasada devolvería el DTO anterior
+ * y quedaría guardado todo el TTL, deshaciendo la invalidación.
+ */
+public class EntityCache<D> {
+
+    private final String nombre;
+    private final Cache<Long, Entrada<D>> cache;
+    private final InvalidationBus bus;
+    private final SingleFlight singleFlight;
+    private final LecturaResiliente lectura;
+    private final Cache<Long, Boolean> invalidadosRecientes;
+    private final long ventanaPrimariaNanos;
+    private volatile long todosInvalidadosHasta = System.nanoTime();
+    private final AtomicLong generacion = new AtomicLong();
+
+    EntityCache(String nombre, CacheProperties properties, InvalidationBus bus, SingleFlight singleFlight,
+                LecturaResiliente lectura) {
+        this.nombre = nombre;
+        this.bus = bus;
+        this.singleFlight = singleFlight;
+        this.lectura = lectura;
+        long ttl = properties.getTtl().toNanos();
+        long negativeTtl = properties.getNegativeTtl().toNanos();
+        this.ventanaPrimariaNanos = properties.getVentanaPrimaria().toNanos();
+        this.invalidadosRecientes = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getVentanaPrimaria())
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<Long, Entrada<D>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Entrada<D> entrada, long currentTime) {
+                        return entrada.dto() != null ? ttl : negativeTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Entrada<D> entrada, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, entrada, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Entrada<D> entrada, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        bus.suscribir(nombre, new InvalidationBus.Suscriptor() {
+            @Override
+            public void invalidar(Collection<Long> ids) {
+                descartar(ids);
+            }
+
+            @Override
+            public void invalidarTodo() {
+                descartarTodo();
+            }
+        });
+        // Los DTOs llevan contadores de tablas hijas; se descartan todos porque el aviso trae
+        // ids de la hija, no del padre
+        for (String hija : Tablas.TODAS) {
+            if (Tablas.conContadoresDe(hija).contains(nombre)) {
+                bus.suscribir(hija, new InvalidationBus.Suscriptor() {
+                    @Override
+                    public void invalidar(Collection<Long> ids) {
+                        descartarTodo();
+                    }
+
+                    @Override
+                    public void invalidarTodo() {
+                        descartarTodo();
+                    }
+                });
+            }
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Devuelve el DTO en caché o lo carga con {@code loader}, que debe lanzar
+     * {@link ResourceNotFoundException} si el id no existe.
+     */
+    public D get(Long id, Function<Long, D> loader) {
+        Entrada<D> entrada = cache.getIfPresent(id);
+        if (entrada == null) {
+            // Caffeine ya carga una sola vez por clave; SingleFlight lo hace visible en sus estadísticas
+            List<Object> clave = List.of(nombre, id);
+            entrada = lectura.leer(clave, () -> singleFlight.ejecutar(clave, () -> cache.get(id, key -> cargar(key, loader))),
+                    invalidadoRecientemente(id));
+        }
+        if (entrada.dto() == null) {
+            throw new ResourceNotFoundException(entrada.mensaje());
+        }
+        return entrada.dto();
+    }
+
+    /** Marca a pasar a {@link #precargar} tomada antes de leer los DTOs. */
+    public long marca() {
+        return generacion.get();
+    }
+
+    /**
+     * Guarda DTOs ya leídos sin pasar por el loader. Pensado para el calentamiento al arrancar.
+     * Como el loader, no deja un valor anterior a una invalidación: se descarta lo guardado si hubo
+     * alguna desde {@code marca}, y se omiten los ids que la réplica quizá aún no refleje.
+     */
+    public void precargar(long marca, Collection<D> dtos, Function<D, Long> id) {
+        for (D dto : dtos) {
+            Long clave = id.apply(dto);
+            if (invalidadoRecientemente(clave)) {
+                continue;
+            }
+            Entrada<D> entrada = new Entrada<>(dto, null);
+            if (cache.asMap().putIfAbsent(clave, entrada) == null && generacion.get() != marca) {
+                cache.asMap().remove(clave, entrada);
+                return;
+            }
+        }
+    }
+
+    public void invalidar(Long id) {
+        invalidar(List.of(id));
+    }
+
+    public void invalidar(Collection<Long> ids) {
+        descartar(ids);
+        // El bus vuelve a invalidar aquí tras el commit y lleva el aviso a los demás nodos
+        bus.publicar(nombre, ids);
+    }
+
+    public void invalidarTodo() {
+        descartarTodo();
+        bus.publicarTodo(nombre);
+    }
+
+    private void descartar(Collection<Long> ids) {
+        generacion.incrementAndGet();
+        ids.forEach(id -> invalidadosRecientes.put(id, Boolean.TRUE));
+        cache.invalidateAll(ids);
+    }
+
+    private void descartarTodo() {
+        generacion.incrementAndGet();
+        todosInvalidadosHasta = System.nanoTime() + ventanaPrimariaNanos;
+        cache.invalidateAll();
+    }
+
+    private boolean invalidadoRecientemente(Long id) {
+        return todosInvalidadosHasta - System.nanoTime() > 0 || invalidadosRecientes.getIfPresent(id) != null;
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        long negativas = cache.asMap().values().stream().filter(e -> e.dto() == null).count();
+        return new CacheStatsDTO(nombre, cache.estimatedSize(), negativas, stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), stats.averageLoadPenalty() / 1_000_000.0);
+    }
+
+    private static <D> Entrada<D> cargar(Long id, Function<Long, D> loader) {
+        try {
+            return new Entrada<>(loader.apply(id), null);
+        } catch (ResourceNotFoundException e) {
+            return new Entrada<>(null, e.getMessage());
+        }
+    }
+
+    private record Entrada<D>(D dto, String mensaje) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.perucontrols.techdoc.cache;
+
+import com.perucontrols.techdoc.dto.ComponenteDTO;
+import com.perucontrols.techdoc.dto.DocumentacionDTO;
+import com.perucontrols.techdoc.dto.EmbarcacionDTO;
+import com.perucontrols.techdoc.dto.EspecificacionTecnicaDTO;
+import com.perucontrols.techdoc.dto.MantenimientoDTO;
+import com.perucontrols.techdoc.dto.SistemaDTO;
+import com.perucontrols.techdoc.dto.VersionSoftwareDTO;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registro de las cachés por entidad. Cada una se publica como bean {@code EntityCache<XDTO>}
+ * para inyectarla en su servicio, y el registro las expone al endpoint de administración.
+ * Todas se suscriben al {@link InvalidationBus} con su nombre como tipo.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({CacheProperties.class, InvalidacionProperties.class})
+public class EntityCaches {
+
+    private final CacheProperties properties;
+    private final InvalidationBus bus;
+    private final SingleFlight singleFlight;
+    private final LecturaResiliente lectura;
+    private final Map<String, EntityCache<?>> caches = new ConcurrentSkipListMap<>();
+
+    public EntityCaches(CacheProperties properties, InvalidationBus bus, SingleFlight singleFlight,
+                        LecturaResiliente lectura) {
+        this.properties = properties;
+        this.bus = bus;
+        this.singleFlight = singleFlight;
+        this.lectura = lectura;
+    }
+
+    public Collection<EntityCache<?>> todas() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    public Optional<EntityCache<?>> buscar(String nombre) {
+        return Optional.ofNullable(caches.get(nombre));
+    }
+
+    @Bean
+    public EntityCache<SistemaDTO> sistemaCache() {
+        return crear(Tablas.SISTEMAS);
+    }
+
+    @Bean
+    public EntityCache<ComponenteDTO> componenteCache() {
+        return crear(Tablas.COMPONENTES);
+    }
+
+    @Bean
+    public EntityCache<DocumentacionDTO> documentacionCache() {
+        return crear(Tablas.DOCUMENTACION);
+    }
+
+    @Bean
+    public EntityCache<MantenimientoDTO> mantenimientoCache() {
+        return crear(Tablas.MANTENIMIENTOS);
+    }
+
+    @Bean
+    public EntityCache<VersionSoftwareDTO> versionSoftwareCache() {
+        return crear(Tablas.VERSIONES_SOFTWARE);
+    }
+
+    @Bean
+    public EntityCache<EmbarcacionDTO> embarcacionCache() {
+        return crear(Tablas.EMBARCACIONES);
+    }
+
+    @Bean
+    public EntityCache<EspecificacionTecnicaDTO> especificacionTecnicaCache() {
+        return crear(Tablas.ESPECIFICACIONES_TECNICAS);
+    }
+
+    private <D> EntityCache<D> crear(String nombre) {
+        EntityCache<D> cache = new EntityCache<>(nombre, properties, bus, singleFlight, lectura);
+        caches.put(nombre, cache);
+        return cache;
+    }
+}
@@ -0,0 +1,26 @@
+package com.perucontrols.techdoc.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "techdoc.invalidacion")
+public class InvalidacionProperties {
+
+    /** Sin el bus cada nodo solo invalida su propia caché. */
+    private boolean enabled = true;
+
+    /** Canal de LISTEN/NOTIFY compartido por todos los nodos. */
+    private String canal = "techdoc_invalidacion";
+
+    /** Cada cuánto se envían las invalidaciones acumuladas. */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /** Espera antes de reabrir la conexión de escucha tras un fallo. */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /** Con más ids pendientes de un tipo se envía una invalidación completa de ese tipo. */
+    private int maxIdsPorTipo = 2_000;
+}
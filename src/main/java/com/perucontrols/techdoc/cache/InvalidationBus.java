@@ -0,0 +1,327 @@
+package com.perucontrols.techdoc.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Propaga las invalidaciones de caché entre nodos con LISTEN/NOTIFY de PostgreSQL.
+ * <p>
+ * Las escrituras se encolan al hacer commit y se envían agrupadas cada {@code flushInterval}:
+ * los ids repetidos se fusionan y, si un tipo acumula más de {@code maxIdsPorTipo}, se manda una
+ * sola invalidación completa; lo que no se pudo enviar se reintenta en el ciclo siguiente. Los
+ * suscriptores del propio nodo se avisan al confirmar, sin esperar al envío. Cada nodo escucha en
+ * una conexión propia, fuera del pool, e ignora sus propios mensajes (ya invalidó localmente). Si la conexión de escucha se pierde, al
+ * reconectar se vacían todas las cachés suscritas, porque los mensajes perdidos no se reenvían.
+ * <p>
+ * Formato del mensaje: {@code nodo|tipo|id,id,...} o {@code nodo|tipo|*}.
+ */
+@Slf4j
+@Component
+public class InvalidationBus implements SmartLifecycle {
+
+    /** NOTIFY admite cargas de hasta 8000 bytes. */
+    private static final int MAX_PAYLOAD = 7_900;
+    private static final String TODO = "*";
+
+    /** Recibe las invalidaciones de un tipo de entidad llegadas de otros nodos. */
+    public interface Suscriptor {
+        void invalidar(Collection<Long> ids);
+
+        void invalidarTodo();
+    }
+
+    private final InvalidacionProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodo = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, List<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    private Map<String, Set<Long>> pendientes = new HashMap<>();
+    private Set<String> pendientesTodo = new LinkedHashSet<>();
+
+    private volatile boolean corriendo;
+    private volatile Connection conexion;
+    private Thread escucha;
+
+    public InvalidationBus(InvalidacionProperties properties, DataSourceProperties dataSourceProperties,
+                           DataSource dataSource) {
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void suscribir(String tipo, Suscriptor suscriptor) {
+        suscriptores.computeIfAbsent(tipo, t -> new CopyOnWriteArrayList<>()).add(suscriptor);
+    }
+
+    /**
+     * Anuncia que los ids cambiaron; dentro de una transacción, tras el commit. Los suscriptores
+     * de este nodo se avisan en el acto y los demás nodos en el próximo envío.
+     */
+    public void publicar(String tipo, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> copia = List.copyOf(ids);
+        alConfirmar(() -> {
+            notificar(tipo, copia);
+            if (properties.isEnabled()) {
+                encolar(tipo, copia);
+            }
+        });
+    }
+
+    public void publicarTodo(String tipo) {
+        alConfirmar(() -> {
+            notificar(tipo, null);
+            if (properties.isEnabled()) {
+                synchronized (lock) {
+                    pendientesTodo.add(tipo);
+                    pendientes.remove(tipo);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${techdoc.invalidacion.flush-interval:50ms}")
+    public void enviarPendientes() {
+        Map<String, Set<Long>> ids;
+        Set<String> todos;
+        synchronized (lock) {
+            if (pendientes.isEmpty() && pendientesTodo.isEmpty()) {
+                return;
+            }
+            ids = pendientes;
+            todos = pendientesTodo;
+            pendientes = new HashMap<>();
+            pendientesTodo = new LinkedHashSet<>();
+        }
+
+        List<Mensaje> mensajes = new ArrayList<>();
+        todos.forEach(tipo -> mensajes.add(new Mensaje(tipo, null, nodo + "|" + tipo + "|" + TODO)));
+        ids.forEach((tipo, set) -> mensajes.addAll(partir(tipo, set)));
+        for (int i = 0; i < mensajes.size(); i++) {
+            try {
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, properties.getCanal(),
+                        mensajes.get(i).texto());
+            } catch (RuntimeException e) {
+                // Los índices de búsqueda de los otros nodos no tienen TTL: solo se corrigen con el aviso
+                List<Mensaje> noEnviados = mensajes.subList(i, mensajes.size());
+                log.warn("No se pudieron enviar {} invalidaciones; se reintentará: {}", noEnviados.size(), e.getMessage());
+                reencolar(noEnviados);
+                return;
+            }
+        }
+    }
+
+    private void reencolar(List<Mensaje> mensajes) {
+        for (Mensaje mensaje : mensajes) {
+            if (mensaje.ids() == null) {
+                synchronized (lock) {
+                    pendientesTodo.add(mensaje.tipo());
+                    pendientes.remove(mensaje.tipo());
+                }
+            } else {
+                encolar(mensaje.tipo(), mensaje.ids());
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Bus de invalidación desactivado; las cachés solo se invalidan localmente");
+            return;
+        }
+        corriendo = true;
+        escucha = new Thread(this::escuchar, "techdoc-invalidacion");
+        escucha.setDaemon(true);
+        escucha.start();
+    }
+
+    @Override
+    public void stop() {
+        corriendo = false;
+        cerrarConexion();
+        if (escucha != null) {
+            escucha.interrupt();
+        }
+        enviarPendientes();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return corriendo;
+    }
+
+    private void escuchar() {
+        boolean reconexion = false;
+        while (corriendo) {
+            try {
+                conexion = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                try (Statement statement = conexion.createStatement()) {
+                    statement.execute("LISTEN " + properties.getCanal());
+                }
+                log.info("Escuchando invalidaciones en el canal {} (nodo {})", properties.getCanal(), nodo);
+                if (reconexion) {
+                    suscriptores.values().forEach(lista -> lista.forEach(Suscriptor::invalidarTodo));
+                }
+                PGConnection pg = conexion.unwrap(PGConnection.class);
+                while (corriendo) {
+                    PGNotification[] notificaciones = pg.getNotifications(1_000);
+                    if (notificaciones != null) {
+                        for (PGNotification notificacion : notificaciones) {
+                            recibir(notificacion.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (corriendo) {
+                    log.warn("Conexión de escucha perdida: {}; reintentando en {}", e.getMessage(),
+                            properties.getReconnectDelay());
+                }
+            } finally {
+                cerrarConexion();
+            }
+            reconexion = true;
+            dormir();
+        }
+    }
+
+    private void recibir(String mensaje) {
+        String[] partes = mensaje.split("\\|", 3);
+        if (partes.length != 3 || nodo.equals(partes[0])) {
+            return;
+        }
+        if (TODO.equals(partes[2])) {
+            notificar(partes[1], null);
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String id : partes[2].split(",")) {
+            try {
+                ids.add(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                log.warn("Invalidación con id no válido: {}", id);
+            }
+        }
+        notificar(partes[1], ids);
+    }
+
+    /** Entrega el aviso a los suscriptores locales del tipo; {@code ids} nulo significa todos. */
+    private void notificar(String tipo, List<Long> ids) {
+        List<Suscriptor> lista = suscriptores.getOrDefault(tipo, List.of());
+        for (Suscriptor suscriptor : lista) {
+            try {
+                if (ids == null) {
+                    suscriptor.invalidarTodo();
+                } else {
+                    suscriptor.invalidar(ids);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Error al invalidar {}: {}", tipo, e.getMessage());
+            }
+        }
+    }
+
+    private void encolar(String tipo, Collection<Long> ids) {
+        synchronized (lock) {
+            if (pendientesTodo.contains(tipo)) {
+                return;
+            }
+            Set<Long> set = pendientes.computeIfAbsent(tipo, t -> new LinkedHashSet<>());
+            set.addAll(ids);
+            if (set.size() > properties.getMaxIdsPorTipo()) {
+                pendientes.remove(tipo);
+                pendientesTodo.add(tipo);
+            }
+        }
+    }
+
+    private List<Mensaje> partir(String tipo, Set<Long> ids) {
+        List<Mensaje> mensajes = new ArrayList<>();
+        String prefijo = nodo + "|" + tipo + "|";
+        StringBuilder actual = new StringBuilder(prefijo);
+        List<Long> incluidos = new ArrayList<>();
+        for (Long id : ids) {
+            String valor = id.toString();
+            if (actual.length() > prefijo.length()
+                    && actual.length() + valor.length() + 1 > MAX_PAYLOAD) {
+                mensajes.add(new Mensaje(tipo, incluidos, actual.toString()));
+                actual = new StringBuilder(prefijo);
+                incluidos = new ArrayList<>();
+            }
+            if (actual.length() > prefijo.length()) {
+                actual.append(',');
+            }
+            actual.append(valor);
+            incluidos.add(id);
+        }
+        mensajes.add(new Mensaje(tipo, incluidos, actual.toString()));
+        return mensajes;
+    }
+
+    /** Un NOTIFY ya formateado, con lo que avisa para poder reencolarlo; {@code ids} nulo es "todo". */
+    private record Mensaje(String tipo, List<Long> ids, String texto) {
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private void cerrarConexion() {
+        Connection actual = conexion;
+        conexion = null;
+        if (actual != null) {
+            try {
+                actual.close();
+            } catch (SQLException e) {
+                log.debug("Error al cerrar la conexión de escucha", e);
+            }
+        }
+    }
+
+    private void dormir() {
+        try {
+            Thread.sleep(properties.getReconnectDelay().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            corriendo = false;
+        }
+    }
+}
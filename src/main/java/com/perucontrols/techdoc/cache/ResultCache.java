@@ -0,0 +1,167 @@
+package com.perucontrols.techdoc.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.perucontrols.techdoc.dto.CacheStatsDTO;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché de resultados de las búsquedas ({@code /buscar/...}), por endpoint y parámetros.
+ * <p>
+ * Cada entrada guarda el contador de generación de las tablas de las que depende, leído antes
+ * de ejecutar la consulta. Toda escritura confirmada sobre una tabla (local o avisada por el
+ * {@link InvalidationBus}) incrementa su contador, de modo que una escritura en
+ * {@code componentes} solo descarta los resultados que dependen de {@code componentes}.
+ * Las consultas que usan la fecha de hoy se registran con {@link #hastaMedianoche} y expiran al
+ * cambiar el día. Si la base no responde, {@link LecturaResiliente} sirve el último resultado
+ * calculado aunque su generación ya no sea la actual.
+ */
+@Component
+public class ResultCache {
+
+    public static final String NOMBRE = "resultados";
+
+    private final Map<String, AtomicLong> generaciones = new ConcurrentHashMap<>();
+    private final Cache<Clave, Entrada> cache;
+    private final SingleFlight singleFlight;
+    private final LecturaResiliente lectura;
+
+    public ResultCache(CacheProperties properties, InvalidationBus bus, SingleFlight singleFlight,
+                       LecturaResiliente lectura) {
+        this.singleFlight = singleFlight;
+        this.lectura = lectura;
+        long ttl = properties.getResultadosTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getResultadosMaximumSize())
+                .expireAfter(new Expiry<Clave, Entrada>() {
+                    @Override
+                    public long expireAfterCreate(Clave clave, Entrada entrada, long currentTime) {
+                        if (!entrada.hastaMedianoche()) {
+                            return ttl;
+                        }
+                        LocalDateTime ahora = LocalDateTime.now();
+                        long restante = Duration.between(ahora, ahora.toLocalDate().plusDays(1).atStartOfDay()).toNanos();
+                        return Math.min(ttl, restante);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Clave clave, Entrada entrada, long currentTime, long currentDuration) {
+                        return expireAfterCreate(clave, entrada, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Clave clave, Entrada entrada, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        for (String tabla : Tablas.TODAS) {
+            generaciones.put(tabla, new AtomicLong());
+            bus.suscribir(tabla, new InvalidationBus.Suscriptor() {
+                @Override
+                public void invalidar(Collection<Long> ids) {
+                    avanzar(tabla);
+                }
+
+                @Override
+                public void invalidarTodo() {
+                    avanzar(tabla);
+                }
+            });
+        }
+    }
+
+    /**
+     * Devuelve el resultado guardado para {@code endpoint} y {@code parametros} si ninguna de las
+     * {@code tablas} cambió desde que se calculó; si no, lo calcula con {@code consulta}.
+     */
+    public <T> T get(String endpoint, List<String> tablas, Supplier<T> consulta, Object... parametros) {
+        return get(new Clave(endpoint, normalizar(parametros)), tablas, false, consulta);
+    }
+
+    /** Igual que {@link #get}, para consultas que dependen de la fecha actual. */
+    public <T> T hastaMedianoche(String endpoint, List<String> tablas, Supplier<T> consulta, Object... parametros) {
+        return get(new Clave(endpoint, normalizar(parametros)), tablas, true, consulta);
+    }
+
+    public void invalidarTodo() {
+        cache.invalidateAll();
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(NOMBRE, cache.estimatedSize(), 0, stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), stats.averageLoadPenalty() / 1_000_000.0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Clave clave, List<String> tablas, boolean hastaMedianoche, Supplier<T> consulta) {
+        Entrada entrada = cache.getIfPresent(clave);
+        if (entrada != null && entrada.generaciones().equals(generaciones(tablas))) {
+            return (T) entrada.valor();
+        }
+        // La revalidación en segundo plano repite cargar(), que vuelve a leer las generaciones
+        return lectura.leer(clave, () -> cargar(clave, tablas, hastaMedianoche, consulta));
+    }
+
+    private <T> T cargar(Clave clave, List<String> tablas, boolean hastaMedianoche, Supplier<T> consulta) {
+        // Las generaciones se leen antes de consultar: si una escritura confirma mientras tanto,
+        // el resultado se guarda ya desactualizado respecto al contador y no se reutiliza
+        List<Long> actuales = generaciones(tablas);
+        // Solo comparten carga las llamadas que vieron las mismas generaciones
+        return singleFlight.ejecutar(new Vuelo(clave, actuales), () -> {
+            T valor = consulta.get();
+            cache.put(clave, new Entrada(valor, actuales, hastaMedianoche));
+            return valor;
+        });
+    }
+
+    /** Avanza la generación de la tabla y la de las tablas cuyos contadores dependen de ella. */
+    private void avanzar(String tabla) {
+        generaciones.get(tabla).incrementAndGet();
+        Tablas.conContadoresDe(tabla).forEach(padre -> generaciones.get(padre).incrementAndGet());
+    }
+
+    private List<Long> generaciones(List<String> tablas) {
+        return tablas.stream()
+                .map(tabla -> {
+                    AtomicLong generacion = generaciones.get(tabla);
+                    if (generacion == null) {
+                        throw new IllegalArgumentException("Tabla desconocida para la caché de resultados: " + tabla);
+                    }
+                    return generacion.get();
+                })
+                .toList();
+    }
+
+    /** Parámetros como texto canónico (enums por nombre, fechas en ISO) para que la clave no dependa del tipo. */
+    private static List<String> normalizar(Object[] parametros) {
+        return Arrays.stream(parametros)
+                .map(p -> p instanceof Enum<?> e ? e.name() : String.valueOf(p))
+                .toList();
+    }
+
+    private record Clave(String endpoint, List<String> parametros) {
+    }
+
+    private record Vuelo(Clave clave, List<Long> generaciones) {
+    }
+
+    private record Entrada(Object valor, List<Long> generaciones, boolean hastaMedianoche) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.perucontrols.techdoc.cache;
+
+import com.perucontrols.techdoc.dto.SingleFlightStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las lecturas idénticas concurrentes: mientras una carga con cierta clave está en curso,
+ * las demás llamadas con la misma clave esperan y reciben su mismo resultado, o su misma
+ * excepción, en lugar de lanzar otra consulta. No guarda nada al terminar; se puede usar con o
+ * sin una caché delante.
+ * <p>
+ * La carga no debe volver a pedir la misma clave desde el mismo hilo: esperaría por sí misma.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> enVuelo = new ConcurrentHashMap<>();
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(Object clave, Supplier<T> carga) {
+        llamadas.increment();
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enVuelo.putIfAbsent(clave, propia);
+        if (existente != null) {
+            coalescidas.increment();
+            return (T) esperar(existente);
+        }
+
+        cargas.increment();
+        try {
+            T valor = carga.get();
+            propia.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            errores.increment();
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enVuelo.remove(clave, propia);
+        }
+    }
+
+    public SingleFlightStatsDTO stats() {
+        return new SingleFlightStatsDTO(llamadas.sum(), cargas.sum(), coalescidas.sum(), errores.sum(), enVuelo.size());
+    }
+
+    private static Object esperar(CompletableFuture<Object> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            // Cada espera recibe la misma excepción que lanzó la carga
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.perucontrols.techdoc.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nombres de tabla usados como tipo en el {@link InvalidationBus} y como dependencia en
+ * {@link ResultCache}.
+ */
+public final class Tablas {
+
+    public static final String EMBARCACIONES = "embarcaciones";
+    public static final String TIPOS_SISTEMA = "tipos_sistema";
+    public static final String SISTEMAS = "sistemas";
+    public static final String COMPONENTES = "componentes";
+    public static final String DOCUMENTACION = "documentacion";
+    public static final String ESPECIFICACIONES_TECNICAS = "especificaciones_tecnicas";
+    public static final String MANTENIMIENTOS = "mantenimientos";
+    public static final String VERSIONES_SOFTWARE = "versiones_software";
+
+    public static final String[] TODAS = {EMBARCACIONES, TIPOS_SISTEMA, SISTEMAS, COMPONENTES, DOCUMENTACION,
+            ESPECIFICACIONES_TECNICAS, MANTENIMIENTOS, VERSIONES_SOFTWARE};
+
+    /**
+     * Tablas cuyos contadores desnormalizados (V6) cambian cuando cambia la tabla clave: sus
+     * cachés se descartan con cada escritura en ella, aunque la aplicación no las toque.
+     */
+    private static final Map<String, List<String>> CONTADORES = Map.of(
+            SISTEMAS, List.of(EMBARCACIONES),
+            COMPONENTES, List.of(SISTEMAS, EMBARCACIONES),
+            DOCUMENTACION, List.of(SISTEMAS, EMBARCACIONES),
+            MANTENIMIENTOS, List.of(SISTEMAS, EMBARCACIONES));
+
+    public static List<String> conContadoresDe(String tabla) {
+        return CONTADORES.getOrDefault(tabla, List.of());
+    }
+
+    private Tablas() {
+    }
+}
@@ -0,0 +1,97 @@
+package com.perucontrols.techdoc.calentamiento;
+
+import com.perucontrols.techdoc.service.EmbarcacionService;
+import com.perucontrols.techdoc.service.SistemaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calentamiento tras el arranque: precarga las entidades más consultadas en las cachés y repite
+ * un conjunto configurable de peticiones contra los controladores reales (HTTP local), de modo
+ * que se preparen los planes de consulta de Hibernate y el JIT compile mappers y Jackson.
+ * <p>
+ * Corre como {@link ApplicationRunner}: Spring Boot solo publica {@code ACCEPTING_TRAFFIC} (y
+ * {@code /actuator/health/readiness} pasa a UP) cuando terminan los runners, así que la instancia
+ * no recibe tráfico hasta acabar. El catálogo de tipos de sistema ya se carga al crear su bean.
+ * La duración se publica como {@code techdoc.calentamiento.duracion}.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(CalentamientoProperties.class)
+public class Calentamiento implements ApplicationRunner {
+
+    private final CalentamientoProperties properties;
+    private final EmbarcacionService embarcacionService;
+    private final SistemaService sistemaService;
+    private final Environment environment;
+    private final AtomicLong duracionNanos = new AtomicLong();
+
+    public Calentamiento(CalentamientoProperties properties, EmbarcacionService embarcacionService,
+                         SistemaService sistemaService, Environment environment, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.embarcacionService = embarcacionService;
+        this.sistemaService = sistemaService;
+        this.environment = environment;
+        TimeGauge.builder("techdoc.calentamiento.duracion", duracionNanos, TimeUnit.NANOSECONDS, AtomicLong::doubleValue)
+                .description("Duración del calentamiento previo a declarar la instancia lista")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        // Un fallo aquí no debe impedir el arranque: la instancia solo empezaría en frío
+        try {
+            int embarcaciones = embarcacionService.precargarActivas();
+            int sistemas = sistemaService.precargarCriticos();
+            log.info("Calentamiento: {} embarcaciones activas y {} sistemas críticos precargados", embarcaciones, sistemas);
+        } catch (RuntimeException e) {
+            log.warn("Calentamiento: no se pudieron precargar las cachés: {}", e.getMessage());
+        }
+        repetirPeticiones();
+        duracionNanos.set(System.nanoTime() - inicio);
+        log.info("Calentamiento terminado en {} ms", TimeUnit.NANOSECONDS.toMillis(duracionNanos.get()));
+    }
+
+    private void repetirPeticiones() {
+        String puerto = environment.getProperty("local.server.port");
+        if (puerto == null || properties.getPeticiones().isEmpty()) {
+            return;
+        }
+        RestClient cliente = RestClient.create("http://localhost:" + puerto
+                + environment.getProperty("server.servlet.context-path", ""));
+        long limite = System.nanoTime() + properties.getMaxDuracion().toNanos();
+        int realizadas = 0;
+        int fallidas = 0;
+        for (int i = 0; i < properties.getRepeticiones(); i++) {
+            for (String ruta : properties.getPeticiones()) {
+                if (System.nanoTime() - limite > 0) {
+                    log.warn("Calentamiento: se agotó el tiempo tras {} peticiones", realizadas);
+                    return;
+                }
+                try {
+                    cliente.get().uri(ruta).retrieve().toBodilessEntity();
+                } catch (RuntimeException e) {
+                    if (fallidas++ == 0) {
+                        log.warn("Calentamiento: falló GET {}: {}", ruta, e.getMessage());
+                    }
+                }
+                realizadas++;
+            }
+        }
+        log.info("Calentamiento: {} peticiones repetidas ({} fallidas)", realizadas, fallidas);
+    }
+}
@@ -0,0 +1,34 @@
+package com.perucontrols.techdoc.calentamiento;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "techdoc.calentamiento")
+public class CalentamientoProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Rutas GET (relativas al context-path) que se repiten contra los controladores reales. Los
+     * listados van paginados: repetir los completos cargaría tablas enteras en cada arranque.
+     */
+    private List<String> peticiones = new ArrayList<>(List.of(
+            "/tipos-sistema",
+            "/embarcaciones/paged?page=0&size=20",
+            "/sistemas/paged?page=0&size=20",
+            "/componentes/paged?page=0&size=20",
+            "/sistemas/buscar/estado/FALLA",
+            "/sistemas/buscar/mantenimiento-requerido",
+            "/embarcaciones/buscar/estado/ACTIVO"));
+
+    /** Veces que se repite cada petición; suficientes para que el JIT compile mappers y serialización. */
+    private int repeticiones = 50;
+
+    /** Tiempo máximo de repetición de peticiones; al agotarse la aplicación se declara lista igualmente. */
+    private Duration maxDuracion = Duration.ofMinutes(2);
+}
@@ -0,0 +1,38 @@
+package com.perucontrols.techdoc.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Identifica al cliente de la petición en curso por la cabecera {@value #HEADER} para que
+ * {@link ReplicaRoutingDataSource} pueda aplicar read-your-writes. Sin la cabecera no hay
+ * read-your-writes: detrás del balanceador todas las peticiones llegan desde la misma dirección, y
+ * usarla haría que una sola escritura mandara las lecturas de todos los clientes a la primaria.
+ */
+public class ClienteActual extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Client-Id";
+
+    private static final ThreadLocal<String> CLIENTE = new ThreadLocal<>();
+
+    public static String get() {
+        return CLIENTE.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cliente = request.getHeader(HEADER);
+        CLIENTE.set(cliente != null && !cliente.isBlank() ? cliente : null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CLIENTE.remove();
+        }
+    }
+}
@@ -29,7 +29,10 @@ public class OpenApiConfig {
         Info info = new Info()
                 .title("API de Documentación Técnica de Embarcaciones")
                 .version("1.0")
-                .description("API REST para gestionar documentación técnica de embarcaciones.")
+                .description("API REST para gestionar documentación técnica de embarcaciones. "
+                        + "Los clientes que necesiten leer lo que acaban de escribir deben enviar la cabecera "
+                        + ClienteActual.HEADER + " con un identificador estable; sin ella, una lectura "
+                        + "inmediatamente posterior puede llegar a una réplica que aún no tiene el cambio.")
                 .license(mitLicense);
 
         return new OpenAPI()
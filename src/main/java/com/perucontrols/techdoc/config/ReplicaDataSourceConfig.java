@@ -0,0 +1,78 @@
+package com.perucontrols.techdoc.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Activa el enrutamiento a réplicas de lectura cuando {@code techdoc.replicas.urls} está definido.
+ * Sin esa propiedad se usa el DataSource autoconfigurado de Spring Boot.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "techdoc.replicas", name = "urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties replicaProperties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<String> urls = replicaProperties.getUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            String clave = "replica-" + (i + 1);
+            replicas.put(clave, crearReplica(clave, urls.get(i), dataSourceProperties, replicaProperties));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaProperties.getReadYourWrites());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClienteActual> clienteActualFilter() {
+        FilterRegistrationBean<ClienteActual> registration = new FilterRegistrationBean<>(new ClienteActual());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private HikariDataSource crearReplica(String clave, String url, DataSourceProperties primaria,
+                                          ReplicaProperties properties) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName(clave);
+        replica.setJdbcUrl(url);
+        replica.setUsername(properties.getUsername() != null ? properties.getUsername() : primaria.determineUsername());
+        replica.setPassword(properties.getPassword() != null ? properties.getPassword() : primaria.determinePassword());
+        replica.setDriverClassName(primaria.determineDriverClassName());
+        replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+        replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        replica.setReadOnly(true);
+        // Una réplica caída al arrancar no debe impedir el arranque: queda fuera hasta el próximo chequeo
+        replica.setInitializationFailTimeout(-1);
+        return replica;
+    }
+}
@@ -0,0 +1,30 @@
+package com.perucontrols.techdoc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "techdoc.replicas")
+public class ReplicaProperties {
+
+    /** URLs JDBC de las réplicas de lectura. Sin URLs todo va a la base primaria. */
+    private List<String> urls = new ArrayList<>();
+
+    /** Credenciales de las réplicas; si faltan se usan las de spring.datasource. */
+    private String username;
+    private String password;
+
+    private int maximumPoolSize = 10;
+
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    /** Intervalo entre chequeos de salud de las réplicas. */
+    private Duration healthInterval = Duration.ofSeconds(5);
+
+    /** Ventana tras una escritura en la que las lecturas del mismo cliente siguen en la primaria (0 la desactiva). */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+}
@@ -0,0 +1,154 @@
+package com.perucontrols.techdoc.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía las transacciones {@code readOnly} a una réplica sana (round-robin) y todo lo demás a la
+ * primaria. Debe ir detrás de un {@code LazyConnectionDataSourceProxy}: la conexión se pide con
+ * la primera sentencia, cuando la transacción ya está marcada como de solo lectura.
+ *
+ * <p>Si no hay réplicas sanas, o si el cliente escribió hace menos de {@code readYourWrites},
+ * las lecturas también van a la primaria.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIA = "primaria";
+
+    private final DataSource primaria;
+    private final Map<String, DataSource> replicas;
+    private final List<String> claves;
+    private final Set<String> sanas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger siguiente = new AtomicInteger();
+    private final long ventanaNanos;
+    private final Map<String, Long> escriturasRecientes = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primaria, Map<String, DataSource> replicas, Duration readYourWrites) {
+        this.primaria = primaria;
+        this.replicas = replicas;
+        this.claves = new ArrayList<>(replicas.keySet());
+        this.ventanaNanos = readYourWrites.toNanos();
+
+        Map<Object, Object> destinos = new HashMap<>(replicas);
+        destinos.put(PRIMARIA, primaria);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        verificarReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscritura();
+            return PRIMARIA;
+        }
+        if (leeSusEscrituras(ClienteActual.get())) {
+            return PRIMARIA;
+        }
+        return elegirReplica();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String clave = (String) determineCurrentLookupKey();
+        if (PRIMARIA.equals(clave)) {
+            return primaria.getConnection();
+        }
+        try {
+            return replicas.get(clave).getConnection();
+        } catch (SQLException e) {
+            marcarCaida(clave, e);
+            return primaria.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${techdoc.replicas.health-interval:5s}")
+    public void verificarReplicas() {
+        for (String clave : claves) {
+            try (Connection connection = replicas.get(clave).getConnection()) {
+                if (connection.isValid(2)) {
+                    if (sanas.add(clave)) {
+                        log.info("Réplica {} disponible", clave);
+                    }
+                } else {
+                    marcarCaida(clave, null);
+                }
+            } catch (SQLException e) {
+                marcarCaida(clave, e);
+            }
+        }
+        long ahora = System.nanoTime();
+        escriturasRecientes.values().removeIf(hasta -> hasta - ahora < 0);
+    }
+
+    private String elegirReplica() {
+        int total = claves.size();
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), total);
+        for (int i = 0; i < total; i++) {
+            String clave = claves.get((inicio + i) % total);
+            if (sanas.contains(clave)) {
+                return clave;
+            }
+        }
+        return PRIMARIA;
+    }
+
+    private void registrarEscritura() {
+        String cliente = ClienteActual.get();
+        if (ventanaNanos <= 0 || cliente == null
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                escriturasRecientes.put(cliente, System.nanoTime() + ventanaNanos);
+            }
+        });
+    }
+
+    private boolean leeSusEscrituras(String cliente) {
+        if (cliente == null) {
+            return false;
+        }
+        Long hasta = escriturasRecientes.get(cliente);
+        return hasta != null && hasta - System.nanoTime() > 0;
+    }
+
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void marcarCaida(String clave, SQLException causa) {
+        if (sanas.remove(clave)) {
+            log.warn("Réplica {} fuera de servicio, las lecturas van a la primaria: {}", clave,
+                    causa != null ? causa.getMessage() : "conexión no válida");
+        }
+    }
+}
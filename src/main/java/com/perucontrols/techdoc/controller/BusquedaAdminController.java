@@ -0,0 +1,33 @@
+package com.perucontrols.techdoc.controller;
+
+import com.perucontrols.techdoc.busqueda.BusquedaGlobalService;
+import com.perucontrols.techdoc.busqueda.TipoResultado;
+import com.perucontrols.techdoc.dto.ApiResponseDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/admin/busqueda")
+@Tag(name = "Administración de la búsqueda", description = "Reconstrucción del índice de búsqueda global")
+@RequiredArgsConstructor
+public class BusquedaAdminController {
+
+    private final BusquedaGlobalService busquedaGlobalService;
+
+    @PostMapping("/reconstruir")
+    @Operation(summary = "Reindexar desde la base, un hilo por tipo; las búsquedas siguen respondiendo con el índice anterior hasta terminar")
+    public ResponseEntity<ApiResponseDto<Map<TipoResultado, Long>>> reconstruir(
+            @Parameter(description = "Tipos separados por comas; vacío para todos")
+            @RequestParam(required = false) Set<TipoResultado> tipos) {
+        Set<TipoResultado> seleccion = tipos == null || tipos.isEmpty() ? EnumSet.allOf(TipoResultado.class) : EnumSet.copyOf(tipos);
+        return ResponseEntity.ok(ApiResponseDto.success("Documentos indexados", busquedaGlobalService.reconstruir(seleccion)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.perucontrols.techdoc.controller;
+
+import com.perucontrols.techdoc.busqueda.AutocompletadoService;
+import com.perucontrols.techdoc.busqueda.BusquedaGlobalService;
+import com.perucontrols.techdoc.busqueda.TipoResultado;
+import com.perucontrols.techdoc.dto.ApiResponseDto;
+import com.perucontrols.techdoc.dto.PaginatedResponse;
+import com.perucontrols.techdoc.dto.ResultadoGlobalDTO;
+import com.perucontrols.techdoc.dto.SugerenciaDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/buscar")
+@Tag(name = "Búsqueda global", description = "Búsqueda en embarcaciones, sistemas, componentes, documentación, mantenimientos y versiones de software")
+@RequiredArgsConstructor
+public class BusquedaController {
+
+    private final BusquedaGlobalService busquedaGlobalService;
+    private final AutocompletadoService autocompletadoService;
+
+    @GetMapping
+    @Operation(summary = "Buscar en todas las entidades, ordenado por relevancia",
+            description = "Sin distinguir tildes y con raíces en español. Todas las palabras son obligatorias; admite \"frases\", "
+                    + "| para alternativas, -exclusión y * como prefijo. Un código exacto (matrícula, número de serie o de parte, "
+                    + "versión) puntúa por encima del nombre, y este por encima del texto libre. Hasta el resultado 1000.")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<ResultadoGlobalDTO>>> buscar(
+            @RequestParam String q,
+            @Parameter(description = "Tipos separados por comas; vacío para buscar en todos")
+            @RequestParam(required = false) Set<TipoResultado> tipos,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(ApiResponseDto.success(busquedaGlobalService.buscar(q, tipos, page, size)));
+    }
+
+    @GetMapping("/sugerencias")
+    @Operation(summary = "Autocompletar nombres y códigos de embarcaciones, sistemas y componentes por prefijo",
+            description = "Desde memoria, sin consultar la base: pensado para llamarse en cada tecla. Sin distinguir mayúsculas ni "
+                    + "tildes; coincide con el principio del nombre, la matrícula, el número de serie o el número de parte. "
+                    + "En orden alfabético, una sugerencia por entidad.")
+    public ResponseEntity<ApiResponseDto<List<SugerenciaDTO>>> sugerir(
+            @RequestParam String q,
+            @Parameter(description = "EMBARCACION, SISTEMA y/o COMPONENTE separados por comas; vacío para los tres")
+            @RequestParam(required = false) Set<TipoResultado> tipos,
+            @Parameter(description = "Solo sugerencias de esta embarcación")
+            @RequestParam(required = false) Long idEmbarcacion,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(ApiResponseDto.success(autocompletadoService.sugerir(q, tipos, idEmbarcacion, limite)));
+    }
+}
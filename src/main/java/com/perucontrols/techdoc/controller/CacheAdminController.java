@@ -0,0 +1,66 @@
+package com.perucontrols.techdoc.controller;
+
+import com.perucontrols.techdoc.cache.EntityCache;
+import com.perucontrols.techdoc.cache.EntityCaches;
+import com.perucontrols.techdoc.cache.ResultCache;
+import com.perucontrols.techdoc.cache.SingleFlight;
+import com.perucontrols.techdoc.dto.ApiResponseDto;
+import com.perucontrols.techdoc.dto.CacheStatsDTO;
+import com.perucontrols.techdoc.dto.SingleFlightStatsDTO;
+import com.perucontrols.techdoc.exception.ResourceNotFoundException;
+import com.perucontrols.techdoc.resiliencia.CircuitBreaker;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/cache")
+@Tag(name = "Administración de caché", description = "Estadísticas e invalidación de las cachés por entidad y de resultados")
+@RequiredArgsConstructor
+public class CacheAdminController {
+
+    private final EntityCaches entityCaches;
+    private final ResultCache resultCache;
+    private final SingleFlight singleFlight;
+    private final LecturaResiliente lecturaResiliente;
+
+    @GetMapping
+    @Operation(summary = "Estadísticas de aciertos, fallos y desalojos por caché")
+    public ResponseEntity<ApiResponseDto<List<CacheStatsDTO>>> getStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        entityCaches.todas().forEach(cache -> stats.add(cache.stats()));
+        stats.add(resultCache.stats());
+        return ResponseEntity.ok(ApiResponseDto.success(stats));
+    }
+
+    @GetMapping("/single-flight")
+    @Operation(summary = "Llamadas concurrentes idénticas que compartieron una misma carga")
+    public ResponseEntity<ApiResponseDto<SingleFlightStatsDTO>> getSingleFlightStats() {
+        return ResponseEntity.ok(ApiResponseDto.success(singleFlight.stats()));
+    }
+
+    @GetMapping("/circuito")
+    @Operation(summary = "Estado del circuito de la base de datos (CERRADO, ABIERTO o SEMIABIERTO)")
+    public ResponseEntity<ApiResponseDto<CircuitBreaker.Estado>> getCircuito() {
+        return ResponseEntity.ok(ApiResponseDto.success(lecturaResiliente.getEstado()));
+    }
+
+    @DeleteMapping("/{nombre}")
+    @Operation(summary = "Vaciar una caché")
+    public ResponseEntity<ApiResponseDto<Void>> invalidar(@PathVariable String nombre) {
+        if (ResultCache.NOMBRE.equals(nombre)) {
+            resultCache.invalidarTodo();
+            return ResponseEntity.ok(ApiResponseDto.success("Caché vaciada", null));
+        }
+        EntityCache<?> cache = entityCaches.buscar(nombre)
+                .orElseThrow(() -> new ResourceNotFoundException("Caché no encontrada: " + nombre));
+        cache.invalidarTodo();
+        return ResponseEntity.ok(ApiResponseDto.success("Caché vaciada", null));
+    }
+}
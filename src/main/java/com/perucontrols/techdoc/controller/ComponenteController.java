@@ -1,6 +1,8 @@
 package com.perucontrols.techdoc.controller;
 
 import com.perucontrols.techdoc.dto.*;
+import com.perucontrols.techdoc.model.Componente;
+import com.perucontrols.techdoc.repository.Filtros;
 import com.perucontrols.techdoc.service.ComponenteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,13 +11,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,28 +28,50 @@ import java.util.List;
 @RequestMapping("/componentes")
 @Tag(name = "Componente", description = "Endpoints para gestionar los componentes de un sistema")
 @RequiredArgsConstructor
-@Slf4j
 public class ComponenteController {
 
     private final ComponenteService componenteService;
+    private final NdjsonWriter ndjsonWriter;
+    private final ConditionalGet conditionalGet;
 
     @Operation(summary = "Obtener todos los componentes", description = "Devuelve una lista de todos los componentes sin paginación")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de componentes obtenida exitosamente"),
+        @ApiResponse(responseCode = "304", description = "La lista no cambió desde el ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @GetMapping
-    public ResponseEntity<ApiResponseDto<List<ComponenteDTO>>> getAllComponentes() {
-        try {
-            List<ComponenteDTO> componentes = componenteService.getAllComponentes();
-            return ResponseEntity.ok(ApiResponseDto.success(
+    public ResponseEntity<ApiResponseDto<List<ComponenteResumenDTO>>> getAllComponentes(WebRequest webRequest) {
+        return conditionalGet.listado(webRequest, Componente.class, () -> {
+            List<ComponenteResumenDTO> componentes = componenteService.getAllComponentes();
+            return ApiResponseDto.success(
                     String.format("Se encontraron %d componentes", componentes.size()),
-                    componentes));
-        } catch (Exception e) {
-            log.error("Error al obtener componentes", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponseDto.error("Error al obtener los componentes", e.getMessage()));
-        }
+                    componentes);
+        });
+    }
+
+    @Operation(summary = "Obtener varios componentes por ID",
+            description = "Resuelve ids=1,2,3 con una sola consulta y respeta el orden pedido; los ids inexistentes vienen con encontrado=false")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Componentes resueltos"),
+        @ApiResponse(responseCode = "400", description = "Lista de ids vacía o demasiado grande"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponseDto<List<MultiGetItem<ComponenteDTO>>>> getComponentesByIds(
+            @Parameter(description = "IDs separados por coma") @RequestParam List<Long> ids) {
+        List<MultiGetItem<ComponenteDTO>> componentes = componenteService.getComponentesByIds(ids);
+        long encontrados = componentes.stream().filter(MultiGetItem::isEncontrado).count();
+        return ResponseEntity.ok(ApiResponseDto.success(
+                String.format("Se encontraron %d de %d componentes", encontrados, componentes.size()),
+                componentes));
+    }
+
+    @Operation(summary = "Exportar todos los componentes",
+            description = "Devuelve todos los componentes como NDJSON (un objeto por línea) leyendo la tabla con un cursor, sin cargarla en memoria")
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ndjsonWriter.stream(componenteService::exportAllComponentes);
     }
 
     @Operation(summary = "Obtener componentes paginados", description = "Devuelve una lista paginada de componentes")
@@ -60,39 +87,82 @@ public class ComponenteController {
             @Parameter(description = "Campo de ordenamiento") @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Dirección de ordenamiento (ASC/DESC)") @RequestParam(defaultValue = "ASC") String sortDirection) {
 
-        try {
-            Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
-            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+
+        PaginatedResponse<ComponenteDTO> response = componenteService.getAllComponentesPaged(pageable);
+
+        return ResponseEntity.ok(ApiResponseDto.success(
+                String.format("Página %d de %d", page + 1, response.getTotalPages()),
+                response));
+    }
+
+    @Operation(summary = "Obtener componentes paginados por cursor",
+            description = "Paginación keyset: devuelve un cursor opaco 'after' para pedir la siguiente página sin OFFSET")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de componentes obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor o campo de ordenamiento inválido"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/paged/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageResponse<ComponenteDTO>>> getComponentesCursor(
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo de ordenamiento (id, nombre)") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Dirección de ordenamiento (ASC/DESC)") @RequestParam(defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "Cálculo del total (NINGUNO, ESTIMADO, EXACTO)") @RequestParam(defaultValue = "NINGUNO") CursorPageResponse.Total total) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        CursorPageRequest request = new CursorPageRequest(after, size, sortBy, direction, total);
+
+        CursorPageResponse<ComponenteDTO> response = componenteService.getAllComponentesCursor(request);
+
+        return ResponseEntity.ok(ApiResponseDto.success(
+                String.format("Se obtuvieron %d componentes", response.getContent().size()),
+                response));
+    }
+
+    @Operation(summary = "Filtrar componentes",
+            description = "Combina sistema, estado, nombre y fabricante en una sola consulta paginada. "
+                    + "El nombre se compara sin distinguir mayúsculas ni tildes. "
+                    + "Los filtros sin índice (estado, fabricante) requieren también el sistema o el nombre, "
+                    + "este con al menos " + Filtros.MIN_BUSQUEDA + " caracteres")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de componentes obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Combinación de filtros u ordenamiento sin índice"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/filtrar")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<ComponenteResumenDTO>>> filtrarComponentes(
+            @ParameterObject ComponenteFiltro filtro,
+            @Parameter(description = "Número de página (0-indexado)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo de ordenamiento (id, nombre)") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Dirección de ordenamiento (ASC/DESC)") @RequestParam(defaultValue = "ASC") String sortDirection) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
-            PaginatedResponse<ComponenteDTO> response = componenteService.getAllComponentesPaged(pageable);
+        PaginatedResponse<ComponenteResumenDTO> response = componenteService.filtrarComponentes(filtro, pageable);
 
-            return ResponseEntity.ok(ApiResponseDto.success(
-                    String.format("Página %d de %d", page + 1, response.getTotalPages()),
-                    response));
-        } catch (Exception e) {
-            log.error("Error al obtener componentes paginados", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponseDto.error("Error al obtener los componentes", e.getMessage()));
-        }
+        return ResponseEntity.ok(ApiResponseDto.success(
+                String.format("Se encontraron %d componentes", response.getTotalElements()),
+                response));
     }
 
     @Operation(summary = "Obtener un componente por ID", description = "Devuelve un componente específico basado en su ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Componente encontrado"),
+        @ApiResponse(responseCode = "304", description = "El componente no cambió desde el ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Componente no encontrado"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponseDto<ComponenteDTO>> getComponenteById(
-            @Parameter(description = "ID del componente") @PathVariable Long id) {
-        try {
-            ComponenteDTO componente = componenteService.getComponenteById(id);
-            return ResponseEntity.ok(ApiResponseDto.success("Componente encontrado", componente));
-        } catch (Exception e) {
-            log.error("Error al obtener componente con ID: {}", id, e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponseDto.error("Componente no encontrado", e.getMessage()));
-        }
+            @Parameter(description = "ID del componente") @PathVariable Long id, WebRequest webRequest) {
+        ComponenteDTO componente = componenteService.getComponenteById(id);
+        return conditionalGet.detalle(webRequest, id, componente.getUpdatedAt(),
+                () -> ApiResponseDto.success("Componente encontrado", componente));
     }
 
     @Operation(summary = "Crear un nuevo componente", description = "Crea un nuevo componente en el sistema")
@@ -105,19 +175,26 @@ public class ComponenteController {
     @PostMapping
     public ResponseEntity<ApiResponseDto<ComponenteDTO>> createComponente(
             @Valid @RequestBody CreateComponenteRequest request) {
-        try {
-            ComponenteDTO componente = componenteService.createComponente(request);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(ApiResponseDto.success("Componente creado exitosamente", componente));
-        } catch (IllegalArgumentException e) {
-            log.warn("Datos inválidos al crear componente: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ApiResponseDto.error("Datos inválidos", e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error al crear componente", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponseDto.error("Error al crear el componente", e.getMessage()));
-        }
+        ComponenteDTO componente = componenteService.createComponente(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponseDto.success("Componente creado exitosamente", componente));
+    }
+
+    @Operation(summary = "Crear componentes por lote",
+            description = "Crea hasta 5000 componentes en una sola transacción usando inserciones JDBC por lotes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Lote creado exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Lote vacío, demasiado grande o con datos inválidos"),
+        @ApiResponse(responseCode = "404", description = "Algún sistema no existe"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<ApiResponseDto<LoteResponse>> createComponentesLote(
+            @RequestBody List<CreateComponenteRequest> requests) {
+        LoteResponse lote = componenteService.createComponentesLote(requests);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponseDto.success(
+                        String.format("Se crearon %d componentes", lote.getCreados()), lote));
     }
 
     @Operation(summary = "Actualizar un componente existente", description = "Actualiza los datos de un componente existente")
@@ -131,18 +208,8 @@ public class ComponenteController {
     public ResponseEntity<ApiResponseDto<ComponenteDTO>> updateComponente(
             @Parameter(description = "ID del componente") @PathVariable Long id,
             @Valid @RequestBody UpdateComponenteRequest request) {
-        try {
-            ComponenteDTO componente = componenteService.updateComponente(id, request);
-            return ResponseEntity.ok(ApiResponseDto.success("Componente actualizado exitosamente", componente));
-        } catch (IllegalArgumentException e) {
-            log.warn("Datos inválidos al actualizar componente {}: {}", id, e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ApiResponseDto.error("Datos inválidos", e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error al actualizar componente con ID: {}", id, e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponseDto.error("Error al actualizar el componente", e.getMessage()));
-        }
+        ComponenteDTO componente = componenteService.updateComponente(id, request);
+        return ResponseEntity.ok(ApiResponseDto.success("Componente actualizado exitosamente", componente));
     }
 
     @Operation(summary = "Eliminar un componente", description = "Elimina un componente del sistema")
@@ -154,14 +221,26 @@ public class ComponenteController {
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponseDto<Void>> deleteComponente(
             @Parameter(description = "ID del componente") @PathVariable Long id) {
-        try {
-            componenteService.deleteComponente(id);
-            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
-        } catch (Exception e) {
-            log.error("Error al eliminar componente con ID: {}", id, e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponseDto.error("Error al eliminar el componente", e.getMessage()));
-        }
+        componenteService.deleteComponente(id);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+    @Operation(summary = "Buscar componentes por nombre",
+            description = "Nombre que contiene el texto sin distinguir mayúsculas ni tildes, ordenados por similitud. Mínimo 3 caracteres.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de componentes obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Texto de búsqueda o tamaño de página inválido"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping("/buscar/nombre")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<ComponenteResumenDTO>>> buscarComponentesPorNombre(
+            @Parameter(description = "Texto a buscar") @RequestParam String q,
+            @Parameter(description = "Número de página (0-indexado)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "10") int size) {
+        PaginatedResponse<ComponenteResumenDTO> response = componenteService.buscarComponentesPorNombre(q, page, size);
+        return ResponseEntity.ok(ApiResponseDto.success(
+                String.format("Se encontraron %d componentes", response.getTotalElements()),
+                response));
     }
 
     @Operation(summary = "Buscar componentes por sistema", description = "Devuelve todos los componentes de un sistema específico")
@@ -170,19 +249,14 @@ public class ComponenteController {
         @ApiResponse(responseCode = "404", description = "Sistema no encontrado"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
+    @Deprecated
     @GetMapping("/buscar/sistema/{idSistema}")
-    public ResponseEntity<ApiResponseDto<List<ComponenteDTO>>> getComponentesBySistema(
+    public ResponseEntity<ApiResponseDto<List<ComponenteResumenDTO>>> getComponentesBySistema(
             @Parameter(description = "ID del sistema") @PathVariable Long idSistema) {
-        try {
-            List<ComponenteDTO> componentes = componenteService.getComponentesBySistema(idSistema);
-            return ResponseEntity.ok(ApiResponseDto.success(
-                    String.format("Se encontraron %d componentes en el sistema", componentes.size()),
-                    componentes));
-        } catch (Exception e) {
-            log.error("Error al buscar componentes del sistema: {}", idSistema, e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponseDto.error("Error al buscar componentes", e.getMessage()));
-        }
+        List<ComponenteResumenDTO> componentes = componenteService.getComponentesBySistema(idSistema);
+        return ResponseEntity.ok(ApiResponseDto.success(
+                String.format("Se encontraron %d componentes en el sistema", componentes.size()),
+                componentes));
     }
 
     @Operation(summary = "Buscar componentes por sistema y estado", description = "Devuelve los componentes de un sistema con un estado específico")
@@ -192,19 +266,14 @@ public class ComponenteController {
         @ApiResponse(responseCode = "404", description = "Sistema no encontrado"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
+    @Deprecated
     @GetMapping("/buscar/sistema/{idSistema}/estado/{estado}")
-    public ResponseEntity<ApiResponseDto<List<ComponenteDTO>>> getComponentesBySistemaAndEstado(
+    public ResponseEntity<ApiResponseDto<List<ComponenteResumenDTO>>> getComponentesBySistemaAndEstado(
             @Parameter(description = "ID del sistema") @PathVariable Long idSistema,
             @Parameter(description = "Estado del componente") @PathVariable String estado) {
-        try {
-            List<ComponenteDTO> componentes = componenteService.getComponentesBySistemaAndEstado(idSistema, estado);
-            return ResponseEntity.ok(ApiResponseDto.success(
-                    String.format("Se encontraron %d componentes con estado %s", componentes.size(), estado),
-                    componentes));
-        } catch (Exception e) {
-            log.error("Error al buscar componentes del sistema {} con estado {}", idSistema, estado, e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponseDto.error("Error al buscar componentes", e.getMessage()));
-        }
+        List<ComponenteResumenDTO> componentes = componenteService.getComponentesBySistemaAndEstado(idSistema, estado);
+        return ResponseEntity.ok(ApiResponseDto.success(
+                String.format("Se encontraron %d componentes con estado %s", componentes.size(), estado),
+                componentes));
     }
 }
@@ -0,0 +1,62 @@
+package com.perucontrols.techdoc.controller;
+
+import com.perucontrols.techdoc.repository.MarcasModificacion;
+import com.perucontrols.techdoc.repository.MarcasModificacion.MarcaModificacion;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Supplier;
+
+/**
+ * GET condicionales con ETag. El detalle usa un ETag fuerte (id + updated_at del registro); los
+ * listados completos, uno débil a partir de la {@link MarcaModificacion} de la tabla. Si el
+ * {@code If-None-Match} del cliente coincide se responde 304 sin cuerpo, y en los listados sin
+ * ejecutar la consulta. Si la marca no se puede leer porque la base no responde, el listado se
+ * sirve sin ETag (posiblemente obsoleto) en lugar de fallar.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGet {
+
+    private final MarcasModificacion marcasModificacion;
+    private final LecturaResiliente lecturaResiliente;
+
+    public <T> ResponseEntity<T> detalle(WebRequest request, Long id, LocalDateTime updatedAt, Supplier<T> cuerpo) {
+        return responder(request, fuerte(id, updatedAt), cuerpo);
+    }
+
+    public <T> ResponseEntity<T> listado(WebRequest request, Class<?> entidad, Supplier<T> cuerpo) {
+        return lecturaResiliente.intentar(() -> marcasModificacion.de(entidad))
+                .map(marca -> listado(request, marca, cuerpo))
+                .orElseGet(() -> ResponseEntity.ok().body(cuerpo.get()));
+    }
+
+    public <T> ResponseEntity<T> listado(WebRequest request, MarcaModificacion marca, Supplier<T> cuerpo) {
+        return responder(request, "W/\"" + marca.total() + "-" + micros(marca.ultima()) + "\"", cuerpo);
+    }
+
+    static String fuerte(Long id, LocalDateTime updatedAt) {
+        return "\"" + id + "-" + micros(updatedAt) + "\"";
+    }
+
+    private static <T> ResponseEntity<T> responder(WebRequest request, String etag, Supplier<T> cuerpo) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(cuerpo.get());
+    }
+
+    private static String micros(LocalDateTime instante) {
+        if (instante == null) {
+            return "0";
+        }
+        long micros = instante.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + instante.getNano() / 1_000;
+        return Long.toString(micros, 36);
+    }
+}
@@ -10,11 +10,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,11 +29,26 @@ import java.util.List;
 public class DocumentacionController {
 
     private final DocumentacionService documentacionService;
+    private final NdjsonWriter ndjsonWriter;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @Operation(summary = "Obtener todos los documentos")
-    public ResponseEntity<ApiResponseDto<List<DocumentacionDTO>>> getAll() {
-        return ResponseEntity.ok(ApiResponseDto.success(documentacionService.getAll()));
+    public ResponseEntity<ApiResponseDto<List<DocumentacionDTO>>> getAll(WebRequest webRequest) {
+        return conditionalGet.listado(webRequest, Documentacion.class,
+                () -> ApiResponseDto.success(documentacionService.getAll()));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Obtener varios documentos por ID (ids=1,2,3)")
+    public ResponseEntity<ApiResponseDto<List<MultiGetItem<DocumentacionDTO>>>> getByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(ApiResponseDto.success(documentacionService.getByIds(ids)));
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar todos los documentos como NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ndjsonWriter.stream(documentacionService::exportAll);
     }
 
     @GetMapping("/paged")
@@ -46,10 +65,50 @@ public class DocumentacionController {
         return ResponseEntity.ok(ApiResponseDto.success(documentacionService.getAllPaged(pageable)));
     }
 
+    @GetMapping("/paged/cursor")
+    @Operation(summary = "Obtener documentos paginados por cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageResponse<DocumentacionDTO>>> getCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(defaultValue = "NINGUNO") CursorPageResponse.Total total) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        CursorPageRequest request = new CursorPageRequest(after, size, sortBy, direction, total);
+
+        return ResponseEntity.ok(ApiResponseDto.success(documentacionService.getAllCursor(request)));
+    }
+
+    @GetMapping("/filtrar")
+    @Operation(summary = "Filtrar documentos combinando embarcación, sistema, tipo, título y etiquetas",
+            description = "tag es una etiqueta exacta. etiquetas=a,b devuelve los que tienen todas (modoEtiquetas=TODAS) "
+                    + "o alguna (modoEtiquetas=ALGUNA).")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<DocumentacionDTO>>> filtrar(
+            @ParameterObject DocumentacionFiltro filtro,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection) {
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        return ResponseEntity.ok(ApiResponseDto.success(documentacionService.filtrar(filtro, pageable)));
+    }
+
+    @GetMapping("/etiquetas/facetas")
+    @Operation(summary = "Número de documentos por etiqueta para el filtro actual",
+            description = "Admite los mismos filtros que /filtrar. Ordenado de más a menos documentos.")
+    public ResponseEntity<ApiResponseDto<List<FacetaEtiquetaDTO>>> facetasEtiquetas(
+            @ParameterObject DocumentacionFiltro filtro,
+            @RequestParam(defaultValue = "50") int limite) {
+        return ResponseEntity.ok(ApiResponseDto.success(documentacionService.facetasEtiquetas(filtro, limite)));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un documento por ID")
-    public ResponseEntity<ApiResponseDto<DocumentacionDTO>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponseDto.success(documentacionService.getById(id)));
+    public ResponseEntity<ApiResponseDto<DocumentacionDTO>> getById(@PathVariable Long id, WebRequest webRequest) {
+        DocumentacionDTO documento = documentacionService.getById(id);
+        return conditionalGet.detalle(webRequest, id, documento.getUpdatedAt(), () -> ApiResponseDto.success(documento));
     }
 
     @PostMapping
@@ -58,6 +117,12 @@ public class DocumentacionController {
         return ResponseEntity.status(201).body(ApiResponseDto.success(documentacionService.create(request)));
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Crear documentos por lote")
+    public ResponseEntity<ApiResponseDto<LoteResponse>> createLote(@RequestBody List<CreateDocumentacionRequest> requests) {
+        return ResponseEntity.status(201).body(ApiResponseDto.success(documentacionService.createLote(requests)));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar un documento existente")
     public ResponseEntity<ApiResponseDto<DocumentacionDTO>> update(
@@ -73,24 +138,49 @@ public class DocumentacionController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/buscar")
+    @Operation(summary = "Búsqueda de texto completo en título, tags, tipo y descripción, ordenada por relevancia",
+            description = "Sin distinguir tildes y con raíces en español (\"bomba hidraulica manual\" encuentra \"Manual de bombas hidráulicas\"). "
+                    + "Admite \"frases\", OR y -exclusión. Los términos encontrados vienen entre <mark> en tituloResaltado y fragmento.")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<DocumentoEncontradoDTO>>> buscar(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(ApiResponseDto.success(documentacionService.buscarTexto(q, page, size)));
+    }
+
+    @Deprecated
     @GetMapping("/buscar/sistema/{idSistema}")
     @Operation(summary = "Buscar documentos por sistema")
     public ResponseEntity<ApiResponseDto<List<DocumentacionDTO>>> getBySistema(@PathVariable Long idSistema) {
         return ResponseEntity.ok(ApiResponseDto.success(documentacionService.getBySistema(idSistema)));
     }
 
+    @Deprecated
     @GetMapping("/buscar/tipo/{tipoDocumento}")
     @Operation(summary = "Buscar documentos por tipo")
     public ResponseEntity<ApiResponseDto<List<DocumentacionDTO>>> getByTipo(@PathVariable Documentacion.TipoDocumento tipoDocumento) {
         return ResponseEntity.ok(ApiResponseDto.success(documentacionService.getByTipo(tipoDocumento)));
     }
 
+    @Deprecated
     @GetMapping("/buscar/tag/{tag}")
-    @Operation(summary = "Buscar documentos por tag")
+    @Operation(summary = "Buscar documentos por etiqueta exacta")
     public ResponseEntity<ApiResponseDto<List<DocumentacionDTO>>> getByTag(@PathVariable String tag) {
         return ResponseEntity.ok(ApiResponseDto.success(documentacionService.getByTag(tag)));
     }
 
+    @GetMapping("/buscar/titulo")
+    @Operation(summary = "Buscar documentos cuyo título contiene el texto, sin distinguir mayúsculas ni tildes",
+            description = "Ordenados por similitud con el texto buscado. Mínimo 3 caracteres.")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<DocumentacionDTO>>> buscarPorTitulo(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(ApiResponseDto.success(documentacionService.buscarPorTitulo(q, page, size)));
+    }
+
+    @Deprecated
     @GetMapping("/buscar/titulo/{titulo}")
     @Operation(summary = "Buscar documentos por título")
     public ResponseEntity<ApiResponseDto<List<DocumentacionDTO>>> getByTitulo(@PathVariable String titulo) {
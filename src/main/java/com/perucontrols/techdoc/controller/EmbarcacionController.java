@@ -1,8 +1,12 @@
 package com.perucontrols.techdoc.controller;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.model.Embarcacion;
+import com.perucontrols.techdoc.repository.VistasEmbarcacion.Vista;
+import com.perucontrols.techdoc.service.EmbarcacionArbolService;
 import com.perucontrols.techdoc.service.EmbarcacionService;
+import com.perucontrols.techdoc.service.VistaEmbarcacionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,8 +17,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,10 +32,20 @@ import java.util.List;
 public class EmbarcacionController {
 
     private final EmbarcacionService embarcacionService;
+    private final EmbarcacionArbolService embarcacionArbolService;
+    private final VistaEmbarcacionService vistaEmbarcacionService;
+    private final NdjsonWriter ndjsonWriter;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
-    public ResponseEntity<ApiResponseDto<List<EmbarcacionDTO>>> getAll() {
-        return ResponseEntity.ok(ApiResponseDto.success("Lista obtenida", embarcacionService.getAll()));
+    public ResponseEntity<ApiResponseDto<List<EmbarcacionDTO>>> getAll(WebRequest webRequest) {
+        return conditionalGet.listado(webRequest, Embarcacion.class,
+                () -> ApiResponseDto.success("Lista obtenida", embarcacionService.getAll()));
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ndjsonWriter.stream(embarcacionService::exportAll);
     }
 
     @GetMapping("/paged")
@@ -44,9 +61,40 @@ public class EmbarcacionController {
         return ResponseEntity.ok(ApiResponseDto.success("Página obtenida", embarcacionService.getAllPaged(pageable)));
     }
 
+    @GetMapping("/paged/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageResponse<EmbarcacionDTO>>> getCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(defaultValue = "NINGUNO") CursorPageResponse.Total total) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        CursorPageRequest request = new CursorPageRequest(after, size, sortBy, direction, total);
+
+        return ResponseEntity.ok(ApiResponseDto.success("Página obtenida", embarcacionService.getAllCursor(request)));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponseDto<EmbarcacionDTO>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponseDto.success("Encontrado", embarcacionService.getById(id)));
+    public ResponseEntity<ApiResponseDto<EmbarcacionDTO>> getById(@PathVariable Long id, WebRequest webRequest) {
+        EmbarcacionDTO embarcacion = embarcacionService.getById(id);
+        return conditionalGet.detalle(webRequest, id, embarcacion.getUpdatedAt(),
+                () -> ApiResponseDto.success("Encontrado", embarcacion));
+    }
+
+    @GetMapping("/{id}/arbol")
+    @Operation(summary = "Obtener la embarcación con sus sistemas, componentes, documentación, versiones, mantenimientos y especificaciones")
+    public ResponseEntity<ApiResponseDto<EmbarcacionArbolDTO>> getArbol(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponseDto.success("Encontrado", embarcacionArbolService.getArbol(id)));
+    }
+
+    @GetMapping("/{id}/vista")
+    @Operation(summary = "Obtener el árbol de la embarcación desde su vista materializada (puede ir unos segundos por detrás de /arbol)")
+    public ResponseEntity<ApiResponseDto<RawValue>> getVista(@PathVariable Long id, WebRequest webRequest) {
+        Vista vista = vistaEmbarcacionService.getVista(id);
+        // El documento jsonb se escribe tal cual dentro del sobre, sin deserializarlo
+        return conditionalGet.detalle(webRequest, id, vista.generadoEn(),
+                () -> ApiResponseDto.success("Encontrado", new RawValue(vista.documento())));
     }
 
     @PostMapping
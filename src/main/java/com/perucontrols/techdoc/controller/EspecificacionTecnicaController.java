@@ -1,12 +1,16 @@
 package com.perucontrols.techdoc.controller;
 
 import com.perucontrols.techdoc.dto.*;
+import com.perucontrols.techdoc.model.EspecificacionTecnica;
 import com.perucontrols.techdoc.service.EspecificacionTecnicaService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,15 +21,25 @@ import java.util.List;
 public class EspecificacionTecnicaController {
 
     private final EspecificacionTecnicaService service;
+    private final NdjsonWriter ndjsonWriter;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
-    public ResponseEntity<ApiResponseDto<List<EspecificacionTecnicaDTO>>> getAll() {
-        return ResponseEntity.ok(ApiResponseDto.success("Lista obtenida", service.getAll()));
+    public ResponseEntity<ApiResponseDto<List<EspecificacionTecnicaDTO>>> getAll(WebRequest webRequest) {
+        return conditionalGet.listado(webRequest, EspecificacionTecnica.class,
+                () -> ApiResponseDto.success("Lista obtenida", service.getAll()));
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ndjsonWriter.stream(service::exportAll);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponseDto<EspecificacionTecnicaDTO>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponseDto.success("Encontrado", service.getById(id)));
+    public ResponseEntity<ApiResponseDto<EspecificacionTecnicaDTO>> getById(@PathVariable Long id, WebRequest webRequest) {
+        EspecificacionTecnicaDTO especificacion = service.getById(id);
+        return conditionalGet.detalle(webRequest, id, especificacion.getUpdatedAt(),
+                () -> ApiResponseDto.success("Encontrado", especificacion));
     }
 
     @PostMapping
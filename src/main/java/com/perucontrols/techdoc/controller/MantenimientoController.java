@@ -6,10 +6,15 @@ import com.perucontrols.techdoc.service.MantenimientoService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,10 +26,23 @@ import java.util.List;
 public class MantenimientoController {
 
     private final MantenimientoService service;
+    private final NdjsonWriter ndjsonWriter;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
-    public ResponseEntity<ApiResponseDto<List<MantenimientoDTO>>> getAll() {
-        return ResponseEntity.ok(ApiResponseDto.success("Lista obtenida", service.getAll()));
+    public ResponseEntity<ApiResponseDto<List<MantenimientoResumenDTO>>> getAll(WebRequest webRequest) {
+        return conditionalGet.listado(webRequest, Mantenimiento.class,
+                () -> ApiResponseDto.success("Lista obtenida", service.getAll()));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponseDto<List<MultiGetItem<MantenimientoDTO>>>> getByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(ApiResponseDto.success("Lista obtenida", service.getByIds(ids)));
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ndjsonWriter.stream(service::exportAll);
     }
 
     @GetMapping("/paged")
@@ -35,9 +53,37 @@ public class MantenimientoController {
         return ResponseEntity.ok(ApiResponseDto.success("Página obtenida", service.getAllPaged(pageable)));
     }
 
+    @GetMapping("/paged/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageResponse<MantenimientoDTO>>> getCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "fechaInicio") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(defaultValue = "NINGUNO") CursorPageResponse.Total total) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        CursorPageRequest request = new CursorPageRequest(after, size, sortBy, direction, total);
+
+        return ResponseEntity.ok(ApiResponseDto.success("Página obtenida", service.getAllCursor(request)));
+    }
+
+    @GetMapping("/filtrar")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<MantenimientoResumenDTO>>> filtrar(
+            @ParameterObject MantenimientoFiltro filtro,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "fechaInicio") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        return ResponseEntity.ok(ApiResponseDto.success("Página obtenida", service.filtrar(filtro, pageable)));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponseDto<MantenimientoDTO>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponseDto.success("Encontrado", service.getById(id)));
+    public ResponseEntity<ApiResponseDto<MantenimientoDTO>> getById(@PathVariable Long id, WebRequest webRequest) {
+        MantenimientoDTO mantenimiento = service.getById(id);
+        return conditionalGet.detalle(webRequest, id, mantenimiento.getUpdatedAt(),
+                () -> ApiResponseDto.success("Encontrado", mantenimiento));
     }
 
     @PostMapping
@@ -45,6 +91,11 @@ public class MantenimientoController {
         return ResponseEntity.ok(ApiResponseDto.success("Creado", service.create(request)));
     }
 
+    @PostMapping("/lote")
+    public ResponseEntity<ApiResponseDto<LoteResponse>> createLote(@RequestBody List<CreateMantenimientoRequest> requests) {
+        return ResponseEntity.ok(ApiResponseDto.success("Creado", service.createLote(requests)));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponseDto<MantenimientoDTO>> update(
             @PathVariable Long id,
@@ -58,25 +109,29 @@ public class MantenimientoController {
         return ResponseEntity.ok(ApiResponseDto.success("Eliminado", null));
     }
 
+    @Deprecated
     @GetMapping("/buscar/sistema/{idSistema}")
-    public ResponseEntity<ApiResponseDto<List<MantenimientoDTO>>> getBySistema(@PathVariable Long idSistema) {
+    public ResponseEntity<ApiResponseDto<List<MantenimientoResumenDTO>>> getBySistema(@PathVariable Long idSistema) {
         return ResponseEntity.ok(ApiResponseDto.success("Lista encontrada", service.getBySistema(idSistema)));
     }
 
+    @Deprecated
     @GetMapping("/buscar/sistema/{idSistema}/estado/{estado}")
-    public ResponseEntity<ApiResponseDto<List<MantenimientoDTO>>> getBySistemaAndEstado(
+    public ResponseEntity<ApiResponseDto<List<MantenimientoResumenDTO>>> getBySistemaAndEstado(
             @PathVariable Long idSistema, @PathVariable Mantenimiento.EstadoMantenimiento estado) {
         return ResponseEntity.ok(ApiResponseDto.success("Lista encontrada", service.getBySistemaAndEstado(idSistema, estado)));
     }
 
+    @Deprecated
     @GetMapping("/buscar/fechas")
-    public ResponseEntity<ApiResponseDto<List<MantenimientoDTO>>> getByRangoFechas(
+    public ResponseEntity<ApiResponseDto<List<MantenimientoResumenDTO>>> getByRangoFechas(
             @RequestParam LocalDateTime fechaInicio, @RequestParam LocalDateTime fechaFin) {
         return ResponseEntity.ok(ApiResponseDto.success("Lista encontrada", service.getByRangoFechas(fechaInicio, fechaFin)));
     }
 
+    @Deprecated
     @GetMapping("/buscar/tipo/{tipo}")
-    public ResponseEntity<ApiResponseDto<List<MantenimientoDTO>>> getByTipo(@PathVariable Mantenimiento.TipoMantenimiento tipo) {
+    public ResponseEntity<ApiResponseDto<List<MantenimientoResumenDTO>>> getByTipo(@PathVariable Mantenimiento.TipoMantenimiento tipo) {
         return ResponseEntity.ok(ApiResponseDto.success("Lista encontrada", service.getByTipo(tipo)));
     }
 }
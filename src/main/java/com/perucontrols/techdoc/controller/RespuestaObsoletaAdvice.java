@@ -0,0 +1,44 @@
+package com.perucontrols.techdoc.controller;
+
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Marca las respuestas armadas con datos obsoletos por {@link LecturaResiliente}: {@code X-Stale},
+ * {@code Warning: 110} y {@code Age} con la antigüedad de la respuesta más vieja usada.
+ */
+@ControllerAdvice
+public class RespuestaObsoletaAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(LecturaResiliente.ATRIBUTO_OBSOLETA) instanceof Instant instante) {
+            HttpHeaders headers = response.getHeaders();
+            headers.set("X-Stale", "true");
+            headers.set("Warning", "110 - \"Response is Stale\"");
+            headers.set(HttpHeaders.AGE, Long.toString(Math.max(0, Duration.between(instante, Instant.now()).toSeconds())));
+            // Un ETag calculado con datos obsoletos no debe quedar en cachés intermedias como vigente
+            headers.setCacheControl("no-store");
+        }
+        return body;
+    }
+}
@@ -5,11 +5,15 @@ import com.perucontrols.techdoc.model.Sistema;
 import com.perucontrols.techdoc.service.SistemaService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,10 +24,23 @@ import java.util.List;
 public class SistemaController {
 
     private final SistemaService sistemaService;
+    private final NdjsonWriter ndjsonWriter;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
-    public ResponseEntity<ApiResponseDto<List<SistemaDTO>>> getAll() {
-        return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getAllSistemas()));
+    public ResponseEntity<ApiResponseDto<List<SistemaResumenDTO>>> getAll(WebRequest webRequest) {
+        return conditionalGet.listado(webRequest, Sistema.class,
+                () -> ApiResponseDto.success(sistemaService.getAllSistemas()));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponseDto<List<MultiGetItem<SistemaDTO>>>> getByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getSistemasByIds(ids)));
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ndjsonWriter.stream(sistemaService::exportAllSistemas);
     }
 
     @GetMapping("/paged")
@@ -39,9 +56,39 @@ public class SistemaController {
         return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getAllSistemasPaged(pageable)));
     }
 
+    @GetMapping("/paged/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageResponse<SistemaDTO>>> getCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String direction,
+            @RequestParam(defaultValue = "NINGUNO") CursorPageResponse.Total total) {
+
+        CursorPageRequest request = new CursorPageRequest(after, size, sortBy,
+                direction.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC,
+                total);
+
+        return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getAllSistemasCursor(request)));
+    }
+
+    @GetMapping("/filtrar")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<SistemaResumenDTO>>> filtrar(
+            @ParameterObject SistemaFiltro filtro,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String direction
+    ) {
+        Pageable pageable = PageRequest.of(page, size,
+                direction.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC,
+                sortBy);
+        return ResponseEntity.ok(ApiResponseDto.success(sistemaService.filtrarSistemas(filtro, pageable)));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponseDto<SistemaDTO>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getSistemaById(id)));
+    public ResponseEntity<ApiResponseDto<SistemaDTO>> getById(@PathVariable Long id, WebRequest webRequest) {
+        SistemaDTO sistema = sistemaService.getSistemaById(id);
+        return conditionalGet.detalle(webRequest, id, sistema.getUpdatedAt(), () -> ApiResponseDto.success(sistema));
     }
 
     @PostMapping
@@ -60,28 +107,40 @@ public class SistemaController {
         return ResponseEntity.ok(ApiResponseDto.success(null));
     }
 
+    @Deprecated
     @GetMapping("/buscar/embarcacion/{idEmbarcacion}")
-    public ResponseEntity<ApiResponseDto<List<SistemaDTO>>> getByEmbarcacion(@PathVariable Long idEmbarcacion) {
+    public ResponseEntity<ApiResponseDto<List<SistemaResumenDTO>>> getByEmbarcacion(@PathVariable Long idEmbarcacion) {
         return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getSistemasByEmbarcacion(idEmbarcacion)));
     }
 
+    @Deprecated
     @GetMapping("/buscar/tipo-sistema/{idTipoSistema}")
-    public ResponseEntity<ApiResponseDto<List<SistemaDTO>>> getByTipoSistema(@PathVariable Long idTipoSistema) {
+    public ResponseEntity<ApiResponseDto<List<SistemaResumenDTO>>> getByTipoSistema(@PathVariable Long idTipoSistema) {
         return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getSistemasByTipoSistema(idTipoSistema)));
     }
 
+    @Deprecated
     @GetMapping("/buscar/estado/{estado}")
-    public ResponseEntity<ApiResponseDto<List<SistemaDTO>>> getByEstado(@PathVariable Sistema.EstadoSistema estado) {
+    public ResponseEntity<ApiResponseDto<List<SistemaResumenDTO>>> getByEstado(@PathVariable Sistema.EstadoSistema estado) {
         return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getSistemasByEstado(estado)));
     }
 
     @GetMapping("/buscar/mantenimiento-requerido")
-    public ResponseEntity<ApiResponseDto<List<SistemaDTO>>> getRequiringMaintenance() {
+    public ResponseEntity<ApiResponseDto<List<SistemaResumenDTO>>> getRequiringMaintenance() {
         return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getSistemasRequiringMaintenance()));
     }
 
+    @GetMapping("/buscar/nombre")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<SistemaResumenDTO>>> buscarPorNombre(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(ApiResponseDto.success(sistemaService.buscarPorNombre(q, page, size)));
+    }
+
+    @Deprecated
     @GetMapping("/buscar/nombre/{nombre}")
-    public ResponseEntity<ApiResponseDto<List<SistemaDTO>>> getByNombre(@PathVariable String nombre) {
+    public ResponseEntity<ApiResponseDto<List<SistemaResumenDTO>>> getByNombre(@PathVariable String nombre) {
         return ResponseEntity.ok(ApiResponseDto.success(sistemaService.getSistemasByNombre(nombre)));
     }
 }
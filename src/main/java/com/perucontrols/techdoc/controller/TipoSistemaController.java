@@ -8,10 +8,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/tipos-sistema")
@@ -20,10 +20,13 @@ import java.util.List;
 public class TipoSistemaController {
 
     private final TipoSistemaService tipoSistemaService;
+    private final ConditionalGet conditionalGet;
 
-    @GetMapping
-    public ResponseEntity<ApiResponseDto<List<TipoSistemaDTO>>> getAll() {
-        return ResponseEntity.ok(ApiResponseDto.success(tipoSistemaService.getAllTiposSistema()));
+    // Los listados del catálogo se sirven ya serializados (ver CatalogoTiposSistema)
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAll(WebRequest webRequest) {
+        return conditionalGet.listado(webRequest, tipoSistemaService.getMarcaCatalogo(),
+                tipoSistemaService::getAllTiposSistemaJson);
     }
 
     @GetMapping("/paged")
@@ -39,9 +42,26 @@ public class TipoSistemaController {
         return ResponseEntity.ok(ApiResponseDto.success(tipoSistemaService.getAllTiposSistemaPaged(pageable)));
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<ApiResponseDto<TipoSistemaDTO>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponseDto.success(tipoSistemaService.getTipoSistemaById(id)));
+    @GetMapping("/paged/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageResponse<TipoSistemaDTO>>> getCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String direction,
+            @RequestParam(defaultValue = "NINGUNO") CursorPageResponse.Total total) {
+
+        CursorPageRequest request = new CursorPageRequest(after, size, sortBy,
+                direction.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC,
+                total);
+
+        return ResponseEntity.ok(ApiResponseDto.success(tipoSistemaService.getAllTiposSistemaCursor(request)));
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getById(@PathVariable Long id, WebRequest webRequest) {
+        TipoSistemaDTO tipoSistema = tipoSistemaService.getTipoSistemaById(id);
+        return conditionalGet.detalle(webRequest, id, tipoSistema.getUpdatedAt(),
+                () -> tipoSistemaService.getTipoSistemaByIdJson(id));
     }
 
     @PostMapping
@@ -60,13 +80,17 @@ public class TipoSistemaController {
         return ResponseEntity.ok(ApiResponseDto.success(null));
     }
 
-    @GetMapping("/buscar/categoria/{categoria}")
-    public ResponseEntity<ApiResponseDto<List<TipoSistemaDTO>>> getByCategoria(@PathVariable TipoSistema.CategoriaSistema categoria) {
-        return ResponseEntity.ok(ApiResponseDto.success(tipoSistemaService.getTiposSistemaByCategoria(categoria)));
+    @GetMapping(value = "/buscar/categoria/{categoria}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getByCategoria(@PathVariable TipoSistema.CategoriaSistema categoria) {
+        return json(tipoSistemaService.getTiposSistemaByCategoriaJson(categoria));
+    }
+
+    @GetMapping(value = "/buscar/nombre/{nombre}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getByNombre(@PathVariable String nombre) {
+        return json(tipoSistemaService.getTiposSistemaByNombreJson(nombre));
     }
 
-    @GetMapping("/buscar/nombre/{nombre}")
-    public ResponseEntity<ApiResponseDto<List<TipoSistemaDTO>>> getByNombre(@PathVariable String nombre) {
-        return ResponseEntity.ok(ApiResponseDto.success(tipoSistemaService.getTiposSistemaByNombre(nombre)));
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
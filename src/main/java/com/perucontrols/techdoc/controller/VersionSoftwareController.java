@@ -1,16 +1,21 @@
 package com.perucontrols.techdoc.controller;
 
 import com.perucontrols.techdoc.dto.*;
+import com.perucontrols.techdoc.model.VersionSoftware;
 import com.perucontrols.techdoc.service.VersionSoftwareService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,11 +27,23 @@ import java.util.List;
 public class VersionSoftwareController {
 
     private final VersionSoftwareService versionSoftwareService;
+    private final NdjsonWriter ndjsonWriter;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
-    public ResponseEntity<ApiResponseDto<List<VersionSoftwareDTO>>> getAllVersionesSoftware() {
-        List<VersionSoftwareDTO> versiones = versionSoftwareService.getAllVersionesSoftware();
-        return ResponseEntity.ok(ApiResponseDto.success(versiones));
+    public ResponseEntity<ApiResponseDto<List<VersionSoftwareResumenDTO>>> getAllVersionesSoftware(WebRequest webRequest) {
+        return conditionalGet.listado(webRequest, VersionSoftware.class,
+                () -> ApiResponseDto.success(versionSoftwareService.getAllVersionesSoftware()));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponseDto<List<MultiGetItem<VersionSoftwareDTO>>>> getByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(ApiResponseDto.success(versionSoftwareService.getVersionesSoftwareByIds(ids)));
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return ndjsonWriter.stream(versionSoftwareService::exportAllVersionesSoftware);
     }
 
     @GetMapping("/paged")
@@ -42,9 +59,36 @@ public class VersionSoftwareController {
         return ResponseEntity.ok(ApiResponseDto.success(response));
     }
 
+    @GetMapping("/paged/cursor")
+    public ResponseEntity<ApiResponseDto<CursorPageResponse<VersionSoftwareDTO>>> getCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(defaultValue = "NINGUNO") CursorPageResponse.Total total) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        CursorPageRequest request = new CursorPageRequest(after, size, sortBy, direction, total);
+
+        return ResponseEntity.ok(ApiResponseDto.success(versionSoftwareService.getAllVersionesSoftwareCursor(request)));
+    }
+
+    @GetMapping("/filtrar")
+    public ResponseEntity<ApiResponseDto<PaginatedResponse<VersionSoftwareResumenDTO>>> filtrar(
+            @ParameterObject VersionSoftwareFiltro filtro,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection) {
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        return ResponseEntity.ok(ApiResponseDto.success(versionSoftwareService.filtrarVersionesSoftware(filtro, pageable)));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponseDto<VersionSoftwareDTO>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponseDto.success(versionSoftwareService.getVersionSoftwareById(id)));
+    public ResponseEntity<ApiResponseDto<VersionSoftwareDTO>> getById(@PathVariable Long id, WebRequest webRequest) {
+        VersionSoftwareDTO version = versionSoftwareService.getVersionSoftwareById(id);
+        return conditionalGet.detalle(webRequest, id, version.getUpdatedAt(), () -> ApiResponseDto.success(version));
     }
 
     @PostMapping
@@ -53,6 +97,12 @@ public class VersionSoftwareController {
                 .body(ApiResponseDto.success(versionSoftwareService.createVersionSoftware(request)));
     }
 
+    @PostMapping("/lote")
+    public ResponseEntity<ApiResponseDto<LoteResponse>> createLote(@RequestBody List<CreateVersionSoftwareRequest> requests) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponseDto.success(versionSoftwareService.createVersionesSoftwareLote(requests)));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponseDto<VersionSoftwareDTO>> update(@PathVariable Long id,
                                                                      @RequestBody UpdateVersionSoftwareRequest request) {
@@ -65,8 +115,9 @@ public class VersionSoftwareController {
         return ResponseEntity.noContent().build();
     }
 
+    @Deprecated
     @GetMapping("/buscar/sistema/{idSistema}")
-    public ResponseEntity<ApiResponseDto<List<VersionSoftwareDTO>>> getBySistema(@PathVariable Long idSistema) {
+    public ResponseEntity<ApiResponseDto<List<VersionSoftwareResumenDTO>>> getBySistema(@PathVariable Long idSistema) {
         return ResponseEntity.ok(ApiResponseDto.success(versionSoftwareService.getVersionesSoftwareBySistema(idSistema)));
     }
 
@@ -75,8 +126,9 @@ public class VersionSoftwareController {
         return ResponseEntity.ok(ApiResponseDto.success(versionSoftwareService.getVersionSoftwareActualBySistema(idSistema)));
     }
 
+    @Deprecated
     @GetMapping("/buscar/fin-soporte")
-    public ResponseEntity<ApiResponseDto<List<VersionSoftwareDTO>>> getByFinSoporte() {
+    public ResponseEntity<ApiResponseDto<List<VersionSoftwareResumenDTO>>> getByFinSoporte() {
         return ResponseEntity.ok(ApiResponseDto.success(versionSoftwareService.getVersionesSoftwarePorFinSoporte()));
     }
 }
@@ -0,0 +1,32 @@
+package com.perucontrols.techdoc.controller;
+
+import com.perucontrols.techdoc.dto.ApiResponseDto;
+import com.perucontrols.techdoc.service.ReconciliacionContadores;
+import com.perucontrols.techdoc.service.VistaEmbarcacionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/vistas")
+@Tag(name = "Administración de vistas", description = "Reconstrucción de las vistas por embarcación y reconciliación de contadores")
+@RequiredArgsConstructor
+public class VistaAdminController {
+
+    private final VistaEmbarcacionService vistaEmbarcacionService;
+    private final ReconciliacionContadores reconciliacionContadores;
+
+    @PostMapping("/reconstruir")
+    @Operation(summary = "Encolar todas las embarcaciones para reconstruir su vista; el avance se ve en la métrica techdoc.vistas.embarcacion.pendientes")
+    public ResponseEntity<ApiResponseDto<Integer>> reconstruirTodas() {
+        return ResponseEntity.ok(ApiResponseDto.success("Embarcaciones encoladas", vistaEmbarcacionService.reconstruirTodas()));
+    }
+
+    @PostMapping("/contadores/reconciliar")
+    @Operation(summary = "Recontar componentes, documentos y mantenimientos abiertos de sistemas y embarcaciones y corregir las desviaciones")
+    public ResponseEntity<ApiResponseDto<Integer>> reconciliarContadores() {
+        return ResponseEntity.ok(ApiResponseDto.success("Filas corregidas", reconciliacionContadores.reconciliar()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.perucontrols.techdoc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String nombre;
+    private long entradas;
+    private long entradasNegativas;
+    private long aciertos;
+    private long fallos;
+    private double tasaAciertos;
+    private long desalojos;
+    private double cargaPromedioMs;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -23,4 +24,5 @@ public class ComponenteDTO {
     private String fabricante;
     private String modelo;
     private String imagen;
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
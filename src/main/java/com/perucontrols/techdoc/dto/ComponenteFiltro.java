@@ -0,0 +1,14 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.Componente;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ComponenteFiltro {
+    private Long sistema;
+    private Componente.EstadoComponente estado;
+    private String nombre;
+    private String fabricante;
+}
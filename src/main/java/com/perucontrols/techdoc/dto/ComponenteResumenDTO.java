@@ -0,0 +1,30 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.Componente;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Vista de listado de {@link Componente}: sin la descripción, que solo devuelve el detalle.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComponenteResumenDTO {
+    private Long id;
+    private Long idSistema;
+    private String nombre;
+    private String numeroParte;
+    private Integer cantidad;
+    private String ubicacionEnSistema;
+    private Boolean reemplazable;
+    private Integer tiempoVidaUtil;
+    private LocalDate fechaInstalacion;
+    private Componente.EstadoComponente estado;
+    private String fabricante;
+    private String modelo;
+    private String imagen;
+}
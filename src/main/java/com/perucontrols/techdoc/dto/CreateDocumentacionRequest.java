@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -26,5 +27,9 @@ public class CreateDocumentacionRequest {
     private String creadoPor;
     private String version;
     private String descripcion;
+    private List<String> etiquetas;
+
+    /** Formato anterior, separado por comas; se usa solo si no se envía {@code etiquetas}. */
+    @Deprecated
     private String tags;
 }
@@ -0,0 +1,17 @@
+package com.perucontrols.techdoc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageRequest {
+    private String after;
+    private int size;
+    private String sortBy;
+    private Sort.Direction direction;
+    private CursorPageResponse.Total total;
+}
@@ -0,0 +1,34 @@
+package com.perucontrols.techdoc.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int pageSize;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+    private Boolean totalEstimated;
+
+    public <R> CursorPageResponse<R> map(Function<? super T, ? extends R> converter) {
+        List<R> mapped = content.stream().<R>map(converter).toList();
+        return new CursorPageResponse<>(mapped, pageSize, hasNext, nextCursor, totalElements, totalEstimated);
+    }
+
+    /**
+     * Cómo calcular el total: sin total, estimado desde las estadísticas de pg_class o con count(*).
+     */
+    public enum Total {
+        NINGUNO, ESTIMADO, EXACTO
+    }
+}
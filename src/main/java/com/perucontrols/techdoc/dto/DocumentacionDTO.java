@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -20,5 +22,10 @@ public class DocumentacionDTO {
     private String creadoPor;
     private String version;
     private String descripcion;
+    private List<String> etiquetas;
+    private LocalDateTime updatedAt;
+
+    /** Formato anterior: {@code etiquetas} separadas por comas, para los clientes que aún lo leen. */
+    @Deprecated
     private String tags;
 }
@@ -0,0 +1,27 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.Documentacion;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class DocumentacionFiltro {
+    private Long embarcacion;
+    private Long sistema;
+    private Documentacion.TipoDocumento tipoDocumento;
+    private String titulo;
+    /** Etiqueta exacta. */
+    private String tag;
+    private List<String> etiquetas;
+    private ModoEtiquetas modoEtiquetas = ModoEtiquetas.TODAS;
+
+    public enum ModoEtiquetas {
+        /** El documento tiene todas las etiquetas pedidas. */
+        TODAS,
+        /** El documento tiene al menos una de ellas. */
+        ALGUNA
+    }
+}
@@ -0,0 +1,20 @@
+package com.perucontrols.techdoc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de la búsqueda de texto completo: el documento, su relevancia ({@code ts_rank}) y
+ * el título y un fragmento de la descripción con los términos encontrados entre {@code <mark>}.
+ * Ambos son HTML ya escapado: las únicas etiquetas son esas marcas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentoEncontradoDTO {
+    private DocumentacionDTO documento;
+    private double relevancia;
+    private String tituloResaltado;
+    private String fragmento;
+}
@@ -0,0 +1,15 @@
+package com.perucontrols.techdoc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbarcacionArbolDTO {
+    private EmbarcacionDTO embarcacion;
+    private List<SistemaArbolDTO> sistemas;
+}
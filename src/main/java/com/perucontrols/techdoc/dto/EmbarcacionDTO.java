@@ -23,4 +23,9 @@ public class EmbarcacionDTO {
     private String ubicacionActual;
     private LocalDateTime fechaRegistro;
     private String notas;
+    private Integer totalSistemas;
+    private Integer totalComponentes;
+    private Integer totalDocumentos;
+    private Integer mantenimientosAbiertos;
+    private LocalDateTime updatedAt;
 }
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,4 +23,5 @@ public class EspecificacionTecnicaDTO {
     private String proteccionIp;
     private String certificaciones;
     private String requisitosEspeciales;
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,14 @@
+package com.perucontrols.techdoc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Número de documentos con la etiqueta dentro del filtro pedido. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetaEtiquetaDTO {
+    private String etiqueta;
+    private long total;
+}
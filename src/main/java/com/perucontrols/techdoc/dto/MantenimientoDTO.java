@@ -25,4 +25,5 @@ public class MantenimientoDTO {
     private LocalDate fechaProximoMantenimiento;
     private Double costo;
     private Integer tiempoInactividad;
+    private LocalDateTime updatedAt;
 }
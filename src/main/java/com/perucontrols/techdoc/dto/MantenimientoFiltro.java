@@ -0,0 +1,21 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.Mantenimiento;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class MantenimientoFiltro {
+    private Long sistema;
+    private Mantenimiento.TipoMantenimiento tipo;
+    private Mantenimiento.EstadoMantenimiento estado;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime desde;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime hasta;
+    private String realizadoPor;
+}
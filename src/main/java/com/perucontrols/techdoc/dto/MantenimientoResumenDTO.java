@@ -0,0 +1,28 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.Mantenimiento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Vista de listado de {@link Mantenimiento}: sin descripción, hallazgos ni recomendaciones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MantenimientoResumenDTO {
+    private Long id;
+    private Long idSistema;
+    private Mantenimiento.TipoMantenimiento tipo;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private Mantenimiento.EstadoMantenimiento estado;
+    private String realizadoPor;
+    private LocalDate fechaProximoMantenimiento;
+    private Double costo;
+    private Integer tiempoInactividad;
+}
@@ -0,0 +1,18 @@
+package com.perucontrols.techdoc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un id dentro de {@code GET ?ids=...}: los ids inexistentes se informan con
+ * {@code encontrado = false} y {@code data = null} en lugar de fallar toda la petición.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetItem<T> {
+    private Long id;
+    private boolean encontrado;
+    private T data;
+}
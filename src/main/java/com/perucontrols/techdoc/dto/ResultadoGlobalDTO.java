@@ -0,0 +1,21 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.busqueda.TipoResultado;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de la búsqueda global: qué entidad es y cómo mostrarla. El detalle se pide al
+ * endpoint de su recurso. {@code idSistema} es el sistema al que pertenece, si aplica.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoGlobalDTO {
+    private TipoResultado tipo;
+    private Long id;
+    private Long idSistema;
+    private String titulo;
+    private float relevancia;
+}
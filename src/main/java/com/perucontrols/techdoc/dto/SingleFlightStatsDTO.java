@@ -0,0 +1,17 @@
+package com.perucontrols.techdoc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SingleFlightStatsDTO {
+    private long llamadas;
+    private long cargas;
+    /** Llamadas que esperaron una carga ya en curso en vez de consultar. */
+    private long coalescidas;
+    private long errores;
+    private int enVuelo;
+}
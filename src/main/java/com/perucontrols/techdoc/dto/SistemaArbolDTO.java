@@ -0,0 +1,19 @@
+package com.perucontrols.techdoc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SistemaArbolDTO {
+    private SistemaDTO sistema;
+    private EspecificacionTecnicaDTO especificacionTecnica;
+    private List<ComponenteDTO> componentes;
+    private List<DocumentacionDTO> documentacion;
+    private List<VersionSoftwareDTO> versionesSoftware;
+    private List<MantenimientoDTO> mantenimientos;
+}
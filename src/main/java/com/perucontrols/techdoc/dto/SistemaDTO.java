@@ -26,6 +26,9 @@ public class SistemaDTO {
     private String tecnicoInstalador;
     private String notasInstalacion;
     private String diagramaUbicacion;
+    private Integer totalComponentes;
+    private Integer totalDocumentos;
+    private Integer mantenimientosAbiertos;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,23 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.Sistema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class SistemaFiltro {
+    private Long embarcacion;
+    private Long tipoSistema;
+    private Sistema.EstadoSistema estado;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate instaladoDesde;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate instaladoHasta;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate mantenimientoHasta;
+    private String nombre;
+}
@@ -0,0 +1,34 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.Sistema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Vista de listado de {@link Sistema}: sin las notas de instalación, que solo devuelve el detalle.
+ * Se construye directamente en la consulta JPQL, sin pasar por la entidad.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SistemaResumenDTO {
+    private Long id;
+    private Long idEmbarcacion;
+    private Long idTipoSistema;
+    private String nombre;
+    private String numeroSerie;
+    private LocalDate fechaInstalacion;
+    private String ubicacionEnEmbarcacion;
+    private Sistema.EstadoSistema estado;
+    private LocalDate fechaUltimaRevision;
+    private LocalDate fechaProximoMantenimiento;
+    private Integer tiempoVidaRestante;
+    private String tecnicoInstalador;
+    private String diagramaUbicacion;
+    private Integer totalComponentes;
+    private Integer totalDocumentos;
+    private Integer mantenimientosAbiertos;
+}
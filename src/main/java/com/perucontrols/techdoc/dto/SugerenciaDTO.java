@@ -0,0 +1,21 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.busqueda.TipoResultado;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Completación del autocompletado. {@code texto} es lo que coincide con el prefijo (el nombre o
+ * un código: matrícula, número de serie o de parte) y {@code nombre}, el nombre de la entidad.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugerenciaDTO {
+    private TipoResultado tipo;
+    private Long id;
+    private Long idEmbarcacion;
+    private String texto;
+    private String nombre;
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,4 +17,5 @@ public class TipoSistemaDTO {
     private TipoSistema.CategoriaSistema categoria;
     private String fabricanteRecomendado;
     private Integer vidaUtilEstimada;
+    private LocalDateTime updatedAt;
 }
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -22,4 +23,5 @@ public class VersionSoftwareDTO {
     private String instaladoPor;
     private VersionSoftware.EstadoVersion estado;
     private LocalDate fechaFinSoporte;
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,22 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.VersionSoftware;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class VersionSoftwareFiltro {
+    private Long sistema;
+    private VersionSoftware.EstadoVersion estado;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate instaladaDesde;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate instaladaHasta;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate finSoporteHasta;
+    private String version;
+}
@@ -0,0 +1,26 @@
+package com.perucontrols.techdoc.dto;
+
+import com.perucontrols.techdoc.model.VersionSoftware;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Vista de listado de {@link VersionSoftware}: sin changelog ni requisitos del sistema.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionSoftwareResumenDTO {
+    private Long id;
+    private Long idSistema;
+    private String version;
+    private LocalDate fechaInstalacion;
+    private String compatibleCon;
+    private String archivoInstalador;
+    private String instaladoPor;
+    private VersionSoftware.EstadoVersion estado;
+    private LocalDate fechaFinSoporte;
+}
@@ -0,0 +1,19 @@
+package com.perucontrols.techdoc.exception;
+
+/**
+ * La base de datos no responde (o el circuito está abierto) y no hay una respuesta anterior
+ * que servir. Se traduce a 503 con {@code Retry-After}.
+ */
+public class BaseDatosNoDisponibleException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public BaseDatosNoDisponibleException(String message, long reintentarEnSegundos, Throwable cause) {
+        super(message, cause);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
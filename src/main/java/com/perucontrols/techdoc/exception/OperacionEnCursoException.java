@@ -0,0 +1,12 @@
+package com.perucontrols.techdoc.exception;
+
+/**
+ * Una operación de mantenimiento que no admite ejecuciones simultáneas ya está en marcha, en este
+ * nodo o en otro. Se traduce a 409.
+ */
+public class OperacionEnCursoException extends RuntimeException {
+
+    public OperacionEnCursoException(String message) {
+        super(message);
+    }
+}
@@ -27,6 +27,7 @@ public class ComponenteMapper {
         dto.setFabricante(entity.getFabricante());
         dto.setModelo(entity.getModelo());
         dto.setImagen(entity.getImagen());
+        dto.setUpdatedAt(entity.getUpdatedAt());
         
         return dto;
     }
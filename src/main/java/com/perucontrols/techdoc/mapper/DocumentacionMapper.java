@@ -4,6 +4,13 @@ import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.model.Documentacion;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
 @Component
 public class DocumentacionMapper {
 
@@ -20,10 +27,13 @@ public class DocumentacionMapper {
                 entity.getCreadoPor(),
                 entity.getVersion(),
                 entity.getDescripcion(),
-                entity.getTags()
+                List.copyOf(entity.getEtiquetas()),
+                entity.getUpdatedAt(),
+                String.join(",", entity.getEtiquetas())
         );
     }
 
+    @SuppressWarnings("deprecation")
     public Documentacion toEntity(CreateDocumentacionRequest request) {
         if (request == null) return null;
 
@@ -35,11 +45,12 @@ public class DocumentacionMapper {
         entity.setCreadoPor(request.getCreadoPor());
         entity.setVersion(request.getVersion());
         entity.setDescripcion(request.getDescripcion());
-        entity.setTags(request.getTags());
+        entity.setEtiquetas(etiquetas(request.getEtiquetas(), request.getTags()));
 
         return entity;
     }
 
+    @SuppressWarnings("deprecation")
     public void updateEntity(Documentacion entity, UpdateDocumentacionRequest request) {
         if (entity == null || request == null) return;
 
@@ -50,6 +61,26 @@ public class DocumentacionMapper {
         if (request.getCreadoPor() != null) entity.setCreadoPor(request.getCreadoPor());
         if (request.getVersion() != null) entity.setVersion(request.getVersion());
         if (request.getDescripcion() != null) entity.setDescripcion(request.getDescripcion());
-        if (request.getTags() != null) entity.setTags(request.getTags());
+        if (request.getEtiquetas() != null || request.getTags() != null) {
+            entity.setEtiquetas(etiquetas(request.getEtiquetas(), request.getTags()));
+        }
+    }
+
+    /** Minúsculas, sin espacios sobrantes ni vacías, sin repetidas y ordenadas, igual que la migración V8. */
+    public static List<String> normalizarEtiquetas(Collection<String> etiquetas) {
+        if (etiquetas == null) return List.of();
+        return etiquetas.stream()
+                .filter(Objects::nonNull)
+                .map(e -> e.trim().toLowerCase(Locale.ROOT))
+                .filter(e -> !e.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static List<String> etiquetas(List<String> etiquetas, String tags) {
+        if (etiquetas != null) return new ArrayList<>(normalizarEtiquetas(etiquetas));
+        if (tags == null) return new ArrayList<>();
+        return new ArrayList<>(normalizarEtiquetas(Arrays.asList(tags.split(","))));
     }
 }
@@ -25,7 +25,12 @@ public class EmbarcacionMapper {
                 entity.getEstado(),
                 entity.getUbicacionActual(),
                 entity.getFechaRegistro(),
-                entity.getNotas()
+                entity.getNotas(),
+                entity.getTotalSistemas(),
+                entity.getTotalComponentes(),
+                entity.getTotalDocumentos(),
+                entity.getMantenimientosAbiertos(),
+                entity.getUpdatedAt()
         );
     }
 
@@ -25,7 +25,8 @@ public class EspecificacionTecnicaMapper {
                 entity.getTemperaturaOperacion(),
                 entity.getProteccionIp(),
                 entity.getCertificaciones(),
-                entity.getRequisitosEspeciales()
+                entity.getRequisitosEspeciales(),
+                entity.getUpdatedAt()
         );
     }
 
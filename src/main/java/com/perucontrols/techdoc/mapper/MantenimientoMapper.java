@@ -1,5 +1,6 @@
 package com.perucontrols.techdoc.mapper;
 
+import com.perucontrols.techdoc.dto.CreateMantenimientoRequest;
 import com.perucontrols.techdoc.dto.MantenimientoDTO;
 import com.perucontrols.techdoc.dto.UpdateMantenimientoRequest;
 import com.perucontrols.techdoc.model.Mantenimiento;
@@ -22,10 +23,27 @@ public class MantenimientoMapper {
                 entity.getRecomendaciones(),
                 entity.getFechaProximoMantenimiento(),
                 entity.getCosto(),
-                entity.getTiempoInactividad()
+                entity.getTiempoInactividad(),
+                entity.getUpdatedAt()
         );
     }
 
+    public Mantenimiento toEntity(CreateMantenimientoRequest request) {
+        Mantenimiento entity = new Mantenimiento();
+        entity.setTipo(request.getTipo());
+        entity.setFechaInicio(request.getFechaInicio());
+        entity.setFechaFin(request.getFechaFin());
+        entity.setEstado(request.getEstado());
+        entity.setRealizadoPor(request.getRealizadoPor());
+        entity.setDescripcion(request.getDescripcion());
+        entity.setHallazgos(request.getHallazgos());
+        entity.setRecomendaciones(request.getRecomendaciones());
+        entity.setFechaProximoMantenimiento(request.getFechaProximoMantenimiento());
+        entity.setCosto(request.getCosto());
+        entity.setTiempoInactividad(request.getTiempoInactividad());
+        return entity;
+    }
+
     public void updateEntity(Mantenimiento entity, UpdateMantenimientoRequest request) {
         if (request.getTipo() != null) entity.setTipo(request.getTipo());
         if (request.getFechaInicio() != null) entity.setFechaInicio(request.getFechaInicio());
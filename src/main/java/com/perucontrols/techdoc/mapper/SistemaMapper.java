@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 public class SistemaMapper {
 
     public SistemaDTO toDTO(Sistema entity) {
+        // De las asociaciones solo se lee el id, que el proxy devuelve sin ir a la base
         return new SistemaDTO(
                 entity.getId(),
                 entity.getEmbarcacion() != null ? entity.getEmbarcacion().getId() : null,
@@ -24,6 +25,9 @@ public class SistemaMapper {
                 entity.getTecnicoInstalador(),
                 entity.getNotasInstalacion(),
                 entity.getDiagramaUbicacion(),
+                entity.getTotalComponentes(),
+                entity.getTotalDocumentos(),
+                entity.getMantenimientosAbiertos(),
                 entity.getCreatedAt(),
                 entity.getUpdatedAt()
         );
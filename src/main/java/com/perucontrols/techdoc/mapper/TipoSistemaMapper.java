@@ -16,7 +16,8 @@ public class TipoSistemaMapper {
                 entity.getDescripcion(),
                 entity.getCategoria(),
                 entity.getFabricanteRecomendado(),
-                entity.getVidaUtilEstimada()
+                entity.getVidaUtilEstimada(),
+                entity.getUpdatedAt()
         );
     }
 
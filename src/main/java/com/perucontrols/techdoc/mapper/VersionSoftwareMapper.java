@@ -23,7 +23,8 @@ public class VersionSoftwareMapper {
                 entity.getRequisitosSistema(),
                 entity.getInstaladoPor(),
                 entity.getEstado(),
-                entity.getFechaFinSoporte()
+                entity.getFechaFinSoporte(),
+                entity.getUpdatedAt()
         );
     }
 
@@ -3,8 +3,12 @@ package com.perucontrols.techdoc.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -14,12 +18,15 @@ import java.time.LocalDate;
 public class Componente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "componentes_seq")
+    @SequenceGenerator(name = "componentes_seq", sequenceName = "componentes_seq", allocationSize = 50)
     @Column(name = "id_componente")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_sistema", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Sistema sistema;
 
     @Column(name = "nombre", nullable = false, length = 100)
@@ -59,6 +66,10 @@ public class Componente {
     @Column(name = "imagen", length = 255)
     private String imagen;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     public enum EstadoComponente {
         OPERATIVO, FALLA, REEMPLAZADO
     }
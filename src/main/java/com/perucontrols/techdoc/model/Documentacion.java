@@ -3,8 +3,16 @@ package com.perucontrols.techdoc.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -14,12 +22,15 @@ import java.time.LocalDate;
 public class Documentacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documentacion_seq")
+    @SequenceGenerator(name = "documentacion_seq", sequenceName = "documentacion_seq", allocationSize = 50)
     @Column(name = "id_documento")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_sistema", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Sistema sistema;
 
     @Column(name = "tipo_documento")
@@ -44,8 +55,14 @@ public class Documentacion {
     @Column(name = "descripcion", columnDefinition = "TEXT")
     private String descripcion;
 
-    @Column(name = "tags", length = 255)
-    private String tags;
+    /** Normalizadas con {@code DocumentacionMapper.normalizarEtiquetas}; columna text[] con índice GIN (V8). */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "etiquetas", columnDefinition = "text[]", nullable = false)
+    private List<String> etiquetas = new ArrayList<>();
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 
     public enum TipoDocumento {
         MANUAL, DIAGRAMA, CERTIFICADO, PROCEDIMIENTO, FOTO
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -15,7 +16,8 @@ import java.time.LocalDateTime;
 public class Embarcacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "embarcaciones_seq")
+    @SequenceGenerator(name = "embarcaciones_seq", sequenceName = "embarcaciones_seq", allocationSize = 50)
     @Column(name = "id_embarcacion")
     private Long id;
 
@@ -50,6 +52,23 @@ public class Embarcacion {
     @Column(name = "notas", columnDefinition = "TEXT")
     private String notas;
 
+    // Contadores mantenidos por triggers (V6); Hibernate solo los lee
+    @Column(name = "total_sistemas", nullable = false, insertable = false, updatable = false)
+    private Integer totalSistemas = 0;
+
+    @Column(name = "total_componentes", nullable = false, insertable = false, updatable = false)
+    private Integer totalComponentes = 0;
+
+    @Column(name = "total_documentos", nullable = false, insertable = false, updatable = false)
+    private Integer totalDocumentos = 0;
+
+    @Column(name = "mantenimientos_abiertos", nullable = false, insertable = false, updatable = false)
+    private Integer mantenimientosAbiertos = 0;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     public enum EstadoEmbarcacion {
         ACTIVO, INACTIVO, MANTENIMIENTO
     }
@@ -3,7 +3,11 @@ package com.perucontrols.techdoc.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -13,12 +17,15 @@ import lombok.NoArgsConstructor;
 public class EspecificacionTecnica {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "especificaciones_tecnicas_seq")
+    @SequenceGenerator(name = "especificaciones_tecnicas_seq", sequenceName = "especificaciones_tecnicas_seq", allocationSize = 50)
     @Column(name = "id_especificacion")
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_sistema", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Sistema sistema;
 
     @Column(name = "tipo_cableado", length = 100)
@@ -53,4 +60,8 @@ public class EspecificacionTecnica {
 
     @Column(name = "requisitos_especiales", columnDefinition = "TEXT")
     private String requisitosEspeciales;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -3,7 +3,10 @@ package com.perucontrols.techdoc.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 
@@ -15,12 +18,15 @@ import java.time.LocalDate;
 public class Mantenimiento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mantenimientos_seq")
+    @SequenceGenerator(name = "mantenimientos_seq", sequenceName = "mantenimientos_seq", allocationSize = 50)
     @Column(name = "id_mantenimiento")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_sistema", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Sistema sistema;
 
     @Column(name = "tipo")
@@ -58,6 +64,10 @@ public class Mantenimiento {
     @Column(name = "tiempo_inactividad")
     private Integer tiempoInactividad;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     public enum TipoMantenimiento {
         PREVENTIVO, CORRECTIVO, ACTUALIZACION
     }
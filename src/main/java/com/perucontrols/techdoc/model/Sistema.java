@@ -3,7 +3,11 @@ package com.perucontrols.techdoc.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -15,16 +19,21 @@ import java.time.LocalDateTime;
 public class Sistema {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sistemas_seq")
+    @SequenceGenerator(name = "sistemas_seq", sequenceName = "sistemas_seq", allocationSize = 50)
     @Column(name = "id_sistema")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_embarcacion", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Embarcacion embarcacion;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_tipo_sistema", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private TipoSistema tipoSistema;
 
     @Column(name = "nombre", nullable = false, length = 100)
@@ -61,11 +70,23 @@ public class Sistema {
     @Column(name = "diagrama_ubicacion", length = 255)
     private String diagramaUbicacion;
 
-    @Column(name = "created_at")
-    private LocalDateTime createdAt = LocalDateTime.now();
+    // Contadores mantenidos por triggers (V6); Hibernate solo los lee
+    @Column(name = "total_componentes", nullable = false, insertable = false, updatable = false)
+    private Integer totalComponentes = 0;
 
-    @Column(name = "updated_at")
-    private LocalDateTime updatedAt = LocalDateTime.now();
+    @Column(name = "total_documentos", nullable = false, insertable = false, updatable = false)
+    private Integer totalDocumentos = 0;
+
+    @Column(name = "mantenimientos_abiertos", nullable = false, insertable = false, updatable = false)
+    private Integer mantenimientosAbiertos = 0;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 
     public enum EstadoSistema {
         OPERATIVO, FALLA, MANTENIMIENTO, DESACTIVADO
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -13,7 +15,8 @@ import lombok.NoArgsConstructor;
 public class TipoSistema {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tipos_sistema_seq")
+    @SequenceGenerator(name = "tipos_sistema_seq", sequenceName = "tipos_sistema_seq", allocationSize = 50)
     @Column(name = "id_tipo_sistema")
     private Long id;
 
@@ -33,6 +36,10 @@ public class TipoSistema {
     @Column(name = "vida_util_estimada")
     private Integer vidaUtilEstimada;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     public enum CategoriaSistema {
         MONITOREO, CONTROL, NAVEGACION, COMUNICACION, REFRIGERACION, OTRO
     }
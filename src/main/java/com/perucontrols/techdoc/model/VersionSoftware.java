@@ -3,8 +3,12 @@ package com.perucontrols.techdoc.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -14,12 +18,15 @@ import java.time.LocalDate;
 public class VersionSoftware {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "versiones_software_seq")
+    @SequenceGenerator(name = "versiones_software_seq", sequenceName = "versiones_software_seq", allocationSize = 50)
     @Column(name = "id_version")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_sistema", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Sistema sistema;
 
     @Column(name = "version", nullable = false, length = 50)
@@ -50,6 +57,10 @@ public class VersionSoftware {
     @Column(name = "fecha_fin_soporte")
     private LocalDate fechaFinSoporte;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     public enum EstadoVersion {
         ACTUAL, OBSOLETO, COMPATIBLE
     }
@@ -1,15 +1,59 @@
 package com.perucontrols.techdoc.repository;
 
+import com.perucontrols.techdoc.dto.ComponenteResumenDTO;
 import com.perucontrols.techdoc.model.Componente;
-import com.perucontrols.techdoc.model.Sistema;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ComponenteRepository extends JpaRepository<Componente, Long> {
-    List<Componente> findBySistema(Sistema sistema);
-    List<Componente> findBySistemaAndEstado(Sistema sistema, Componente.EstadoComponente estado);
-    List<Componente> findByNombreContaining(String nombre);
+    String RESUMEN = "SELECT new com.perucontrols.techdoc.dto.ComponenteResumenDTO(c.id, c.sistema.id, c.nombre, "
+            + "c.numeroParte, c.cantidad, c.ubicacionEnSistema, c.reemplazable, c.tiempoVidaUtil, c.fechaInstalacion, "
+            + "c.estado, c.fabricante, c.modelo, c.imagen) FROM Componente c";
+
+    List<Componente> findBySistemaIdIn(Collection<Long> idsSistema);
+
+    @Query(RESUMEN + " ORDER BY c.id")
+    List<ComponenteResumenDTO> findAllResumen();
+
+    @Query(RESUMEN + " WHERE c.sistema.id = :idSistema ORDER BY c.id")
+    List<ComponenteResumenDTO> findResumenBySistemaId(@Param("idSistema") Long idSistema);
+
+    @Query(RESUMEN + " WHERE c.sistema.id = :idSistema AND c.estado = :estado ORDER BY c.id")
+    List<ComponenteResumenDTO> findResumenBySistemaIdAndEstado(@Param("idSistema") Long idSistema,
+                                                               @Param("estado") Componente.EstadoComponente estado);
+
+    @Query(RESUMEN + " WHERE c.id IN :ids")
+    List<ComponenteResumenDTO> findResumenByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids de los componentes cuyo nombre contiene {@code patron} (LIKE escapado) sin distinguir
+     * mayúsculas ni tildes, los más parecidos a {@code texto} primero. Usa idx_componentes_nombre_trgm.
+     */
+    @Query(value = """
+            SELECT c.id_componente FROM componentes c
+            WHERE techdoc_sin_tildes(c.nombre) LIKE '%' || techdoc_sin_tildes(:patron) || '%'
+            ORDER BY similarity(techdoc_sin_tildes(c.nombre), techdoc_sin_tildes(:texto)) DESC, c.id_componente
+            """,
+            countQuery = "SELECT count(*) FROM componentes c WHERE techdoc_sin_tildes(c.nombre) LIKE '%' || techdoc_sin_tildes(:patron) || '%'",
+            nativeQuery = true)
+    Page<Long> buscarIdsPorNombre(@Param("patron") String patron, @Param("texto") String texto, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Componente c ORDER BY c.id")
+    Stream<Componente> streamAll();
 }
\ No newline at end of file
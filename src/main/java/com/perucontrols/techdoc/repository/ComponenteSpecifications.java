@@ -0,0 +1,35 @@
+package com.perucontrols.techdoc.repository;
+
+import com.perucontrols.techdoc.dto.ComponenteFiltro;
+import com.perucontrols.techdoc.model.Componente;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+public final class ComponenteSpecifications {
+
+    /** Columnas de {@link com.perucontrols.techdoc.dto.ComponenteResumenDTO}, en el orden de su constructor. */
+    public static final List<String> RESUMEN = List.of("id", "sistema.id", "nombre", "numeroParte", "cantidad",
+            "ubicacionEnSistema", "reemplazable", "tiempoVidaUtil", "fechaInstalacion", "estado", "fabricante",
+            "modelo", "imagen");
+
+    // El estado solo está indexado detrás de id_sistema (idx_componentes_sistema_estado); el nombre, por trigramas (V9)
+    // si tiene al menos Filtros.MIN_BUSQUEDA caracteres
+    private static final Set<String> INDEXADOS = Set.of("sistema", "nombre");
+
+    private ComponenteSpecifications() {
+    }
+
+    public static Specification<Componente> filtrar(ComponenteFiltro filtro) {
+        return Filtros.<Componente>indexados(INDEXADOS)
+                .con("sistema", filtro.getSistema(),
+                        id -> (root, query, cb) -> cb.equal(root.get("sistema").get("id"), id))
+                .con("estado", filtro.getEstado(),
+                        estado -> (root, query, cb) -> cb.equal(root.get("estado"), estado))
+                .conTexto("nombre", "nombre", filtro.getNombre())
+                .con("fabricante", filtro.getFabricante(),
+                        fabricante -> (root, query, cb) -> cb.equal(root.get("fabricante"), fabricante))
+                .build();
+    }
+}
@@ -2,20 +2,123 @@ package com.perucontrols.techdoc.repository;
 
 import com.perucontrols.techdoc.model.Documentacion;
 import com.perucontrols.techdoc.model.Sistema;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface DocumentacionRepository extends JpaRepository<Documentacion, Long> {
     List<Documentacion> findBySistema(Sistema sistema);
     List<Documentacion> findByTipoDocumento(Documentacion.TipoDocumento tipoDocumento);
+    List<Documentacion> findBySistemaIdIn(Collection<Long> idsSistema);
 
-    @Query("SELECT d FROM Documentacion d WHERE d.tags LIKE %:tag%")
-    List<Documentacion> findByTagsContaining(String tag);
+    /** Etiqueta exacta, ya normalizada; usa el índice GIN de V8. */
+    @Query(value = "SELECT * FROM documentacion d WHERE d.etiquetas @> ARRAY[cast(:etiqueta AS text)] ORDER BY d.id_documento",
+            nativeQuery = true)
+    List<Documentacion> findByEtiqueta(@Param("etiqueta") String etiqueta);
 
+    /**
+     * Cuántos documentos tienen cada etiqueta dentro del filtro, en una sola consulta. Los filtros
+     * nulos no se aplican; {@code etiquetas} vacío tampoco ({@code todas} elige {@code @>} o {@code &&}).
+     * {@code titulo} es un patrón LIKE ya escapado ({@link Filtros#escaparLike}).
+     */
+    @Query(value = """
+            SELECT e.etiqueta AS "etiqueta", count(*) AS "total"
+            FROM documentacion d
+            JOIN sistemas s ON s.id_sistema = d.id_sistema
+            CROSS JOIN LATERAL unnest(d.etiquetas) AS e(etiqueta)
+            WHERE (cast(:embarcacion AS bigint) IS NULL OR s.id_embarcacion = :embarcacion)
+              AND (cast(:sistema AS bigint) IS NULL OR d.id_sistema = :sistema)
+              AND (cast(:tipo AS text) IS NULL OR d.tipo_documento = :tipo)
+              AND (cast(:titulo AS text) IS NULL
+                   OR techdoc_sin_tildes(d.titulo) LIKE '%' || techdoc_sin_tildes(:titulo) || '%')
+              AND (cast(:etiqueta AS text) IS NULL OR d.etiquetas @> ARRAY[cast(:etiqueta AS text)])
+              AND (cardinality(cast(:etiquetas AS text[])) = 0
+                   OR (:todas AND d.etiquetas @> cast(:etiquetas AS text[]))
+                   OR (NOT :todas AND d.etiquetas && cast(:etiquetas AS text[])))
+            GROUP BY e.etiqueta
+            ORDER BY count(*) DESC, e.etiqueta
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<FacetaEtiqueta> contarEtiquetas(@Param("embarcacion") Long embarcacion,
+                                         @Param("sistema") Long sistema,
+                                         @Param("tipo") String tipo,
+                                         @Param("titulo") String titulo,
+                                         @Param("etiqueta") String etiqueta,
+                                         @Param("etiquetas") String[] etiquetas,
+                                         @Param("todas") boolean todas,
+                                         @Param("limite") int limite);
 
-    List<Documentacion> findByTituloContaining(String titulo);
+    interface FacetaEtiqueta {
+        String getEtiqueta();
+
+        Long getTotal();
+    }
+
+
+    /**
+     * Ids de los documentos cuyo título contiene {@code patron} (LIKE escapado) sin distinguir
+     * mayúsculas ni tildes, los más parecidos a {@code texto} primero. Usa idx_documentacion_titulo_trgm.
+     */
+    @Query(value = """
+            SELECT d.id_documento FROM documentacion d
+            WHERE techdoc_sin_tildes(d.titulo) LIKE '%' || techdoc_sin_tildes(:patron) || '%'
+            ORDER BY similarity(techdoc_sin_tildes(d.titulo), techdoc_sin_tildes(:texto)) DESC, d.id_documento
+            """,
+            countQuery = "SELECT count(*) FROM documentacion d WHERE techdoc_sin_tildes(d.titulo) LIKE '%' || techdoc_sin_tildes(:patron) || '%'",
+            nativeQuery = true)
+    Page<Long> buscarIdsPorTitulo(@Param("patron") String patron, @Param("texto") String texto, Pageable pageable);
+
+    /**
+     * Búsqueda de texto completo (V7) ordenada por relevancia. {@code q} admite la sintaxis de
+     * {@code websearch_to_tsquery}: palabras (todas obligatorias), "frases", OR y -exclusión.
+     * PostgreSQL calcula {@code ts_headline} solo para las filas de la página. Los términos
+     * encontrados quedan entre los caracteres de control {@link #INICIO_RESALTADO} y
+     * {@link #FIN_RESALTADO} (quitados antes del texto guardado), no entre etiquetas HTML: el texto
+     * se escapa después y solo entonces se ponen las marcas.
+     */
+    @Query(value = """
+            SELECT d.id_documento AS "id",
+                   ts_rank(d.busqueda, q) AS "relevancia",
+                   ts_headline('es_unaccent', translate(d.titulo, chr(2) || chr(3), ''), q,
+                               'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', HighlightAll=true') AS "tituloResaltado",
+                   ts_headline('es_unaccent', translate(coalesce(d.descripcion, ''), chr(2) || chr(3), ''), q,
+                               'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxFragments=2, MaxWords=25, MinWords=8') AS "fragmento"
+            FROM documentacion d, websearch_to_tsquery('es_unaccent', :q) q
+            WHERE d.busqueda @@ q
+            ORDER BY 2 DESC, d.id_documento
+            """,
+            countQuery = "SELECT count(*) FROM documentacion d WHERE d.busqueda @@ websearch_to_tsquery('es_unaccent', :q)",
+            nativeQuery = true)
+    Page<ResultadoBusqueda> buscarTexto(@Param("q") String q, Pageable pageable);
+
+    char INICIO_RESALTADO = '\u0002';
+    char FIN_RESALTADO = '\u0003';
+
+    interface ResultadoBusqueda {
+        Long getId();
+
+        Double getRelevancia();
+
+        String getTituloResaltado();
+
+        String getFragmento();
+    }
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Documentacion d ORDER BY d.id")
+    Stream<Documentacion> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.perucontrols.techdoc.repository;
+
+import com.perucontrols.techdoc.dto.DocumentacionFiltro;
+import com.perucontrols.techdoc.model.Documentacion;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+public final class DocumentacionSpecifications {
+
+    /** Columnas de {@link com.perucontrols.techdoc.dto.DocumentacionDTO}, en el orden de su constructor. */
+    public static final List<String> COLUMNAS = List.of("id", "sistema.id", "tipoDocumento", "titulo", "archivo",
+            "fechaCreacion", "creadoPor", "version", "descripcion", "etiquetas", "updatedAt");
+
+    /** etiquetas y tag usan el índice GIN de V8 ({@code @>} y {@code &&}); titulo, el de trigramas de V9. */
+    private static final Set<String> INDEXADOS = Set.of("embarcacion", "sistema", "tipoDocumento", "titulo", "tag", "etiquetas");
+
+    private DocumentacionSpecifications() {
+    }
+
+    public static Specification<Documentacion> filtrar(DocumentacionFiltro filtro) {
+        return Filtros.<Documentacion>indexados(INDEXADOS)
+                .con("embarcacion", filtro.getEmbarcacion(),
+                        id -> (root, query, cb) -> cb.equal(root.get("sistema").get("embarcacion").get("id"), id))
+                .con("sistema", filtro.getSistema(),
+                        id -> (root, query, cb) -> cb.equal(root.get("sistema").get("id"), id))
+                .con("tipoDocumento", filtro.getTipoDocumento(),
+                        tipo -> (root, query, cb) -> cb.equal(root.get("tipoDocumento"), tipo))
+                .conTexto("titulo", "titulo", filtro.getTitulo())
+                .con("tag", filtro.getTag(),
+                        tag -> (root, query, cb) -> ((HibernateCriteriaBuilder) cb)
+                                .collectionContains(root.<List<String>>get("etiquetas"), tag))
+                .con("etiquetas", filtro.getEtiquetas() == null || filtro.getEtiquetas().isEmpty() ? null : filtro.getEtiquetas(),
+                        etiquetas -> (root, query, cb) -> filtro.getModoEtiquetas() == DocumentacionFiltro.ModoEtiquetas.ALGUNA
+                                ? ((HibernateCriteriaBuilder) cb).collectionIntersects(root.<List<String>>get("etiquetas"), etiquetas)
+                                : ((HibernateCriteriaBuilder) cb).collectionIncludes(root.<List<String>>get("etiquetas"), etiquetas))
+                .build();
+    }
+}
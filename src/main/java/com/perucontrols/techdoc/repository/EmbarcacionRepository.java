@@ -1,15 +1,27 @@
 package com.perucontrols.techdoc.repository;
 
 import com.perucontrols.techdoc.model.Embarcacion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmbarcacionRepository extends JpaRepository<Embarcacion, Long> {
     Optional<Embarcacion> findByMatricula(String matricula);
     List<Embarcacion> findByEmpresaPropietaria(String empresaPropietaria);
     List<Embarcacion> findByEstado(Embarcacion.EstadoEmbarcacion estado);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Embarcacion e ORDER BY e.id")
+    Stream<Embarcacion> streamAll();
 }
\ No newline at end of file
@@ -2,12 +2,27 @@ package com.perucontrols.techdoc.repository;
 
 import com.perucontrols.techdoc.model.EspecificacionTecnica;
 import com.perucontrols.techdoc.model.Sistema;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EspecificacionTecnicaRepository extends JpaRepository<EspecificacionTecnica, Long> {
     Optional<EspecificacionTecnica> findBySistema(Sistema sistema);
+    List<EspecificacionTecnica> findBySistemaIdIn(Collection<Long> idsSistema);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM EspecificacionTecnica e ORDER BY e.id")
+    Stream<EspecificacionTecnica> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.perucontrols.techdoc.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ejecuta una {@link Specification} paginada proyectando directamente al DTO de resumen con
+ * {@code cb.construct}: una sola consulta para el contenido (más el count cuando hace falta), sin
+ * cargar entidades ni columnas TEXT en el contexto de persistencia.
+ */
+@Component
+@RequiredArgsConstructor
+public class FiltroPaginator {
+
+    private final EntityManager entityManager;
+
+    /**
+     * @param columnas rutas de atributos en el orden del constructor del DTO ({@code "sistema.id"} lee la FK)
+     * @param allowedSortKeys campos de orden con índice, los mismos que acepta {@link KeysetPaginator}
+     */
+    public <E, D> Page<D> page(Class<E> type, Specification<E> spec, Pageable pageable,
+                               Class<D> dto, List<String> columnas, Set<String> allowedSortKeys) {
+        if (pageable.getPageSize() > KeysetPaginator.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + KeysetPaginator.MAX_PAGE_SIZE);
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!allowedSortKeys.contains(order.getProperty())) {
+                throw new IllegalArgumentException(String.format(
+                        "No se puede ordenar por '%s'. Campos permitidos: %s", order.getProperty(), allowedSortKeys));
+            }
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<D> query = cb.createQuery(dto);
+        Root<E> root = query.from(type);
+        query.select(cb.construct(dto, columnas.stream().map(c -> path(root, c)).toArray(Selection[]::new)));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<D> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(type, spec, cb));
+    }
+
+    private <E> long count(Class<E> type, Specification<E> spec, CriteriaBuilder cb) {
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(type);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> path(Root<?> root, String columna) {
+        Path<?> path = root;
+        for (String atributo : columna.split("\\.")) {
+            path = path.get(atributo);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,112 @@
+package com.perucontrols.techdoc.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Compone los filtros opcionales de un endpoint {@code /filtrar} en una sola {@link Specification}.
+ * <p>
+ * Cada recurso declara qué filtros encabezan un índice (ver {@code V3__indices_consultas.sql}).
+ * Si se pide alguna combinación sin ninguno de ellos, la consulta recorrería la tabla entera y se
+ * rechaza con {@link IllegalArgumentException}. Sin filtros se recorre la tabla por la clave primaria.
+ */
+public final class Filtros<E> {
+
+    public static final int MIN_BUSQUEDA = 3;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final Set<String> indexados;
+    private final Set<String> activos = new LinkedHashSet<>();
+    private final List<Specification<E>> condiciones = new ArrayList<>();
+
+    private Filtros(Set<String> indexados) {
+        this.indexados = indexados;
+    }
+
+    public static <E> Filtros<E> indexados(Set<String> indexados) {
+        return new Filtros<>(indexados);
+    }
+
+    public <V> Filtros<E> con(String nombre, V valor, Function<V, Specification<E>> condicion) {
+        if (valor == null || valor instanceof String texto && texto.isBlank()) {
+            return this;
+        }
+        activos.add(nombre);
+        condiciones.add(condicion.apply(valor));
+        return this;
+    }
+
+    /**
+     * Filtro de texto con {@link #contiene}. Solo cuenta como indexado con al menos
+     * {@link #MIN_BUSQUEDA} caracteres: más corto no hay trigramas y el índice no acota nada.
+     */
+    public Filtros<E> conTexto(String nombre, String atributo, String texto) {
+        if (texto == null || texto.isBlank()) {
+            return this;
+        }
+        String recortado = texto.trim();
+        activos.add(recortado.length() >= MIN_BUSQUEDA
+                ? nombre
+                : nombre + " (menos de " + MIN_BUSQUEDA + " caracteres)");
+        condiciones.add(contiene(atributo, recortado));
+        return this;
+    }
+
+    /**
+     * {@code atributo} contiene {@code texto} sin distinguir mayúsculas ni tildes. Compara
+     * {@code techdoc_sin_tildes(columna)}, la expresión de los índices de trigramas de V9, con el
+     * patrón ya normalizado en Java y pasado como parámetro: una sola sentencia para cualquier texto.
+     */
+    public static <E> Specification<E> contiene(String atributo, String texto) {
+        String patron = "%" + escaparLike(sinTildes(texto.trim())) + "%";
+        return (root, query, cb) -> cb.like(sinTildes(cb, root.get(atributo)), patron, '\\');
+    }
+
+    /** Lo mismo que {@code techdoc_sin_tildes}: minúsculas y sin marcas diacríticas. */
+    private static String sinTildes(String texto) {
+        return MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /** Escapa los comodines de LIKE para buscar {@code texto} literalmente. */
+    public static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Valida una búsqueda paginada por texto. Con menos de {@link #MIN_BUSQUEDA} caracteres no hay
+     * trigramas que buscar y el índice no acota nada.
+     */
+    public static PageRequest busqueda(String texto, int page, int size) {
+        if (texto == null || texto.trim().length() < MIN_BUSQUEDA) {
+            throw new IllegalArgumentException("El texto de búsqueda debe tener al menos " + MIN_BUSQUEDA + " caracteres");
+        }
+        if (page < 0 || size < 1 || size > KeysetPaginator.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + KeysetPaginator.MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(page, size);
+    }
+
+    private static Expression<String> sinTildes(CriteriaBuilder cb, Expression<?> texto) {
+        return cb.function("techdoc_sin_tildes", String.class, texto);
+    }
+
+    public Specification<E> build() {
+        if (!activos.isEmpty() && activos.stream().noneMatch(indexados::contains)) {
+            throw new IllegalArgumentException(String.format(
+                    "Ningún índice respalda los filtros %s. Incluya al menos uno de: %s", activos, indexados));
+        }
+        return Specification.allOf(condiciones);
+    }
+}
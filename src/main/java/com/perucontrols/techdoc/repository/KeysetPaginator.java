@@ -0,0 +1,171 @@
+package com.perucontrols.techdoc.repository;
+
+import com.perucontrols.techdoc.dto.CursorPageRequest;
+import com.perucontrols.techdoc.dto.CursorPageResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Paginación por cursor (keyset) sobre cualquier entidad con id {@code Long}.
+ * <p>
+ * El cursor codifica el valor de la clave de orden y el id de la última fila, de modo que la
+ * siguiente página se obtiene con {@code (orden, id) > (:valor, :id)} usando el índice compuesto
+ * en lugar de un OFFSET. Solo se aceptan claves de orden respaldadas por un índice.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPaginator {
+
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final char SEPARADOR = '|';
+
+    private final EntityManager entityManager;
+
+    public <E> CursorPageResponse<E> fetch(Class<E> type, Set<String> allowedSortKeys, CursorPageRequest request) {
+        String sortBy = request.getSortBy() == null ? "id" : request.getSortBy();
+        if (!allowedSortKeys.contains(sortBy)) {
+            throw new IllegalArgumentException(String.format(
+                    "No se puede ordenar por '%s' en modo cursor. Campos permitidos: %s", sortBy, allowedSortKeys));
+        }
+        if (request.getSize() < 1 || request.getSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        Sort.Direction direction = request.getDirection() == null ? Sort.Direction.ASC : request.getDirection();
+        Cursor cursor = request.getAfter() == null || request.getAfter().isBlank()
+                ? null
+                : decode(request.getAfter(), sortBy, direction, sortKeyType(type, sortBy));
+
+        String entityName = entityManager.getMetamodel().entity(type).getName();
+        String dir = direction.isAscending() ? "ASC" : "DESC";
+        String op = direction.isAscending() ? ">" : "<";
+        boolean byId = sortBy.equals("id");
+
+        StringBuilder jpql = new StringBuilder("SELECT e, e.").append(sortBy).append(", e.id FROM ").append(entityName).append(" e");
+        if (cursor != null) {
+            jpql.append(byId
+                    ? " WHERE e.id " + op + " :id"
+                    : " WHERE (e." + sortBy + ", e.id) " + op + " (:valor, :id)");
+        }
+        jpql.append(" ORDER BY ");
+        if (!byId) {
+            jpql.append("e.").append(sortBy).append(' ').append(dir).append(", ");
+        }
+        jpql.append("e.id ").append(dir);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setMaxResults(request.getSize() + 1);
+        if (cursor != null) {
+            query.setParameter("id", cursor.id());
+            if (!byId) {
+                query.setParameter("valor", cursor.valor());
+            }
+        }
+
+        List<Object[]> rows = query.getResultList();
+        boolean hasNext = rows.size() > request.getSize();
+        if (hasNext) {
+            rows = rows.subList(0, request.getSize());
+        }
+
+        List<E> content = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            content.add(type.cast(row[0]));
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = rows.get(rows.size() - 1);
+            nextCursor = encode(sortBy, direction, last[1], (Long) last[2]);
+        }
+
+        Long total = null;
+        Boolean estimated = null;
+        CursorPageResponse.Total totalMode = request.getTotal() == null ? CursorPageResponse.Total.NINGUNO : request.getTotal();
+        switch (totalMode) {
+            case EXACTO -> {
+                total = entityManager.createQuery("SELECT count(e) FROM " + entityName + " e", Long.class).getSingleResult();
+                estimated = false;
+            }
+            case ESTIMADO -> {
+                total = estimateRows(type);
+                estimated = total != null ? true : null;
+            }
+            case NINGUNO -> { }
+        }
+
+        return new CursorPageResponse<>(content, request.getSize(), hasNext, nextCursor, total, estimated);
+    }
+
+    private Long estimateRows(Class<?> type) {
+        Table table = type.getAnnotation(Table.class);
+        if (table == null) {
+            return null;
+        }
+        // La sesión de Hibernate tipa el resultado; la consulta nativa de JPA 3.1 lo devuelve sin tipo
+        List<Long> reltuples = entityManager.unwrap(Session.class)
+                .createNativeQuery("SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass(:tabla)", Long.class)
+                .setParameter("tabla", table.name())
+                .getResultList();
+        // reltuples vale -1 mientras la tabla no se haya analizado nunca
+        return reltuples.isEmpty() || reltuples.get(0) < 0 ? null : reltuples.get(0);
+    }
+
+    private Class<?> sortKeyType(Class<?> type, String sortBy) {
+        return entityManager.getMetamodel().entity(type).getAttribute(sortBy).getJavaType();
+    }
+
+    static String encode(String sortBy, Sort.Direction direction, Object valor, Long id) {
+        String raw = sortBy + SEPARADOR + direction.name() + SEPARADOR + valor + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String token, String sortBy, Sort.Direction direction, Class<?> valueType) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        int first = raw.indexOf(SEPARADOR);
+        int second = first < 0 ? -1 : raw.indexOf(SEPARADOR, first + 1);
+        int last = raw.lastIndexOf(SEPARADOR);
+        if (first < 0 || second < 0 || last <= second) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (!raw.substring(0, first).equals(sortBy) || !raw.substring(first + 1, second).equals(direction.name())) {
+            throw new IllegalArgumentException("El cursor no corresponde al orden solicitado");
+        }
+        try {
+            Long id = Long.valueOf(raw.substring(last + 1));
+            return new Cursor(parse(raw.substring(second + 1, last), valueType), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(String valor, Class<?> type) {
+        if (type == String.class) return valor;
+        if (type == Long.class) return Long.valueOf(valor);
+        if (type == Integer.class) return Integer.valueOf(valor);
+        if (type == LocalDate.class) return LocalDate.parse(valor);
+        if (type == LocalDateTime.class) return LocalDateTime.parse(valor);
+        if (type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, valor);
+        throw new IllegalArgumentException("Tipo de clave de orden no soportado: " + type.getSimpleName());
+    }
+
+    record Cursor(Object valor, Long id) {
+    }
+}
@@ -1,17 +1,49 @@
 package com.perucontrols.techdoc.repository;
 
+import com.perucontrols.techdoc.dto.MantenimientoResumenDTO;
 import com.perucontrols.techdoc.model.Mantenimiento;
-import com.perucontrols.techdoc.model.Sistema;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MantenimientoRepository extends JpaRepository<Mantenimiento, Long> {
-    List<Mantenimiento> findBySistema(Sistema sistema);
-    List<Mantenimiento> findBySistemaAndEstado(Sistema sistema, Mantenimiento.EstadoMantenimiento estado);
-    List<Mantenimiento> findByTipo(Mantenimiento.TipoMantenimiento tipo);
-    List<Mantenimiento> findByFechaInicioAfterAndFechaInicioBefore(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+    String RESUMEN = "SELECT new com.perucontrols.techdoc.dto.MantenimientoResumenDTO(m.id, m.sistema.id, m.tipo, "
+            + "m.fechaInicio, m.fechaFin, m.estado, m.realizadoPor, m.fechaProximoMantenimiento, m.costo, "
+            + "m.tiempoInactividad) FROM Mantenimiento m";
+
+    List<Mantenimiento> findBySistemaIdInOrderByFechaInicioDesc(Collection<Long> idsSistema);
+
+    @Query(RESUMEN + " ORDER BY m.id")
+    List<MantenimientoResumenDTO> findAllResumen();
+
+    @Query(RESUMEN + " WHERE m.sistema.id = :idSistema ORDER BY m.fechaInicio DESC")
+    List<MantenimientoResumenDTO> findResumenBySistemaId(@Param("idSistema") Long idSistema);
+
+    @Query(RESUMEN + " WHERE m.sistema.id = :idSistema AND m.estado = :estado ORDER BY m.fechaInicio DESC")
+    List<MantenimientoResumenDTO> findResumenBySistemaIdAndEstado(@Param("idSistema") Long idSistema,
+                                                                  @Param("estado") Mantenimiento.EstadoMantenimiento estado);
+
+    @Query(RESUMEN + " WHERE m.tipo = :tipo ORDER BY m.fechaInicio DESC")
+    List<MantenimientoResumenDTO> findResumenByTipo(@Param("tipo") Mantenimiento.TipoMantenimiento tipo);
+
+    @Query(RESUMEN + " WHERE m.fechaInicio > :inicio AND m.fechaInicio < :fin ORDER BY m.fechaInicio")
+    List<MantenimientoResumenDTO> findResumenByFechaInicioBetween(@Param("inicio") LocalDateTime inicio,
+                                                                  @Param("fin") LocalDateTime fin);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Mantenimiento m ORDER BY m.id")
+    Stream<Mantenimiento> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.perucontrols.techdoc.repository;
+
+import com.perucontrols.techdoc.dto.MantenimientoFiltro;
+import com.perucontrols.techdoc.model.Mantenimiento;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+public final class MantenimientoSpecifications {
+
+    /** Columnas de {@link com.perucontrols.techdoc.dto.MantenimientoResumenDTO}, en el orden de su constructor. */
+    public static final List<String> RESUMEN = List.of("id", "sistema.id", "tipo", "fechaInicio", "fechaFin",
+            "estado", "realizadoPor", "fechaProximoMantenimiento", "costo", "tiempoInactividad");
+
+    private static final Set<String> INDEXADOS = Set.of("sistema", "tipo", "desde", "hasta");
+
+    private MantenimientoSpecifications() {
+    }
+
+    public static Specification<Mantenimiento> filtrar(MantenimientoFiltro filtro) {
+        return Filtros.<Mantenimiento>indexados(INDEXADOS)
+                .con("sistema", filtro.getSistema(),
+                        id -> (root, query, cb) -> cb.equal(root.get("sistema").get("id"), id))
+                .con("tipo", filtro.getTipo(),
+                        tipo -> (root, query, cb) -> cb.equal(root.get("tipo"), tipo))
+                .con("estado", filtro.getEstado(),
+                        estado -> (root, query, cb) -> cb.equal(root.get("estado"), estado))
+                .con("desde", filtro.getDesde(),
+                        fecha -> (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("fechaInicio"), fecha))
+                .con("hasta", filtro.getHasta(),
+                        fecha -> (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("fechaInicio"), fecha))
+                .con("realizadoPor", filtro.getRealizadoPor(),
+                        tecnico -> (root, query, cb) -> cb.equal(root.get("realizadoPor"), tecnico))
+                .build();
+    }
+}
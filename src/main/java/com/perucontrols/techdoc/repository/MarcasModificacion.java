@@ -0,0 +1,32 @@
+package com.perucontrols.techdoc.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca de modificación de una tabla completa: la última {@code updated_at} y el número de filas.
+ * Cambia con cada inserción, actualización o borrado, y se obtiene con una consulta agregada
+ * (el máximo sale del índice sobre {@code updated_at}) sin leer las filas.
+ */
+@Component
+@RequiredArgsConstructor
+public class MarcasModificacion {
+
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public MarcaModificacion de(Class<?> entidad) {
+        String entityName = entityManager.getMetamodel().entity(entidad).getName();
+        Object[] fila = entityManager
+                .createQuery("SELECT MAX(e.updatedAt), COUNT(e) FROM " + entityName + " e", Object[].class)
+                .getSingleResult();
+        return new MarcaModificacion((LocalDateTime) fila[0], (Long) fila[1]);
+    }
+
+    public record MarcaModificacion(LocalDateTime ultima, long total) {
+    }
+}
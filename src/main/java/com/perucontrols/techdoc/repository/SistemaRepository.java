@@ -1,23 +1,70 @@
 package com.perucontrols.techdoc.repository;
 
+import com.perucontrols.techdoc.dto.SistemaResumenDTO;
 import com.perucontrols.techdoc.model.Embarcacion;
 import com.perucontrols.techdoc.model.Sistema;
-import com.perucontrols.techdoc.model.TipoSistema;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SistemaRepository extends JpaRepository<Sistema, Long> {
+    String RESUMEN = "SELECT new com.perucontrols.techdoc.dto.SistemaResumenDTO(s.id, s.embarcacion.id, s.tipoSistema.id, "
+            + "s.nombre, s.numeroSerie, s.fechaInstalacion, s.ubicacionEnEmbarcacion, s.estado, s.fechaUltimaRevision, "
+            + "s.fechaProximoMantenimiento, s.tiempoVidaRestante, s.tecnicoInstalador, s.diagramaUbicacion, "
+            + "s.totalComponentes, s.totalDocumentos, s.mantenimientosAbiertos) FROM Sistema s";
+
     List<Sistema> findByEmbarcacion(Embarcacion embarcacion);
-    List<Sistema> findByTipoSistema(TipoSistema tipoSistema);
-    List<Sistema> findByEstado(Sistema.EstadoSistema estado);
-    List<Sistema> findByNombreContaining(String nombre);
     
-    @Query("SELECT s FROM Sistema s WHERE s.fechaProximoMantenimiento <= :fecha OR s.fechaProximoMantenimiento IS NULL")
-    List<Sistema> findSistemasRequiringMaintenance(@Param("fecha") LocalDate fecha);
+    @Query("SELECT s.id FROM Sistema s WHERE s.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(RESUMEN + " ORDER BY s.id")
+    List<SistemaResumenDTO> findAllResumen();
+
+    @Query(RESUMEN + " WHERE s.embarcacion.id = :idEmbarcacion ORDER BY s.id")
+    List<SistemaResumenDTO> findResumenByEmbarcacionId(@Param("idEmbarcacion") Long idEmbarcacion);
+
+    @Query(RESUMEN + " WHERE s.tipoSistema.id = :idTipoSistema ORDER BY s.id")
+    List<SistemaResumenDTO> findResumenByTipoSistemaId(@Param("idTipoSistema") Long idTipoSistema);
+
+    @Query(RESUMEN + " WHERE s.estado = :estado ORDER BY s.id")
+    List<SistemaResumenDTO> findResumenByEstado(@Param("estado") Sistema.EstadoSistema estado);
+
+    @Query(RESUMEN + " WHERE s.id IN :ids")
+    List<SistemaResumenDTO> findResumenByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids de los sistemas cuyo nombre contiene {@code patron} (LIKE escapado) sin distinguir
+     * mayúsculas ni tildes, los más parecidos a {@code texto} primero. Usa idx_sistemas_nombre_trgm.
+     */
+    @Query(value = """
+            SELECT s.id_sistema FROM sistemas s
+            WHERE techdoc_sin_tildes(s.nombre) LIKE '%' || techdoc_sin_tildes(:patron) || '%'
+            ORDER BY similarity(techdoc_sin_tildes(s.nombre), techdoc_sin_tildes(:texto)) DESC, s.id_sistema
+            """,
+            countQuery = "SELECT count(*) FROM sistemas s WHERE techdoc_sin_tildes(s.nombre) LIKE '%' || techdoc_sin_tildes(:patron) || '%'",
+            nativeQuery = true)
+    Page<Long> buscarIdsPorNombre(@Param("patron") String patron, @Param("texto") String texto, Pageable pageable);
+
+    @Query(RESUMEN + " WHERE s.fechaProximoMantenimiento <= :fecha OR s.fechaProximoMantenimiento IS NULL")
+    List<SistemaResumenDTO> findSistemasRequiringMaintenance(@Param("fecha") LocalDate fecha);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Sistema s ORDER BY s.id")
+    Stream<Sistema> streamAll();
 }
\ No newline at end of file
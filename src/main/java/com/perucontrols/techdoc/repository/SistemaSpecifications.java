@@ -0,0 +1,42 @@
+package com.perucontrols.techdoc.repository;
+
+import com.perucontrols.techdoc.dto.SistemaFiltro;
+import com.perucontrols.techdoc.model.Sistema;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+public final class SistemaSpecifications {
+
+    /** Columnas de {@link com.perucontrols.techdoc.dto.SistemaResumenDTO}, en el orden de su constructor. */
+    public static final List<String> RESUMEN = List.of("id", "embarcacion.id", "tipoSistema.id", "nombre",
+            "numeroSerie", "fechaInstalacion", "ubicacionEnEmbarcacion", "estado", "fechaUltimaRevision",
+            "fechaProximoMantenimiento", "tiempoVidaRestante", "tecnicoInstalador", "diagramaUbicacion",
+            "totalComponentes", "totalDocumentos", "mantenimientosAbiertos");
+
+    private static final Set<String> INDEXADOS = Set.of(
+            "embarcacion", "tipoSistema", "estado", "instaladoDesde", "instaladoHasta", "mantenimientoHasta", "nombre");
+
+    private SistemaSpecifications() {
+    }
+
+    public static Specification<Sistema> filtrar(SistemaFiltro filtro) {
+        return Filtros.<Sistema>indexados(INDEXADOS)
+                .con("embarcacion", filtro.getEmbarcacion(),
+                        id -> (root, query, cb) -> cb.equal(root.get("embarcacion").get("id"), id))
+                .con("tipoSistema", filtro.getTipoSistema(),
+                        id -> (root, query, cb) -> cb.equal(root.get("tipoSistema").get("id"), id))
+                .con("estado", filtro.getEstado(),
+                        estado -> (root, query, cb) -> cb.equal(root.get("estado"), estado))
+                .con("instaladoDesde", filtro.getInstaladoDesde(),
+                        fecha -> (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDate>get("fechaInstalacion"), fecha))
+                .con("instaladoHasta", filtro.getInstaladoHasta(),
+                        fecha -> (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get("fechaInstalacion"), fecha))
+                .con("mantenimientoHasta", filtro.getMantenimientoHasta(),
+                        fecha -> (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get("fechaProximoMantenimiento"), fecha))
+                .conTexto("nombre", "nombre", filtro.getNombre())
+                .build();
+    }
+}
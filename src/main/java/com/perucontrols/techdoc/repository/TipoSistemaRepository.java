@@ -9,5 +9,4 @@ import java.util.List;
 @Repository
 public interface TipoSistemaRepository extends JpaRepository<TipoSistema, Long> {
     List<TipoSistema> findByCategoria(TipoSistema.CategoriaSistema categoria);
-    List<TipoSistema> findByNombreContaining(String nombre);
 }
\ No newline at end of file
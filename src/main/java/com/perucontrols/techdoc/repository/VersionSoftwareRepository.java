@@ -1,17 +1,44 @@
 package com.perucontrols.techdoc.repository;
 
+import com.perucontrols.techdoc.dto.VersionSoftwareResumenDTO;
 import com.perucontrols.techdoc.model.Sistema;
 import com.perucontrols.techdoc.model.VersionSoftware;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface VersionSoftwareRepository extends JpaRepository<VersionSoftware, Long> {
-    List<VersionSoftware> findBySistema(Sistema sistema);
+    String RESUMEN = "SELECT new com.perucontrols.techdoc.dto.VersionSoftwareResumenDTO(v.id, v.sistema.id, v.version, "
+            + "v.fechaInstalacion, v.compatibleCon, v.archivoInstalador, v.instaladoPor, v.estado, v.fechaFinSoporte) "
+            + "FROM VersionSoftware v";
+
     Optional<VersionSoftware> findBySistemaAndEstado(Sistema sistema, VersionSoftware.EstadoVersion estado);
-    List<VersionSoftware> findByFechaFinSoporteLessThanEqual(LocalDate fecha);
+    List<VersionSoftware> findBySistemaIdIn(Collection<Long> idsSistema);
+
+    @Query(RESUMEN + " ORDER BY v.id")
+    List<VersionSoftwareResumenDTO> findAllResumen();
+
+    @Query(RESUMEN + " WHERE v.sistema.id = :idSistema ORDER BY v.fechaInstalacion DESC")
+    List<VersionSoftwareResumenDTO> findResumenBySistemaId(@Param("idSistema") Long idSistema);
+
+    @Query(RESUMEN + " WHERE v.fechaFinSoporte <= :fecha ORDER BY v.fechaFinSoporte")
+    List<VersionSoftwareResumenDTO> findResumenByFechaFinSoporteLessThanEqual(@Param("fecha") LocalDate fecha);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM VersionSoftware v ORDER BY v.id")
+    Stream<VersionSoftware> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.perucontrols.techdoc.repository;
+
+import com.perucontrols.techdoc.dto.VersionSoftwareFiltro;
+import com.perucontrols.techdoc.model.VersionSoftware;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+public final class VersionSoftwareSpecifications {
+
+    /** Columnas de {@link com.perucontrols.techdoc.dto.VersionSoftwareResumenDTO}, en el orden de su constructor. */
+    public static final List<String> RESUMEN = List.of("id", "sistema.id", "version", "fechaInstalacion",
+            "compatibleCon", "archivoInstalador", "instaladoPor", "estado", "fechaFinSoporte");
+
+    private static final Set<String> INDEXADOS = Set.of("sistema", "instaladaDesde", "instaladaHasta", "finSoporteHasta");
+
+    private VersionSoftwareSpecifications() {
+    }
+
+    public static Specification<VersionSoftware> filtrar(VersionSoftwareFiltro filtro) {
+        return Filtros.<VersionSoftware>indexados(INDEXADOS)
+                .con("sistema", filtro.getSistema(),
+                        id -> (root, query, cb) -> cb.equal(root.get("sistema").get("id"), id))
+                .con("estado", filtro.getEstado(),
+                        estado -> (root, query, cb) -> cb.equal(root.get("estado"), estado))
+                .con("instaladaDesde", filtro.getInstaladaDesde(),
+                        fecha -> (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDate>get("fechaInstalacion"), fecha))
+                .con("instaladaHasta", filtro.getInstaladaHasta(),
+                        fecha -> (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get("fechaInstalacion"), fecha))
+                .con("finSoporteHasta", filtro.getFinSoporteHasta(),
+                        fecha -> (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get("fechaFinSoporte"), fecha))
+                .con("version", filtro.getVersion(),
+                        version -> (root, query, cb) -> cb.equal(root.get("version"), version))
+                .build();
+    }
+}
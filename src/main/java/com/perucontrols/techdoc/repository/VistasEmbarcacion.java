@@ -0,0 +1,87 @@
+package com.perucontrols.techdoc.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Acceso a {@code vistas_embarcacion} (documento jsonb por embarcación) y a su cola de
+ * reconstrucción {@code vistas_embarcacion_pendientes}, que llenan los triggers de V5.
+ */
+@Component
+@RequiredArgsConstructor
+public class VistasEmbarcacion {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Vista> buscar(Long idEmbarcacion) {
+        List<Vista> vistas = jdbcTemplate.query(
+                "SELECT documento::text, generado_en FROM vistas_embarcacion WHERE id_embarcacion = ?",
+                (rs, i) -> new Vista(rs.getString(1), rs.getTimestamp(2).toLocalDateTime()),
+                idEmbarcacion);
+        return vistas.stream().findFirst();
+    }
+
+    public LocalDateTime guardar(Long idEmbarcacion, String documento) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO vistas_embarcacion (id_embarcacion, documento, generado_en)
+                VALUES (?, ?::jsonb, clock_timestamp())
+                ON CONFLICT (id_embarcacion)
+                DO UPDATE SET documento = EXCLUDED.documento, generado_en = EXCLUDED.generado_en
+                RETURNING generado_en
+                """, Timestamp.class, idEmbarcacion, documento).toLocalDateTime();
+    }
+
+    public void borrar(Long idEmbarcacion) {
+        jdbcTemplate.update("DELETE FROM vistas_embarcacion WHERE id_embarcacion = ?", idEmbarcacion);
+    }
+
+    /**
+     * Saca de la cola la embarcación pendiente más antigua que no esté tomando otro nodo. Debe
+     * llamarse dentro de la transacción que reconstruye la vista: si esta falla, vuelve a la cola.
+     * Las {@code excluidas} (fallidas en este ciclo) se saltan.
+     */
+    public Optional<Long> tomarPendiente(Collection<Long> excluidas) {
+        String excluir = excluidas.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+        List<Long> ids = jdbcTemplate.queryForList("""
+                DELETE FROM vistas_embarcacion_pendientes
+                WHERE id_embarcacion = (
+                    SELECT id_embarcacion FROM vistas_embarcacion_pendientes
+                    WHERE id_embarcacion <> ALL (?::bigint[])
+                    ORDER BY marcado_en
+                    LIMIT 1
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING id_embarcacion
+                """, Long.class, excluir);
+        return ids.stream().findFirst();
+    }
+
+    public int encolarTodas() {
+        return jdbcTemplate.update("""
+                INSERT INTO vistas_embarcacion_pendientes (id_embarcacion)
+                SELECT id_embarcacion FROM embarcaciones
+                ON CONFLICT DO NOTHING
+                """);
+    }
+
+    /** Tamaño de la cola y antigüedad en segundos del cambio pendiente más antiguo. */
+    public Retraso retraso() {
+        return jdbcTemplate.queryForObject("""
+                SELECT count(*), COALESCE(EXTRACT(EPOCH FROM clock_timestamp()::timestamp - min(marcado_en)), 0)
+                FROM vistas_embarcacion_pendientes
+                """, (rs, i) -> new Retraso(rs.getLong(1), rs.getDouble(2)));
+    }
+
+    public record Vista(String documento, LocalDateTime generadoEn) {
+    }
+
+    public record Retraso(long pendientes, double segundos) {
+    }
+}
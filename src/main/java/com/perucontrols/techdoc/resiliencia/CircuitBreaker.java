@@ -0,0 +1,74 @@
+package com.perucontrols.techdoc.resiliencia;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuito sobre la base de datos. Tras {@code umbralFallos} fallos de disponibilidad seguidos
+ * se abre y las lecturas dejan de intentarlo durante {@code espera}; pasado ese tiempo deja
+ * pasar una sola consulta de prueba (semiabierto): si funciona se cierra, si no vuelve a abrirse.
+ */
+@Slf4j
+@Component
+public class CircuitBreaker {
+
+    public enum Estado {
+        CERRADO, ABIERTO, SEMIABIERTO
+    }
+
+    private final ResilienciaProperties properties;
+    private final AtomicInteger fallosSeguidos = new AtomicInteger();
+    private final AtomicBoolean pruebaEnCurso = new AtomicBoolean();
+    private volatile long abiertoHasta;
+    private volatile boolean abierto;
+
+    public CircuitBreaker(ResilienciaProperties properties) {
+        this.properties = properties;
+    }
+
+    /** Indica si la llamada puede ir a la base. Con el circuito semiabierto solo pasa una. */
+    public boolean permite() {
+        if (!abierto) {
+            return true;
+        }
+        if (System.nanoTime() - abiertoHasta < 0) {
+            return false;
+        }
+        return pruebaEnCurso.compareAndSet(false, true);
+    }
+
+    public void exito() {
+        fallosSeguidos.set(0);
+        if (abierto) {
+            abierto = false;
+            log.info("Base de datos disponible de nuevo; circuito cerrado");
+        }
+        pruebaEnCurso.set(false);
+    }
+
+    public void fallo(Throwable causa) {
+        int fallos = fallosSeguidos.incrementAndGet();
+        if (abierto || fallos >= properties.getUmbralFallos()) {
+            if (!abierto) {
+                log.warn("Circuito abierto tras {} fallos de base de datos: {}", fallos, causa.getMessage());
+            }
+            abiertoHasta = System.nanoTime() + properties.getEspera().toNanos();
+            abierto = true;
+        }
+        pruebaEnCurso.set(false);
+    }
+
+    public Estado getEstado() {
+        if (!abierto) {
+            return Estado.CERRADO;
+        }
+        return System.nanoTime() - abiertoHasta < 0 ? Estado.ABIERTO : Estado.SEMIABIERTO;
+    }
+
+    public long segundosHastaPrueba() {
+        return Math.max(0, (abiertoHasta - System.nanoTime()) / 1_000_000_000L);
+    }
+}
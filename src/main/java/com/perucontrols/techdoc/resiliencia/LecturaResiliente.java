@@ -0,0 +1,222 @@
+package com.perucontrols.techdoc.resiliencia;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.perucontrols.techdoc.exception.BaseDatosNoDisponibleException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lecturas con modo degradado (stale-while-revalidate) para cuando PostgreSQL no responde.
+ * <p>
+ * Cada lectura correcta guarda su resultado como última respuesta válida. Si la base falla por
+ * disponibilidad (sin conexión, pool agotado, consulta cancelada por timeout) o el
+ * {@link CircuitBreaker} está abierto, se devuelve esa respuesta y se marca la petición para que
+ * {@code RespuestaObsoletaAdvice} añada las cabeceras {@code X-Stale} y {@code Warning}. Las claves
+ * servidas así quedan pendientes y se vuelven a consultar en segundo plano cuando el circuito lo
+ * permite. Sin respuesta anterior se lanza {@link BaseDatosNoDisponibleException} (503).
+ * <p>
+ * Dentro de una transacción ya abierta no se degrada: una escritura no debe apoyarse en datos
+ * obsoletos.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ResilienciaProperties.class)
+public class LecturaResiliente {
+
+    /** Atributo de la petición con el instante de la respuesta obsoleta más antigua servida. */
+    public static final String ATRIBUTO_OBSOLETA = LecturaResiliente.class.getName() + ".obsoleta";
+
+    private final CircuitBreaker circuito;
+    private final ResilienciaProperties properties;
+    private final TransactionTemplate soloLectura;
+    private final TransactionTemplate primaria;
+    private final Cache<Object, Guardada> ultimas;
+    private final Set<Object> pendientes = ConcurrentHashMap.newKeySet();
+
+    public LecturaResiliente(CircuitBreaker circuito, ResilienciaProperties properties,
+                             PlatformTransactionManager transactionManager) {
+        this.circuito = circuito;
+        this.properties = properties;
+        this.soloLectura = new TransactionTemplate(transactionManager);
+        this.soloLectura.setReadOnly(true);
+        // Sin readOnly el enrutamiento la manda a la primaria
+        this.primaria = new TransactionTemplate(transactionManager);
+        this.ultimas = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getMaxObsolescencia())
+                .build();
+    }
+
+    /**
+     * Ejecuta {@code consulta} en una transacción de solo lectura; si la base no está disponible
+     * devuelve la última respuesta válida guardada con {@code clave}.
+     */
+    public <T> T leer(Object clave, Supplier<T> consulta) {
+        return leer(clave, consulta, false);
+    }
+
+    /**
+     * Como {@link #leer(Object, Supplier)}, pero con {@code deLaPrimaria} la consulta no va a una
+     * réplica: para lo que acaba de cambiar y una réplica atrasada aún no tendría.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T leer(Object clave, Supplier<T> consulta, boolean deLaPrimaria) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return consulta.get();
+        }
+        Guardada guardada = ultimas.getIfPresent(clave);
+        if (!circuito.permite()) {
+            return (T) obsoleta(clave, guardada, null);
+        }
+        try {
+            T valor = ejecutar(deLaPrimaria ? primaria : soloLectura, consulta);
+            ultimas.put(clave, new Guardada(valor, Instant.now(), consulta));
+            pendientes.remove(clave);
+            return valor;
+        } catch (RuntimeException e) {
+            if (!esIndisponibilidad(e)) {
+                throw e;
+            }
+            return (T) obsoleta(clave, guardada, e);
+        }
+    }
+
+    /** Ejecuta una consulta auxiliar (p. ej. la marca de un ETag) y devuelve vacío si la base no responde. */
+    public <T> Optional<T> intentar(Supplier<T> consulta) {
+        if (!circuito.permite()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(ejecutar(soloLectura, consulta));
+        } catch (RuntimeException e) {
+            if (!esIndisponibilidad(e)) {
+                throw e;
+            }
+            return Optional.empty();
+        }
+    }
+
+    public CircuitBreaker.Estado getEstado() {
+        return circuito.getEstado();
+    }
+
+    @Scheduled(fixedDelayString = "${techdoc.resiliencia.revalidacion-intervalo:10s}")
+    public void revalidar() {
+        int restantes = properties.getRevalidacionesPorCiclo();
+        Iterator<Object> claves = pendientes.iterator();
+        while (claves.hasNext() && restantes-- > 0) {
+            Object clave = claves.next();
+            Guardada guardada = ultimas.getIfPresent(clave);
+            if (guardada == null) {
+                claves.remove();
+                continue;
+            }
+            if (!circuito.permite()) {
+                return;
+            }
+            try {
+                Object valor = ejecutar(soloLectura, guardada.consulta());
+                ultimas.put(clave, new Guardada(valor, Instant.now(), guardada.consulta()));
+                claves.remove();
+            } catch (RuntimeException e) {
+                if (esIndisponibilidad(e)) {
+                    return;
+                }
+                // La clave ya no se puede recalcular (p. ej. el registro se borró): se descarta
+                log.debug("Revalidación descartada para {}: {}", clave, e.getMessage());
+                ultimas.invalidate(clave);
+                claves.remove();
+            }
+        }
+    }
+
+    private <T> T ejecutar(TransactionTemplate transaccion, Supplier<T> consulta) {
+        try {
+            T valor = transaccion.execute(status -> consulta.get());
+            circuito.exito();
+            return valor;
+        } catch (RuntimeException e) {
+            if (esIndisponibilidad(e)) {
+                circuito.fallo(e);
+            } else {
+                // La base respondió, aunque la consulta terminara en error
+                circuito.exito();
+            }
+            throw e;
+        }
+    }
+
+    private Object obsoleta(Object clave, Guardada guardada, RuntimeException causa) {
+        if (guardada == null) {
+            throw new BaseDatosNoDisponibleException("Base de datos no disponible temporalmente",
+                    Math.max(1, circuito.segundosHastaPrueba()), causa);
+        }
+        pendientes.add(clave);
+        marcarPeticion(guardada.instante());
+        log.warn("Sirviendo respuesta obsoleta de {} para {}", guardada.instante(), clave);
+        return guardada.valor();
+    }
+
+    private static void marcarPeticion(Instant instante) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return;
+        }
+        Instant actual = (Instant) atributos.getAttribute(ATRIBUTO_OBSOLETA, RequestAttributes.SCOPE_REQUEST);
+        if (actual == null || instante.isBefore(actual)) {
+            atributos.setAttribute(ATRIBUTO_OBSOLETA, instante, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /** Errores que indican que la base no está disponible o no responde a tiempo, no fallos de la consulta. */
+    public static boolean esIndisponibilidad(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof BaseDatosNoDisponibleException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof TransientDataAccessResourceException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof jakarta.persistence.QueryTimeoutException
+                    || t instanceof JDBCConnectionException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null) {
+                String estado = sql.getSQLState();
+                // 08: conexión; 57014: cancelada por statement_timeout; 57P01/57P03: servidor cerrándose o arrancando
+                if (estado.startsWith("08") || estado.equals("57014")
+                        || estado.equals("57P01") || estado.equals("57P03")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private record Guardada(Object valor, Instant instante, Supplier<?> consulta) {
+    }
+}
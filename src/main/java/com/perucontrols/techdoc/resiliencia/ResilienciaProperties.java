@@ -0,0 +1,29 @@
+package com.perucontrols.techdoc.resiliencia;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "techdoc.resiliencia")
+public class ResilienciaProperties {
+
+    /** Fallos de base de datos seguidos que abren el circuito. */
+    private int umbralFallos = 5;
+
+    /** Tiempo con el circuito abierto antes de dejar pasar una consulta de prueba. */
+    private Duration espera = Duration.ofSeconds(30);
+
+    /** Máximo de últimas respuestas válidas guardadas para servir en modo degradado. */
+    private long maximumSize = 20_000;
+
+    /** Antigüedad máxima de una respuesta servida como obsoleta. */
+    private Duration maxObsolescencia = Duration.ofHours(24);
+
+    /** Cada cuánto se intenta refrescar en segundo plano lo que se sirvió obsoleto. */
+    private Duration revalidacionIntervalo = Duration.ofSeconds(10);
+
+    /** Máximo de refrescos por ciclo, para no saturar una base que se está recuperando. */
+    private int revalidacionesPorCiclo = 100;
+}
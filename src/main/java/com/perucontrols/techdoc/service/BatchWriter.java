@@ -0,0 +1,83 @@
+package com.perucontrols.techdoc.service;
+
+import com.perucontrols.techdoc.exception.ResourceNotFoundException;
+import com.perucontrols.techdoc.model.Sistema;
+import com.perucontrols.techdoc.repository.SistemaRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Persiste lotes grandes de entidades en una sola transacción, vaciando y limpiando el
+ * contexto de persistencia cada {@code hibernate.jdbc.batch_size} filas para que Hibernate
+ * agrupe los INSERT en batches JDBC y la memoria no crezca con el tamaño del lote.
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchWriter {
+
+    public static final int MAX_LOTE = 5000;
+
+    private final EntityManager entityManager;
+    private final SistemaRepository sistemaRepository;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public void validarTamano(Collection<?> lote) {
+        if (lote == null || lote.isEmpty()) {
+            throw new IllegalArgumentException("El lote no puede estar vacío");
+        }
+        if (lote.size() > MAX_LOTE) {
+            throw new IllegalArgumentException(String.format(
+                    "El lote tiene %d elementos; el máximo permitido es %d", lote.size(), MAX_LOTE));
+        }
+    }
+
+    /**
+     * Verifica con una sola consulta que existan todos los sistemas referenciados y devuelve
+     * referencias (sin cargar las filas) para asignarlas a las entidades del lote.
+     */
+    public Map<Long, Sistema> referenciasSistema(Collection<Long> idsSistema) {
+        if (idsSistema.contains(null)) {
+            throw new IllegalArgumentException("Todos los elementos del lote deben indicar idSistema");
+        }
+        Set<Long> solicitados = new HashSet<>(idsSistema);
+        Set<Long> faltantes = new HashSet<>(solicitados);
+        sistemaRepository.findIdsByIdIn(solicitados).forEach(faltantes::remove);
+        if (!faltantes.isEmpty()) {
+            throw new ResourceNotFoundException("Sistemas no encontrados con ID: " + faltantes);
+        }
+        Map<Long, Sistema> referencias = new HashMap<>();
+        for (Long id : solicitados) {
+            referencias.put(id, sistemaRepository.getReferenceById(id));
+        }
+        return referencias;
+    }
+
+    public <E> List<Long> persistirTodos(List<E> entidades, Function<E, Long> id) {
+        List<Long> ids = new ArrayList<>(entidades.size());
+        int pendientes = 0;
+        for (E entidad : entidades) {
+            entityManager.persist(entidad);
+            ids.add(id.apply(entidad));
+            if (++pendientes % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+}
@@ -1,12 +1,20 @@
 package com.perucontrols.techdoc.service;
 
+import com.perucontrols.techdoc.cache.EntityCache;
+import com.perucontrols.techdoc.cache.ResultCache;
+import com.perucontrols.techdoc.cache.Tablas;
 import com.perucontrols.techdoc.dto.*;
-import com.perucontrols.techdoc.model.Componente;
-import com.perucontrols.techdoc.model.Sistema;
 import com.perucontrols.techdoc.exception.ResourceNotFoundException;
 import com.perucontrols.techdoc.mapper.ComponenteMapper;
+import com.perucontrols.techdoc.model.Componente;
+import com.perucontrols.techdoc.model.Sistema;
 import com.perucontrols.techdoc.repository.ComponenteRepository;
+import com.perucontrols.techdoc.repository.ComponenteSpecifications;
+import com.perucontrols.techdoc.repository.FiltroPaginator;
+import com.perucontrols.techdoc.repository.Filtros;
+import com.perucontrols.techdoc.repository.KeysetPaginator;
 import com.perucontrols.techdoc.repository.SistemaRepository;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -14,24 +22,39 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ComponenteService {
 
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "nombre");
+
     private final ComponenteRepository componenteRepository;
     private final SistemaRepository sistemaRepository;
     private final ComponenteMapper componenteMapper;
+    private final KeysetPaginator keysetPaginator;
+    private final FiltroPaginator filtroPaginator;
+    private final EntityStreamer entityStreamer;
+    private final BatchWriter batchWriter;
+    private final EntityCache<ComponenteDTO> componenteCache;
+    private final ResultCache resultCache;
+    private final LecturaResiliente lecturaResiliente;
 
-    @Transactional(readOnly = true)
-    public List<ComponenteDTO> getAllComponentes() {
+    public List<ComponenteResumenDTO> getAllComponentes() {
         log.info("Obteniendo todos los componentes");
-        return componenteRepository.findAll().stream()
-                .map(componenteMapper::toDTO)
-                .collect(Collectors.toList());
+        return lecturaResiliente.leer("componentes/todos", componenteRepository::findAllResumen);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAllComponentes(Consumer<ComponenteDTO> consumer) {
+        long total = entityStreamer.forEach(componenteRepository.streamAll(), componenteMapper::toDTO, consumer);
+        log.info("Exportación de componentes finalizada: {} registros", total);
     }
 
     @Transactional(readOnly = true)
@@ -44,12 +67,27 @@ public class ComponenteService {
     }
 
     @Transactional(readOnly = true)
+    public CursorPageResponse<ComponenteDTO> getAllComponentesCursor(CursorPageRequest request) {
+        return keysetPaginator.fetch(Componente.class, CURSOR_SORT_KEYS, request)
+                .map(componenteMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<ComponenteResumenDTO> filtrarComponentes(ComponenteFiltro filtro, Pageable pageable) {
+        log.info("Filtrando componentes: {}", filtro);
+        return PaginatedResponse.from(filtroPaginator.page(Componente.class, ComponenteSpecifications.filtrar(filtro),
+                pageable, ComponenteResumenDTO.class, ComponenteSpecifications.RESUMEN, CURSOR_SORT_KEYS));
+    }
+
     public ComponenteDTO getComponenteById(Long id) {
-        log.info("Buscando componente con ID: {}", id);
-        Componente componente = componenteRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                    String.format("Componente no encontrado con ID: %d", id)));
-        return componenteMapper.toDTO(componente);
+        log.debug("Buscando componente con ID: {}", id);
+        return componenteCache.get(id, this::cargarComponente);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MultiGetItem<ComponenteDTO>> getComponentesByIds(List<Long> ids) {
+        log.info("Buscando {} componentes por ID", ids.size());
+        return MultiGet.resolver(ids, componenteRepository::findAllById, Componente::getId, componenteMapper::toDTO);
     }
 
     @Transactional
@@ -66,26 +104,43 @@ public class ComponenteService {
         
         // Validar estado
         if (request.getEstado() != null) {
-            try {
-                Componente.EstadoComponente estado = 
-                    Componente.EstadoComponente.valueOf(request.getEstado().toUpperCase());
-                componente.setEstado(estado);
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException(
-                    String.format("Estado inválido: %s. Estados válidos: %s", 
-                        request.getEstado(), 
-                        java.util.Arrays.toString(Componente.EstadoComponente.values())));
-            }
+            componente.setEstado(parseEstado(request.getEstado()));
         }
         
         Componente savedComponente = componenteRepository.save(componente);
+        componenteCache.invalidar(savedComponente.getId());
         log.info("Componente creado exitosamente con ID: {}", savedComponente.getId());
         return componenteMapper.toDTO(savedComponente);
     }
 
+    @Transactional
+    public LoteResponse createComponentesLote(List<CreateComponenteRequest> requests) {
+        batchWriter.validarTamano(requests);
+        log.info("Creando lote de {} componentes", requests.size());
+
+        Map<Long, Sistema> sistemas = batchWriter.referenciasSistema(
+                requests.stream().map(CreateComponenteRequest::getIdSistema).toList());
+
+        List<Componente> componentes = new ArrayList<>(requests.size());
+        for (CreateComponenteRequest request : requests) {
+            Componente componente = componenteMapper.toEntity(request);
+            componente.setSistema(sistemas.get(request.getIdSistema()));
+            if (request.getEstado() != null) {
+                componente.setEstado(parseEstado(request.getEstado()));
+            }
+            componentes.add(componente);
+        }
+
+        List<Long> ids = batchWriter.persistirTodos(componentes, Componente::getId);
+        componenteCache.invalidar(ids);
+        log.info("Lote de componentes creado: {} registros", ids.size());
+        return new LoteResponse(ids.size(), ids);
+    }
+
     @Transactional
     public ComponenteDTO updateComponente(Long id, UpdateComponenteRequest request) {
         log.info("Actualizando componente con ID: {}", id);
+        componenteCache.invalidar(id);
         
         Componente componente = componenteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -105,16 +160,7 @@ public class ComponenteService {
         
         // Validar estado si se proporciona
         if (request.getEstado() != null) {
-            try {
-                Componente.EstadoComponente estado = 
-                    Componente.EstadoComponente.valueOf(request.getEstado().toUpperCase());
-                componente.setEstado(estado);
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException(
-                    String.format("Estado inválido: %s. Estados válidos: %s", 
-                        request.getEstado(), 
-                        java.util.Arrays.toString(Componente.EstadoComponente.values())));
-            }
+            componente.setEstado(parseEstado(request.getEstado()));
         }
         
         Componente updatedComponente = componenteRepository.save(componente);
@@ -132,55 +178,76 @@ public class ComponenteService {
         }
         
         componenteRepository.deleteById(id);
+        componenteCache.invalidar(id);
         log.info("Componente eliminado exitosamente: ID {}", id);
     }
 
-    @Transactional(readOnly = true)
-    public List<ComponenteDTO> getComponentesBySistema(Long idSistema) {
+    public List<ComponenteResumenDTO> getComponentesBySistema(Long idSistema) {
         log.info("Buscando componentes del sistema con ID: {}", idSistema);
-        
-        Sistema sistema = sistemaRepository.findById(idSistema)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                    String.format("Sistema no encontrado con ID: %d", idSistema)));
-        
-        return componenteRepository.findBySistema(sistema).stream()
-                .map(componenteMapper::toDTO)
-                .collect(Collectors.toList());
+        return resultCache.get("componentes/buscar/sistema", List.of(Tablas.COMPONENTES, Tablas.SISTEMAS), () -> {
+            verificarSistema(idSistema);
+
+            return componenteRepository.findResumenBySistemaId(idSistema);
+        }, idSistema);
     }
 
-    @Transactional(readOnly = true)
-    public List<ComponenteDTO> getComponentesBySistemaAndEstado(Long idSistema, String estadoStr) {
+    public List<ComponenteResumenDTO> getComponentesBySistemaAndEstado(Long idSistema, String estadoStr) {
         log.info("Buscando componentes del sistema {} con estado {}", idSistema, estadoStr);
-        
-        Sistema sistema = sistemaRepository.findById(idSistema)
+        return resultCache.get("componentes/buscar/sistema-estado", List.of(Tablas.COMPONENTES, Tablas.SISTEMAS), () -> {
+            verificarSistema(idSistema);
+
+            Componente.EstadoComponente estado = parseEstado(estadoStr);
+
+            return componenteRepository.findResumenBySistemaIdAndEstado(idSistema, estado);
+        }, idSistema, estadoStr);
+    }
+
+    public List<ComponenteResumenDTO> getComponentesByNombre(String nombre) {
+        log.info("Buscando componentes con nombre que contiene: {}", nombre);
+        return resultCache.get("componentes/buscar/nombre", List.of(Tablas.COMPONENTES), () -> {
+            if (nombre == null || nombre.trim().isEmpty()) {
+                throw new IllegalArgumentException("El nombre de búsqueda no puede estar vacío");
+            }
+
+            return buscarResumenes(nombre, Pageable.unpaged()).getContent();
+        }, nombre);
+    }
+
+    /** Nombre que contiene {@code q} sin distinguir mayúsculas ni tildes, los más parecidos primero. */
+    public PaginatedResponse<ComponenteResumenDTO> buscarComponentesPorNombre(String q, int page, int size) {
+        Pageable pageable = Filtros.busqueda(q, page, size);
+        String texto = q.trim();
+        return resultCache.get("componentes/buscar/nombre-paginado", List.of(Tablas.COMPONENTES),
+                () -> PaginatedResponse.from(buscarResumenes(texto, pageable)), texto, page, size);
+    }
+
+    private Page<ComponenteResumenDTO> buscarResumenes(String texto, Pageable pageable) {
+        return MultiGet.enOrden(componenteRepository.buscarIdsPorNombre(Filtros.escaparLike(texto), texto, pageable),
+                componenteRepository::findResumenByIdIn, ComponenteResumenDTO::getId);
+    }
+
+    private void verificarSistema(Long idSistema) {
+        if (!sistemaRepository.existsById(idSistema)) {
+            throw new ResourceNotFoundException(
+                String.format("Sistema no encontrado con ID: %d", idSistema));
+        }
+    }
+
+    private ComponenteDTO cargarComponente(Long id) {
+        Componente componente = componenteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
-                    String.format("Sistema no encontrado con ID: %d", idSistema)));
-        
-        Componente.EstadoComponente estado;
+                    String.format("Componente no encontrado con ID: %d", id)));
+        return componenteMapper.toDTO(componente);
+    }
+
+    private Componente.EstadoComponente parseEstado(String estado) {
         try {
-            estado = Componente.EstadoComponente.valueOf(estadoStr.toUpperCase());
+            return Componente.EstadoComponente.valueOf(estado.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(
                 String.format("Estado inválido: %s. Estados válidos: %s", 
-                    estadoStr, 
+                    estado, 
                     java.util.Arrays.toString(Componente.EstadoComponente.values())));
         }
-        
-        return componenteRepository.findBySistemaAndEstado(sistema, estado).stream()
-                .map(componenteMapper::toDTO)
-                .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public List<ComponenteDTO> getComponentesByNombre(String nombre) {
-        log.info("Buscando componentes con nombre que contiene: {}", nombre);
-        
-        if (nombre == null || nombre.trim().isEmpty()) {
-            throw new IllegalArgumentException("El nombre de búsqueda no puede estar vacío");
-        }
-        
-        return componenteRepository.findByNombreContaining(nombre).stream()
-                .map(componenteMapper::toDTO)
-                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -1,20 +1,38 @@
 package com.perucontrols.techdoc.service;
 
+import com.perucontrols.techdoc.cache.EntityCache;
+import com.perucontrols.techdoc.cache.ResultCache;
+import com.perucontrols.techdoc.cache.Tablas;
 import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.exception.ResourceNotFoundException;
 import com.perucontrols.techdoc.mapper.DocumentacionMapper;
 import com.perucontrols.techdoc.model.Documentacion;
 import com.perucontrols.techdoc.model.Sistema;
 import com.perucontrols.techdoc.repository.DocumentacionRepository;
+import com.perucontrols.techdoc.repository.DocumentacionRepository.ResultadoBusqueda;
+import com.perucontrols.techdoc.repository.DocumentacionSpecifications;
+import com.perucontrols.techdoc.repository.FiltroPaginator;
+import com.perucontrols.techdoc.repository.Filtros;
+import com.perucontrols.techdoc.repository.KeysetPaginator;
 import com.perucontrols.techdoc.repository.SistemaRepository;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,15 +40,36 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DocumentacionService {
 
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "titulo");
+    private static final int MAX_BUSQUEDA = 100;
+    private static final int MAX_FACETAS = 200;
+    private static final Pattern PAR_RESALTADO = Pattern.compile(
+            DocumentacionRepository.INICIO_RESALTADO + "([^" + DocumentacionRepository.INICIO_RESALTADO
+                    + DocumentacionRepository.FIN_RESALTADO + "]*)" + DocumentacionRepository.FIN_RESALTADO);
+    private static final Pattern MARCA_SUELTA = Pattern.compile(
+            "[" + DocumentacionRepository.INICIO_RESALTADO + DocumentacionRepository.FIN_RESALTADO + "]");
+
     private final DocumentacionRepository documentacionRepository;
     private final SistemaRepository sistemaRepository;
     private final DocumentacionMapper documentacionMapper;
+    private final KeysetPaginator keysetPaginator;
+    private final FiltroPaginator filtroPaginator;
+    private final EntityStreamer entityStreamer;
+    private final BatchWriter batchWriter;
+    private final EntityCache<DocumentacionDTO> documentacionCache;
+    private final ResultCache resultCache;
+    private final LecturaResiliente lecturaResiliente;
 
-    @Transactional(readOnly = true)
     public List<DocumentacionDTO> getAll() {
-        return documentacionRepository.findAll().stream()
+        return lecturaResiliente.leer("documentacion/todos", () -> documentacionRepository.findAll().stream()
                 .map(documentacionMapper::toDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<DocumentacionDTO> consumer) {
+        long total = entityStreamer.forEach(documentacionRepository.streamAll(), documentacionMapper::toDTO, consumer);
+        log.info("Exportación de documentos finalizada: {} registros", total);
     }
 
     @Transactional(readOnly = true)
@@ -41,10 +80,25 @@ public class DocumentacionService {
     }
 
     @Transactional(readOnly = true)
+    public CursorPageResponse<DocumentacionDTO> getAllCursor(CursorPageRequest request) {
+        return keysetPaginator.fetch(Documentacion.class, CURSOR_SORT_KEYS, request)
+                .map(documentacionMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<DocumentacionDTO> filtrar(DocumentacionFiltro filtro, Pageable pageable) {
+        normalizarEtiquetas(filtro);
+        return PaginatedResponse.from(filtroPaginator.page(Documentacion.class, DocumentacionSpecifications.filtrar(filtro),
+                pageable, DocumentacionDTO.class, DocumentacionSpecifications.COLUMNAS, CURSOR_SORT_KEYS));
+    }
+
     public DocumentacionDTO getById(Long id) {
-        Documentacion doc = documentacionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con ID: " + id));
-        return documentacionMapper.toDTO(doc);
+        return documentacionCache.get(id, this::cargarDocumento);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MultiGetItem<DocumentacionDTO>> getByIds(List<Long> ids) {
+        return MultiGet.resolver(ids, documentacionRepository::findAllById, Documentacion::getId, documentacionMapper::toDTO);
     }
 
     @Transactional
@@ -56,11 +110,33 @@ public class DocumentacionService {
         doc.setSistema(sistema);
 
         Documentacion saved = documentacionRepository.save(doc);
+        documentacionCache.invalidar(saved.getId());
         return documentacionMapper.toDTO(saved);
     }
 
+    @Transactional
+    public LoteResponse createLote(List<CreateDocumentacionRequest> requests) {
+        batchWriter.validarTamano(requests);
+        Map<Long, Sistema> sistemas = batchWriter.referenciasSistema(
+                requests.stream().map(CreateDocumentacionRequest::getIdSistema).toList());
+
+        List<Documentacion> docs = requests.stream()
+                .map(request -> {
+                    Documentacion doc = documentacionMapper.toEntity(request);
+                    doc.setSistema(sistemas.get(request.getIdSistema()));
+                    return doc;
+                })
+                .collect(Collectors.toList());
+
+        List<Long> ids = batchWriter.persistirTodos(docs, Documentacion::getId);
+        documentacionCache.invalidar(ids);
+        log.info("Lote de documentos creado: {} registros", ids.size());
+        return new LoteResponse(ids.size(), ids);
+    }
+
     @Transactional
     public DocumentacionDTO update(Long id, UpdateDocumentacionRequest request) {
+        documentacionCache.invalidar(id);
         Documentacion existing = documentacionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con ID: " + id));
 
@@ -81,36 +157,115 @@ public class DocumentacionService {
             throw new ResourceNotFoundException("Documento no encontrado con ID: " + id);
         }
         documentacionRepository.deleteById(id);
+        documentacionCache.invalidar(id);
     }
 
-    @Transactional(readOnly = true)
     public List<DocumentacionDTO> getBySistema(Long idSistema) {
-        Sistema sistema = sistemaRepository.findById(idSistema)
-                .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + idSistema));
+        return resultCache.get("documentacion/buscar/sistema", List.of(Tablas.DOCUMENTACION, Tablas.SISTEMAS), () -> {
+            Sistema sistema = sistemaRepository.findById(idSistema)
+                    .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + idSistema));
 
-        return documentacionRepository.findBySistema(sistema).stream()
-                .map(documentacionMapper::toDTO)
-                .collect(Collectors.toList());
+            return documentacionRepository.findBySistema(sistema).stream()
+                    .map(documentacionMapper::toDTO)
+                    .collect(Collectors.toList());
+        }, idSistema);
     }
 
-    @Transactional(readOnly = true)
     public List<DocumentacionDTO> getByTipo(Documentacion.TipoDocumento tipoDocumento) {
-        return documentacionRepository.findByTipoDocumento(tipoDocumento).stream()
-                .map(documentacionMapper::toDTO)
-                .collect(Collectors.toList());
+        return resultCache.get("documentacion/buscar/tipo", List.of(Tablas.DOCUMENTACION),
+                () -> documentacionRepository.findByTipoDocumento(tipoDocumento).stream()
+                    .map(documentacionMapper::toDTO)
+                    .collect(Collectors.toList()), tipoDocumento);
     }
 
-    @Transactional(readOnly = true)
     public List<DocumentacionDTO> getByTag(String tag) {
-        return documentacionRepository.findByTagsContaining(tag).stream()
-                .map(documentacionMapper::toDTO)
-                .collect(Collectors.toList());
+        return resultCache.get("documentacion/buscar/tag", List.of(Tablas.DOCUMENTACION),
+                () -> documentacionRepository.findByEtiqueta(tag.trim().toLowerCase(Locale.ROOT)).stream()
+                    .map(documentacionMapper::toDTO)
+                    .collect(Collectors.toList()), tag);
+    }
+
+    /** Recuento de documentos por etiqueta para el filtro (embarcación, sistema, tipo, título, etiquetas). */
+    public List<FacetaEtiquetaDTO> facetasEtiquetas(DocumentacionFiltro filtro, int limite) {
+        if (limite < 1 || limite > MAX_FACETAS) {
+            throw new IllegalArgumentException("El límite de etiquetas debe estar entre 1 y " + MAX_FACETAS);
+        }
+        normalizarEtiquetas(filtro);
+        String[] etiquetas = filtro.getEtiquetas() == null ? new String[0] : filtro.getEtiquetas().toArray(String[]::new);
+        String titulo = filtro.getTitulo() == null || filtro.getTitulo().isBlank() ? null : Filtros.escaparLike(filtro.getTitulo());
+        String tipo = filtro.getTipoDocumento() == null ? null : filtro.getTipoDocumento().name();
+        boolean todas = filtro.getModoEtiquetas() != DocumentacionFiltro.ModoEtiquetas.ALGUNA;
+        return resultCache.get("documentacion/etiquetas/facetas", List.of(Tablas.DOCUMENTACION, Tablas.SISTEMAS),
+                () -> documentacionRepository.contarEtiquetas(filtro.getEmbarcacion(), filtro.getSistema(), tipo, titulo,
+                                filtro.getTag(), etiquetas, todas, limite).stream()
+                        .map(f -> new FacetaEtiquetaDTO(f.getEtiqueta(), f.getTotal()))
+                        .toList(),
+                filtro.getEmbarcacion(), filtro.getSistema(), tipo, titulo, filtro.getTag(),
+                List.of(etiquetas), todas, limite);
     }
 
-    @Transactional(readOnly = true)
     public List<DocumentacionDTO> getByTitulo(String titulo) {
-        return documentacionRepository.findByTituloContaining(titulo).stream()
-                .map(documentacionMapper::toDTO)
-                .collect(Collectors.toList());
+        return resultCache.get("documentacion/buscar/titulo", List.of(Tablas.DOCUMENTACION),
+                () -> buscarDocumentos(titulo, Pageable.unpaged()).getContent(), titulo);
+    }
+
+    /** Título que contiene {@code q} sin distinguir mayúsculas ni tildes, los más parecidos primero. */
+    public PaginatedResponse<DocumentacionDTO> buscarPorTitulo(String q, int page, int size) {
+        Pageable pageable = Filtros.busqueda(q, page, size);
+        String texto = q.trim();
+        return resultCache.get("documentacion/buscar/titulo-paginado", List.of(Tablas.DOCUMENTACION),
+                () -> PaginatedResponse.from(buscarDocumentos(texto, pageable)), texto, page, size);
+    }
+
+    private Page<DocumentacionDTO> buscarDocumentos(String texto, Pageable pageable) {
+        return MultiGet.enOrden(documentacionRepository.buscarIdsPorTitulo(Filtros.escaparLike(texto), texto, pageable),
+                ids -> documentacionRepository.findAllById(ids).stream().map(documentacionMapper::toDTO).toList(),
+                DocumentacionDTO::getId);
+    }
+
+    /** Búsqueda de texto completo sobre título, tags, tipo y descripción, por relevancia. */
+    public PaginatedResponse<DocumentoEncontradoDTO> buscarTexto(String q, int page, int size) {
+        if (q == null || q.isBlank()) {
+            throw new IllegalArgumentException("El texto de búsqueda no puede estar vacío");
+        }
+        if (page < 0 || size < 1 || size > MAX_BUSQUEDA) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_BUSQUEDA);
+        }
+        String texto = q.trim();
+        return resultCache.get("documentacion/buscar/texto", List.of(Tablas.DOCUMENTACION), () -> {
+            Page<ResultadoBusqueda> resultados = documentacionRepository.buscarTexto(texto, PageRequest.of(page, size));
+            Map<Long, DocumentacionDTO> documentos = documentacionRepository
+                    .findAllById(resultados.map(ResultadoBusqueda::getId).getContent()).stream()
+                    .map(documentacionMapper::toDTO)
+                    .collect(Collectors.toMap(DocumentacionDTO::getId, Function.identity()));
+            return PaginatedResponse.from(resultados.map(r -> new DocumentoEncontradoDTO(
+                    documentos.get(r.getId()), r.getRelevancia(), resaltado(r.getTituloResaltado()), resaltado(r.getFragmento()))));
+        }, texto, page, size);
+    }
+
+    /**
+     * Escapa el texto guardado como HTML y solo después cambia las marcas de ts_headline por
+     * {@code <mark>}; una marca suelta se descarta para no dejar etiquetas sin cerrar.
+     */
+    static String resaltado(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String escapado = HtmlUtils.htmlEscape(texto, StandardCharsets.UTF_8.name());
+        return MARCA_SUELTA.matcher(PAR_RESALTADO.matcher(escapado).replaceAll("<mark>$1</mark>")).replaceAll("");
+    }
+
+    /** Las etiquetas se guardan normalizadas; el filtro se compara en la misma forma. */
+    private static void normalizarEtiquetas(DocumentacionFiltro filtro) {
+        if (filtro.getTag() != null) {
+            filtro.setTag(filtro.getTag().isBlank() ? null : filtro.getTag().trim().toLowerCase(Locale.ROOT));
+        }
+        filtro.setEtiquetas(DocumentacionMapper.normalizarEtiquetas(filtro.getEtiquetas()));
+    }
+
+    private DocumentacionDTO cargarDocumento(Long id) {
+        Documentacion doc = documentacionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con ID: " + id));
+        return documentacionMapper.toDTO(doc);
     }
 }
@@ -0,0 +1,88 @@
+package com.perucontrols.techdoc.service;
+
+import com.perucontrols.techdoc.dto.*;
+import com.perucontrols.techdoc.exception.ResourceNotFoundException;
+import com.perucontrols.techdoc.mapper.*;
+import com.perucontrols.techdoc.model.Embarcacion;
+import com.perucontrols.techdoc.model.Sistema;
+import com.perucontrols.techdoc.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Arma el árbol completo de una embarcación (sistemas y todo lo que cuelga de ellos)
+ * con una consulta {@code IN (...)} por tabla hija, sin importar cuántos sistemas tenga.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmbarcacionArbolService {
+
+    private final EmbarcacionRepository embarcacionRepository;
+    private final SistemaRepository sistemaRepository;
+    private final ComponenteRepository componenteRepository;
+    private final DocumentacionRepository documentacionRepository;
+    private final VersionSoftwareRepository versionSoftwareRepository;
+    private final MantenimientoRepository mantenimientoRepository;
+    private final EspecificacionTecnicaRepository especificacionTecnicaRepository;
+    private final EmbarcacionMapper embarcacionMapper;
+    private final SistemaMapper sistemaMapper;
+    private final ComponenteMapper componenteMapper;
+    private final DocumentacionMapper documentacionMapper;
+    private final VersionSoftwareMapper versionSoftwareMapper;
+    private final MantenimientoMapper mantenimientoMapper;
+    private final EspecificacionTecnicaMapper especificacionTecnicaMapper;
+
+    @Transactional(readOnly = true)
+    public EmbarcacionArbolDTO getArbol(Long idEmbarcacion) {
+        Embarcacion embarcacion = embarcacionRepository.findById(idEmbarcacion)
+                .orElseThrow(() -> new ResourceNotFoundException("Embarcación no encontrada con ID: " + idEmbarcacion));
+
+        List<Sistema> sistemas = sistemaRepository.findByEmbarcacion(embarcacion);
+        if (sistemas.isEmpty()) {
+            return new EmbarcacionArbolDTO(embarcacionMapper.toDTO(embarcacion), Collections.emptyList());
+        }
+
+        List<Long> idsSistema = sistemas.stream().map(Sistema::getId).toList();
+        log.info("Armando árbol de la embarcación {} con {} sistemas", idEmbarcacion, idsSistema.size());
+
+        Map<Long, List<ComponenteDTO>> componentes = agrupar(
+                componenteRepository.findBySistemaIdIn(idsSistema), componenteMapper::toDTO, ComponenteDTO::getIdSistema);
+        Map<Long, List<DocumentacionDTO>> documentacion = agrupar(
+                documentacionRepository.findBySistemaIdIn(idsSistema), documentacionMapper::toDTO, DocumentacionDTO::getIdSistema);
+        Map<Long, List<VersionSoftwareDTO>> versiones = agrupar(
+                versionSoftwareRepository.findBySistemaIdIn(idsSistema), versionSoftwareMapper::toDTO, VersionSoftwareDTO::getIdSistema);
+        Map<Long, List<MantenimientoDTO>> mantenimientos = agrupar(
+                mantenimientoRepository.findBySistemaIdInOrderByFechaInicioDesc(idsSistema), mantenimientoMapper::toDTO, MantenimientoDTO::getIdSistema);
+        Map<Long, EspecificacionTecnicaDTO> especificaciones = especificacionTecnicaRepository.findBySistemaIdIn(idsSistema)
+                .stream()
+                .map(especificacionTecnicaMapper::toDTO)
+                .collect(Collectors.toMap(EspecificacionTecnicaDTO::getIdSistema, Function.identity(), (a, b) -> a));
+
+        List<SistemaArbolDTO> ramas = sistemas.stream()
+                .map(sistema -> new SistemaArbolDTO(
+                        sistemaMapper.toDTO(sistema),
+                        especificaciones.get(sistema.getId()),
+                        componentes.getOrDefault(sistema.getId(), Collections.emptyList()),
+                        documentacion.getOrDefault(sistema.getId(), Collections.emptyList()),
+                        versiones.getOrDefault(sistema.getId(), Collections.emptyList()),
+                        mantenimientos.getOrDefault(sistema.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+
+        return new EmbarcacionArbolDTO(embarcacionMapper.toDTO(embarcacion), ramas);
+    }
+
+    private static <E, D> Map<Long, List<D>> agrupar(List<E> entidades, Function<E, D> toDTO, Function<D, Long> idSistema) {
+        return entidades.stream()
+                .map(toDTO)
+                .collect(Collectors.groupingBy(idSistema));
+    }
+}
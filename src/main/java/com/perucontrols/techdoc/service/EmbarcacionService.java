@@ -1,10 +1,16 @@
 package com.perucontrols.techdoc.service;
 
+import com.perucontrols.techdoc.cache.EntityCache;
+import com.perucontrols.techdoc.cache.ResultCache;
+import com.perucontrols.techdoc.cache.SingleFlight;
+import com.perucontrols.techdoc.cache.Tablas;
 import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.exception.ResourceNotFoundException;
 import com.perucontrols.techdoc.mapper.EmbarcacionMapper;
 import com.perucontrols.techdoc.model.Embarcacion;
 import com.perucontrols.techdoc.repository.EmbarcacionRepository;
+import com.perucontrols.techdoc.repository.KeysetPaginator;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -13,6 +19,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,14 +28,29 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EmbarcacionService {
 
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "nombre",
+            "totalSistemas", "totalComponentes", "totalDocumentos", "mantenimientosAbiertos");
+
     private final EmbarcacionRepository embarcacionRepository;
     private final EmbarcacionMapper embarcacionMapper;
+    private final KeysetPaginator keysetPaginator;
+    private final EntityStreamer entityStreamer;
+    private final EntityCache<EmbarcacionDTO> embarcacionCache;
+    private final ResultCache resultCache;
+    private final SingleFlight singleFlight;
+    private final LecturaResiliente lecturaResiliente;
 
-    @Transactional(readOnly = true)
     public List<EmbarcacionDTO> getAll() {
-        return embarcacionRepository.findAll().stream()
-                .map(embarcacionMapper::toDTO)
-                .collect(Collectors.toList());
+        return lecturaResiliente.leer("embarcaciones/todas",
+                () -> singleFlight.ejecutar("embarcaciones/todas", () -> embarcacionRepository.findAll().stream()
+                        .map(embarcacionMapper::toDTO)
+                        .collect(Collectors.toList())));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<EmbarcacionDTO> consumer) {
+        long total = entityStreamer.forEach(embarcacionRepository.streamAll(), embarcacionMapper::toDTO, consumer);
+        log.info("Exportación de embarcaciones finalizada: {} registros", total);
     }
 
     @Transactional(readOnly = true)
@@ -38,21 +61,38 @@ public class EmbarcacionService {
     }
 
     @Transactional(readOnly = true)
+    public CursorPageResponse<EmbarcacionDTO> getAllCursor(CursorPageRequest request) {
+        return keysetPaginator.fetch(Embarcacion.class, CURSOR_SORT_KEYS, request)
+                .map(embarcacionMapper::toDTO);
+    }
+
     public EmbarcacionDTO getById(Long id) {
-        Embarcacion embarcacion = embarcacionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Embarcación no encontrada con ID: " + id));
-        return embarcacionMapper.toDTO(embarcacion);
+        return embarcacionCache.get(id, key -> embarcacionMapper.toDTO(embarcacionRepository.findById(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Embarcación no encontrada con ID: " + key))));
+    }
+
+    /** Carga en la caché las embarcaciones activas, las más consultadas; lo usa el calentamiento al arrancar. */
+    @Transactional(readOnly = true)
+    public int precargarActivas() {
+        long marca = embarcacionCache.marca();
+        List<EmbarcacionDTO> activas = embarcacionRepository.findByEstado(Embarcacion.EstadoEmbarcacion.ACTIVO).stream()
+                .map(embarcacionMapper::toDTO)
+                .toList();
+        embarcacionCache.precargar(marca, activas, EmbarcacionDTO::getId);
+        return activas.size();
     }
 
     @Transactional
     public EmbarcacionDTO create(CreateEmbarcacionRequest request) {
         Embarcacion embarcacion = embarcacionMapper.toEntity(request);
         Embarcacion saved = embarcacionRepository.save(embarcacion);
+        embarcacionCache.invalidar(saved.getId());
         return embarcacionMapper.toDTO(saved);
     }
 
     @Transactional
     public EmbarcacionDTO update(Long id, UpdateEmbarcacionRequest request) {
+        embarcacionCache.invalidar(id);
         Embarcacion existing = embarcacionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Embarcación no encontrada con ID: " + id));
 
@@ -75,26 +115,28 @@ public class EmbarcacionService {
             throw new ResourceNotFoundException("Embarcación no encontrada con ID: " + id);
         }
         embarcacionRepository.deleteById(id);
+        embarcacionCache.invalidar(id);
     }
 
-    @Transactional(readOnly = true)
     public EmbarcacionDTO getByMatricula(String matricula) {
-        Embarcacion embarcacion = embarcacionRepository.findByMatricula(matricula)
-                .orElseThrow(() -> new ResourceNotFoundException("Embarcación no encontrada con matrícula: " + matricula));
-        return embarcacionMapper.toDTO(embarcacion);
+        return resultCache.get("embarcaciones/buscar/matricula", List.of(Tablas.EMBARCACIONES), () -> {
+            Embarcacion embarcacion = embarcacionRepository.findByMatricula(matricula)
+                    .orElseThrow(() -> new ResourceNotFoundException("Embarcación no encontrada con matrícula: " + matricula));
+            return embarcacionMapper.toDTO(embarcacion);
+        }, matricula);
     }
 
-    @Transactional(readOnly = true)
     public List<EmbarcacionDTO> getByEmpresa(String empresa) {
-        return embarcacionRepository.findByEmpresaPropietaria(empresa).stream()
-                .map(embarcacionMapper::toDTO)
-                .collect(Collectors.toList());
+        return resultCache.get("embarcaciones/buscar/empresa", List.of(Tablas.EMBARCACIONES),
+                () -> embarcacionRepository.findByEmpresaPropietaria(empresa).stream()
+                    .map(embarcacionMapper::toDTO)
+                    .collect(Collectors.toList()), empresa);
     }
 
-    @Transactional(readOnly = true)
     public List<EmbarcacionDTO> getByEstado(Embarcacion.EstadoEmbarcacion estado) {
-        return embarcacionRepository.findByEstado(estado).stream()
-                .map(embarcacionMapper::toDTO)
-                .collect(Collectors.toList());
+        return resultCache.get("embarcaciones/buscar/estado", List.of(Tablas.EMBARCACIONES),
+                () -> embarcacionRepository.findByEstado(estado).stream()
+                    .map(embarcacionMapper::toDTO)
+                    .collect(Collectors.toList()), estado);
     }
 }
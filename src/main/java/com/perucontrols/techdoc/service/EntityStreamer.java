@@ -0,0 +1,38 @@
+package com.perucontrols.techdoc.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Recorre un {@link Stream} de entidades abierto sobre un cursor JDBC, entregando cada DTO al
+ * consumidor y limpiando el contexto de persistencia cada {@link #CLEAR_INTERVAL} filas para
+ * que la memoria no crezca con el tamaño de la tabla. Debe llamarse dentro de una transacción.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityStreamer {
+
+    static final int CLEAR_INTERVAL = 500;
+
+    private final EntityManager entityManager;
+
+    public <E, D> long forEach(Stream<E> entities, Function<E, D> toDTO, Consumer<D> consumer) {
+        long count = 0;
+        try (entities) {
+            Iterator<E> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(toDTO.apply(iterator.next()));
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
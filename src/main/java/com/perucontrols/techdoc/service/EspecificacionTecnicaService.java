@@ -1,5 +1,8 @@
 package com.perucontrols.techdoc.service;
 
+import com.perucontrols.techdoc.cache.EntityCache;
+import com.perucontrols.techdoc.cache.ResultCache;
+import com.perucontrols.techdoc.cache.Tablas;
 import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.exception.ResourceNotFoundException;
 import com.perucontrols.techdoc.mapper.EspecificacionTecnicaMapper;
@@ -7,6 +10,7 @@ import com.perucontrols.techdoc.model.EspecificacionTecnica;
 import com.perucontrols.techdoc.model.Sistema;
 import com.perucontrols.techdoc.repository.EspecificacionTecnicaRepository;
 import com.perucontrols.techdoc.repository.SistemaRepository;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -23,19 +28,26 @@ public class EspecificacionTecnicaService {
     private final EspecificacionTecnicaRepository repository;
     private final SistemaRepository sistemaRepository;
     private final EspecificacionTecnicaMapper mapper;
+    private final EntityStreamer entityStreamer;
+    private final EntityCache<EspecificacionTecnicaDTO> cache;
+    private final ResultCache resultCache;
+    private final LecturaResiliente lecturaResiliente;
 
-    @Transactional(readOnly = true)
     public List<EspecificacionTecnicaDTO> getAll() {
-        return repository.findAll().stream()
+        return lecturaResiliente.leer("especificaciones/todas", () -> repository.findAll().stream()
                 .map(mapper::toDTO)
-                .toList();
+                .toList());
     }
 
     @Transactional(readOnly = true)
+    public void exportAll(Consumer<EspecificacionTecnicaDTO> consumer) {
+        long total = entityStreamer.forEach(repository.streamAll(), mapper::toDTO, consumer);
+        log.info("Exportación de especificaciones técnicas finalizada: {} registros", total);
+    }
+
     public EspecificacionTecnicaDTO getById(Long id) {
-        EspecificacionTecnica entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Especificación no encontrada con ID: " + id));
-        return mapper.toDTO(entity);
+        return cache.get(id, key -> mapper.toDTO(repository.findById(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Especificación no encontrada con ID: " + key))));
     }
 
     @Transactional
@@ -61,11 +73,14 @@ public class EspecificacionTecnicaService {
         entity.setCertificaciones(request.getCertificaciones());
         entity.setRequisitosEspeciales(request.getRequisitosEspeciales());
 
-        return mapper.toDTO(repository.save(entity));
+        EspecificacionTecnica saved = repository.save(entity);
+        cache.invalidar(saved.getId());
+        return mapper.toDTO(saved);
     }
 
     @Transactional
     public EspecificacionTecnicaDTO update(Long id, UpdateEspecificacionTecnicaRequest request) {
+        cache.invalidar(id);
         EspecificacionTecnica entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Especificación no encontrada con ID: " + id));
 
@@ -78,16 +93,18 @@ public class EspecificacionTecnicaService {
         if (!repository.existsById(id))
             throw new ResourceNotFoundException("Especificación no encontrada con ID: " + id);
         repository.deleteById(id);
+        cache.invalidar(id);
     }
 
-    @Transactional(readOnly = true)
     public EspecificacionTecnicaDTO getBySistema(Long sistemaId) {
-        Sistema sistema = sistemaRepository.findById(sistemaId)
-                .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + sistemaId));
+        return resultCache.get("especificaciones/buscar/sistema", List.of(Tablas.ESPECIFICACIONES_TECNICAS, Tablas.SISTEMAS), () -> {
+            Sistema sistema = sistemaRepository.findById(sistemaId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + sistemaId));
 
-        EspecificacionTecnica entity = repository.findBySistema(sistema)
-                .orElseThrow(() -> new ResourceNotFoundException("No existe especificación técnica para el sistema"));
+            EspecificacionTecnica entity = repository.findBySistema(sistema)
+                    .orElseThrow(() -> new ResourceNotFoundException("No existe especificación técnica para el sistema"));
 
-        return mapper.toDTO(entity);
+            return mapper.toDTO(entity);
+        }, sistemaId);
     }
 }
@@ -1,12 +1,19 @@
 package com.perucontrols.techdoc.service;
 
+import com.perucontrols.techdoc.cache.EntityCache;
+import com.perucontrols.techdoc.cache.ResultCache;
+import com.perucontrols.techdoc.cache.Tablas;
 import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.exception.ResourceNotFoundException;
 import com.perucontrols.techdoc.mapper.MantenimientoMapper;
 import com.perucontrols.techdoc.model.Mantenimiento;
 import com.perucontrols.techdoc.model.Sistema;
+import com.perucontrols.techdoc.repository.FiltroPaginator;
+import com.perucontrols.techdoc.repository.KeysetPaginator;
 import com.perucontrols.techdoc.repository.MantenimientoRepository;
+import com.perucontrols.techdoc.repository.MantenimientoSpecifications;
 import com.perucontrols.techdoc.repository.SistemaRepository;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -16,21 +23,36 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MantenimientoService {
 
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "fechaInicio");
+
     private final MantenimientoRepository repository;
     private final SistemaRepository sistemaRepository;
     private final MantenimientoMapper mapper;
+    private final KeysetPaginator keysetPaginator;
+    private final FiltroPaginator filtroPaginator;
+    private final EntityStreamer entityStreamer;
+    private final BatchWriter batchWriter;
+    private final EntityCache<MantenimientoDTO> cache;
+    private final ResultCache resultCache;
+    private final LecturaResiliente lecturaResiliente;
+
+    public List<MantenimientoResumenDTO> getAll() {
+        return lecturaResiliente.leer("mantenimientos/todos", repository::findAllResumen);
+    }
 
     @Transactional(readOnly = true)
-    public List<MantenimientoDTO> getAll() {
-        return repository.findAll().stream()
-                .map(mapper::toDTO)
-                .toList();
+    public void exportAll(Consumer<MantenimientoDTO> consumer) {
+        long total = entityStreamer.forEach(repository.streamAll(), mapper::toDTO, consumer);
+        log.info("Exportación de mantenimientos finalizada: {} registros", total);
     }
 
     @Transactional(readOnly = true)
@@ -41,9 +63,25 @@ public class MantenimientoService {
     }
 
     @Transactional(readOnly = true)
+    public CursorPageResponse<MantenimientoDTO> getAllCursor(CursorPageRequest request) {
+        return keysetPaginator.fetch(Mantenimiento.class, CURSOR_SORT_KEYS, request)
+                .map(mapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<MantenimientoResumenDTO> filtrar(MantenimientoFiltro filtro, Pageable pageable) {
+        return PaginatedResponse.from(filtroPaginator.page(Mantenimiento.class, MantenimientoSpecifications.filtrar(filtro),
+                pageable, MantenimientoResumenDTO.class, MantenimientoSpecifications.RESUMEN, CURSOR_SORT_KEYS));
+    }
+
     public MantenimientoDTO getById(Long id) {
-        return mapper.toDTO(repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Mantenimiento no encontrado: " + id)));
+        return cache.get(id, key -> mapper.toDTO(repository.findById(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Mantenimiento no encontrado: " + key))));
+    }
+
+    @Transactional(readOnly = true)
+    public List<MultiGetItem<MantenimientoDTO>> getByIds(List<Long> ids) {
+        return MultiGet.resolver(ids, repository::findAllById, Mantenimiento::getId, mapper::toDTO);
     }
 
     @Transactional
@@ -51,25 +89,40 @@ public class MantenimientoService {
         Sistema sistema = sistemaRepository.findById(request.getIdSistema())
                 .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado: " + request.getIdSistema()));
 
-        Mantenimiento entity = new Mantenimiento();
+        Mantenimiento entity = mapper.toEntity(request);
         entity.setSistema(sistema);
-        entity.setTipo(request.getTipo());
-        entity.setFechaInicio(request.getFechaInicio());
-        entity.setFechaFin(request.getFechaFin());
-        entity.setEstado(request.getEstado());
-        entity.setRealizadoPor(request.getRealizadoPor());
-        entity.setDescripcion(request.getDescripcion());
-        entity.setHallazgos(request.getHallazgos());
-        entity.setRecomendaciones(request.getRecomendaciones());
-        entity.setFechaProximoMantenimiento(request.getFechaProximoMantenimiento());
-        entity.setCosto(request.getCosto());
-        entity.setTiempoInactividad(request.getTiempoInactividad());
 
-        return mapper.toDTO(repository.save(entity));
+        Mantenimiento saved = repository.save(entity);
+        cache.invalidar(saved.getId());
+        return mapper.toDTO(saved);
+    }
+
+    @Transactional
+    public LoteResponse createLote(List<CreateMantenimientoRequest> requests) {
+        batchWriter.validarTamano(requests);
+        Map<Long, Sistema> sistemas = batchWriter.referenciasSistema(
+                requests.stream().map(CreateMantenimientoRequest::getIdSistema).toList());
+
+        List<Mantenimiento> entities = requests.stream()
+                .map(request -> {
+                    if (request.getFechaInicio() == null || request.getRealizadoPor() == null) {
+                        throw new IllegalArgumentException("fechaInicio y realizadoPor son obligatorios en cada mantenimiento");
+                    }
+                    Mantenimiento entity = mapper.toEntity(request);
+                    entity.setSistema(sistemas.get(request.getIdSistema()));
+                    return entity;
+                })
+                .toList();
+
+        List<Long> ids = batchWriter.persistirTodos(entities, Mantenimiento::getId);
+        cache.invalidar(ids);
+        log.info("Lote de mantenimientos creado: {} registros", ids.size());
+        return new LoteResponse(ids.size(), ids);
     }
 
     @Transactional
     public MantenimientoDTO update(Long id, UpdateMantenimientoRequest request) {
+        cache.invalidar(id);
         Mantenimiento entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Mantenimiento no encontrado: " + id));
         mapper.updateEntity(entity, request);
@@ -81,37 +134,32 @@ public class MantenimientoService {
         if (!repository.existsById(id))
             throw new ResourceNotFoundException("Mantenimiento no encontrado: " + id);
         repository.deleteById(id);
+        cache.invalidar(id);
     }
 
-    @Transactional(readOnly = true)
-    public List<MantenimientoDTO> getBySistema(Long idSistema) {
-        Sistema sistema = sistemaRepository.findById(idSistema)
-                .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado: " + idSistema));
-        return repository.findBySistema(sistema).stream()
-                .map(mapper::toDTO)
-                .toList();
+    public List<MantenimientoResumenDTO> getBySistema(Long idSistema) {
+        return resultCache.get("mantenimientos/buscar/sistema", List.of(Tablas.MANTENIMIENTOS, Tablas.SISTEMAS), () -> {
+            if (!sistemaRepository.existsById(idSistema))
+                throw new ResourceNotFoundException("Sistema no encontrado: " + idSistema);
+            return repository.findResumenBySistemaId(idSistema);
+        }, idSistema);
     }
 
-    @Transactional(readOnly = true)
-    public List<MantenimientoDTO> getBySistemaAndEstado(Long idSistema, Mantenimiento.EstadoMantenimiento estado) {
-        Sistema sistema = sistemaRepository.findById(idSistema)
-                .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado: " + idSistema));
-        return repository.findBySistemaAndEstado(sistema, estado).stream()
-                .map(mapper::toDTO)
-                .toList();
+    public List<MantenimientoResumenDTO> getBySistemaAndEstado(Long idSistema, Mantenimiento.EstadoMantenimiento estado) {
+        return resultCache.get("mantenimientos/buscar/sistema-estado", List.of(Tablas.MANTENIMIENTOS, Tablas.SISTEMAS), () -> {
+            if (!sistemaRepository.existsById(idSistema))
+                throw new ResourceNotFoundException("Sistema no encontrado: " + idSistema);
+            return repository.findResumenBySistemaIdAndEstado(idSistema, estado);
+        }, idSistema, estado);
     }
 
-    @Transactional(readOnly = true)
-    public List<MantenimientoDTO> getByRangoFechas(LocalDateTime inicio, LocalDateTime fin) {
-        return repository.findByFechaInicioAfterAndFechaInicioBefore(inicio, fin).stream()
-                .map(mapper::toDTO)
-                .toList();
+    public List<MantenimientoResumenDTO> getByRangoFechas(LocalDateTime inicio, LocalDateTime fin) {
+        return resultCache.get("mantenimientos/buscar/fechas", List.of(Tablas.MANTENIMIENTOS),
+                () -> repository.findResumenByFechaInicioBetween(inicio, fin), inicio, fin);
     }
 
-    @Transactional(readOnly = true)
-    public List<MantenimientoDTO> getByTipo(Mantenimiento.TipoMantenimiento tipo) {
-        return repository.findByTipo(tipo).stream()
-                .map(mapper::toDTO)
-                .toList();
+    public List<MantenimientoResumenDTO> getByTipo(Mantenimiento.TipoMantenimiento tipo) {
+        return resultCache.get("mantenimientos/buscar/tipo", List.of(Tablas.MANTENIMIENTOS),
+                () -> repository.findResumenByTipo(tipo), tipo);
     }
 }
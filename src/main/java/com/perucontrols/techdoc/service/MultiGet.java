@@ -0,0 +1,71 @@
+package com.perucontrols.techdoc.service;
+
+import com.perucontrols.techdoc.dto.MultiGetItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resuelve una lista de ids con una sola consulta {@code WHERE id IN (...)} y devuelve un
+ * elemento por id solicitado, en el mismo orden de la petición.
+ */
+public final class MultiGet {
+
+    public static final int MAX_IDS = 500;
+
+    private MultiGet() {
+    }
+
+    public static <E, D> List<MultiGetItem<D>> resolver(List<Long> ids,
+                                                        Function<Collection<Long>, List<E>> buscar,
+                                                        Function<E, Long> idDe,
+                                                        Function<E, D> toDTO) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un id");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("La lista de ids contiene valores vacíos");
+        }
+        Set<Long> distintos = new LinkedHashSet<>(ids);
+        if (distintos.size() > MAX_IDS) {
+            throw new IllegalArgumentException(String.format(
+                    "Se pidieron %d ids; el máximo permitido es %d", distintos.size(), MAX_IDS));
+        }
+
+        Map<Long, D> encontrados = new HashMap<>();
+        for (E entity : buscar.apply(distintos)) {
+            encontrados.put(idDe.apply(entity), toDTO.apply(entity));
+        }
+
+        List<MultiGetItem<D>> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            D dto = encontrados.get(id);
+            resultado.add(new MultiGetItem<>(id, dto != null, dto));
+        }
+        return resultado;
+    }
+
+    /**
+     * Carga con una sola consulta los elementos de una página de ids (p. ej. ordenada por relevancia)
+     * y los devuelve en ese orden. Un id borrado entre ambas consultas simplemente no aparece.
+     */
+    public static <D> Page<D> enOrden(Page<Long> ids, Function<Collection<Long>, List<D>> buscar, Function<D, Long> idDe) {
+        Map<Long, D> encontrados = new HashMap<>();
+        if (ids.hasContent()) {
+            for (D dto : buscar.apply(ids.getContent())) {
+                encontrados.put(idDe.apply(dto), dto);
+            }
+        }
+        List<D> contenido = ids.getContent().stream().map(encontrados::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(contenido, ids.getPageable(), ids.getTotalElements());
+    }
+}
@@ -0,0 +1,133 @@
+package com.perucontrols.techdoc.service;
+
+import com.perucontrols.techdoc.cache.InvalidationBus;
+import com.perucontrols.techdoc.cache.Tablas;
+import com.perucontrols.techdoc.exception.OperacionEnCursoException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Corrige la desviación de los contadores desnormalizados de sistemas y embarcaciones (V6)
+ * respecto a un recuento real. Los triggers los mantienen al día; esto cubre lo que se les
+ * escape (cargas con triggers desactivados, ediciones manuales).
+ * <p>
+ * Recorre los ids por bloques, cada uno en su transacción, para no bloquear a la vez todas las
+ * filas padre mientras cuenta. La ejecución programada va en un hilo propio, no en el de
+ * {@code @Scheduled} que comparten el bus de invalidación y la salud de las réplicas, y un
+ * advisory lock de la primaria deja que la haga un solo nodo.
+ */
+@Slf4j
+@Service
+public class ReconciliacionContadores {
+
+    /** Clave del advisory lock, común a todos los nodos. */
+    private static final String BLOQUEO = "techdoc.reconciliacion_contadores";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate primaria;
+    private final InvalidationBus bus;
+    private final ExecutorService hilo = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("reconciliacion-contadores").daemon().factory());
+
+    @Value("${techdoc.contadores.bloque:500}")
+    private int bloque;
+
+    public ReconciliacionContadores(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    InvalidationBus bus) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.primaria = new TransactionTemplate(transactionManager);
+        this.bus = bus;
+    }
+
+    @Scheduled(cron = "${techdoc.contadores.reconciliacion:0 30 3 * * *}")
+    public void programar() {
+        hilo.execute(() -> {
+            try {
+                reconciliar();
+            } catch (OperacionEnCursoException e) {
+                log.info("Reconciliación de contadores omitida: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Error al reconciliar los contadores", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void detener() {
+        hilo.shutdownNow();
+    }
+
+    /**
+     * Recuenta y corrige, con el advisory lock tomado en una conexión de la primaria durante toda
+     * la pasada. Si otro nodo ya lo tiene, no hace nada.
+     *
+     * @return filas corregidas
+     * @throws OperacionEnCursoException si hay otra reconciliación en curso
+     */
+    public int reconciliar() {
+        Integer corregidos = jdbcTemplate.execute((ConnectionCallback<Integer>) conexion -> {
+            if (!advisoryLock(conexion, "SELECT pg_try_advisory_lock(hashtext(?))")) {
+                throw new OperacionEnCursoException("Ya hay una reconciliación de contadores en curso");
+            }
+            try {
+                return reconciliarTodo();
+            } finally {
+                advisoryLock(conexion, "SELECT pg_advisory_unlock(hashtext(?))");
+            }
+        });
+        return corregidos != null ? corregidos : 0;
+    }
+
+    private int reconciliarTodo() {
+        int sistemas = reconciliar("SELECT id_sistema FROM sistemas ORDER BY id_sistema",
+                "SELECT techdoc_reconciliar_sistemas(?::bigint[])");
+        int embarcaciones = reconciliar("SELECT id_embarcacion FROM embarcaciones ORDER BY id_embarcacion",
+                "SELECT techdoc_reconciliar_embarcaciones(?::bigint[])");
+        if (sistemas + embarcaciones > 0) {
+            log.warn("Contadores corregidos: {} sistemas y {} embarcaciones", sistemas, embarcaciones);
+            bus.publicarTodo(Tablas.SISTEMAS);
+            bus.publicarTodo(Tablas.EMBARCACIONES);
+        } else {
+            log.info("Contadores de sistemas y embarcaciones sin desviaciones");
+        }
+        return sistemas + embarcaciones;
+    }
+
+    private static boolean advisoryLock(Connection conexion, String sql) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+            sentencia.setString(1, BLOQUEO);
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                return resultado.next() && resultado.getBoolean(1);
+            }
+        }
+    }
+
+    private int reconciliar(String consultaIds, String funcion) {
+        List<Long> ids = jdbcTemplate.queryForList(consultaIds, Long.class);
+        int corregidos = 0;
+        for (int desde = 0; desde < ids.size(); desde += bloque) {
+            String lote = ids.subList(desde, Math.min(desde + bloque, ids.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",", "{", "}"));
+            Integer filas = primaria.execute(status -> jdbcTemplate.queryForObject(funcion, Integer.class, lote));
+            corregidos += filas != null ? filas : 0;
+        }
+        return corregidos;
+    }
+}
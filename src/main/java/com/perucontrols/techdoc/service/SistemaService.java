@@ -1,10 +1,16 @@
 package com.perucontrols.techdoc.service;
 
+import com.perucontrols.techdoc.cache.CatalogoTiposSistema;
+import com.perucontrols.techdoc.cache.EntityCache;
+import com.perucontrols.techdoc.cache.ResultCache;
+import com.perucontrols.techdoc.cache.SingleFlight;
+import com.perucontrols.techdoc.cache.Tablas;
 import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.exception.ResourceNotFoundException;
 import com.perucontrols.techdoc.mapper.SistemaMapper;
 import com.perucontrols.techdoc.model.*;
 import com.perucontrols.techdoc.repository.*;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -13,25 +19,41 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SistemaService {
 
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "nombre", "fechaInstalacion",
+            "totalComponentes", "totalDocumentos", "mantenimientosAbiertos");
+
     private final SistemaRepository sistemaRepository;
     private final EmbarcacionRepository embarcacionRepository;
     private final TipoSistemaRepository tipoSistemaRepository;
     private final SistemaMapper sistemaMapper;
+    private final KeysetPaginator keysetPaginator;
+    private final FiltroPaginator filtroPaginator;
+    private final EntityStreamer entityStreamer;
+    private final EntityCache<SistemaDTO> sistemaCache;
+    private final CatalogoTiposSistema catalogoTiposSistema;
+    private final ResultCache resultCache;
+    private final SingleFlight singleFlight;
+    private final LecturaResiliente lecturaResiliente;
+
+    public List<SistemaResumenDTO> getAllSistemas() {
+        return lecturaResiliente.leer("sistemas/todos",
+                () -> singleFlight.ejecutar("sistemas/todos", sistemaRepository::findAllResumen));
+    }
 
     @Transactional(readOnly = true)
-    public List<SistemaDTO> getAllSistemas() {
-        return sistemaRepository.findAll()
-                .stream()
-                .map(sistemaMapper::toDTO)
-                .collect(Collectors.toList());
+    public void exportAllSistemas(Consumer<SistemaDTO> consumer) {
+        long total = entityStreamer.forEach(sistemaRepository.streamAll(), sistemaMapper::toDTO, consumer);
+        log.info("Exportación de sistemas finalizada: {} registros", total);
     }
 
     @Transactional(readOnly = true)
@@ -42,10 +64,41 @@ public class SistemaService {
     }
 
     @Transactional(readOnly = true)
+    public CursorPageResponse<SistemaDTO> getAllSistemasCursor(CursorPageRequest request) {
+        return keysetPaginator.fetch(Sistema.class, CURSOR_SORT_KEYS, request)
+                .map(sistemaMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<SistemaResumenDTO> filtrarSistemas(SistemaFiltro filtro, Pageable pageable) {
+        return PaginatedResponse.from(filtroPaginator.page(Sistema.class, SistemaSpecifications.filtrar(filtro),
+                pageable, SistemaResumenDTO.class, SistemaSpecifications.RESUMEN, CURSOR_SORT_KEYS));
+    }
+
     public SistemaDTO getSistemaById(Long id) {
-        Sistema sistema = sistemaRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + id));
-        return sistemaMapper.toDTO(sistema);
+        return sistemaCache.get(id, this::cargarSistema);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MultiGetItem<SistemaDTO>> getSistemasByIds(List<Long> ids) {
+        return MultiGet.resolver(ids, sistemaRepository::findAllById, Sistema::getId, sistemaMapper::toDTO);
+    }
+
+    /**
+     * Carga en la caché los sistemas en {@code FALLA} y los que requieren mantenimiento, los que
+     * más se consultan durante una incidencia; lo usa el calentamiento al arrancar.
+     */
+    @Transactional(readOnly = true)
+    public int precargarCriticos() {
+        long marca = sistemaCache.marca();
+        Set<Long> ids = new LinkedHashSet<>();
+        sistemaRepository.findResumenByEstado(Sistema.EstadoSistema.FALLA).forEach(s -> ids.add(s.getId()));
+        sistemaRepository.findSistemasRequiringMaintenance(LocalDate.now()).forEach(s -> ids.add(s.getId()));
+        List<SistemaDTO> sistemas = sistemaRepository.findAllById(ids).stream()
+                .map(sistemaMapper::toDTO)
+                .toList();
+        sistemaCache.precargar(marca, sistemas, SistemaDTO::getId);
+        return sistemas.size();
     }
 
     @Transactional
@@ -53,8 +106,8 @@ public class SistemaService {
         Embarcacion embarcacion = embarcacionRepository.findById(request.getIdEmbarcacion())
                 .orElseThrow(() -> new ResourceNotFoundException("Embarcación no encontrada con ID: " + request.getIdEmbarcacion()));
 
-        TipoSistema tipoSistema = tipoSistemaRepository.findById(request.getIdTipoSistema())
-                .orElseThrow(() -> new ResourceNotFoundException("Tipo de sistema no encontrado con ID: " + request.getIdTipoSistema()));
+        verificarTipoSistema(request.getIdTipoSistema());
+        TipoSistema tipoSistema = tipoSistemaRepository.getReferenceById(request.getIdTipoSistema());
 
         Sistema sistema = new Sistema();
         sistema.setEmbarcacion(embarcacion);
@@ -72,11 +125,13 @@ public class SistemaService {
         sistema.setDiagramaUbicacion(request.getDiagramaUbicacion());
 
         Sistema saved = sistemaRepository.save(sistema);
+        sistemaCache.invalidar(saved.getId());
         return sistemaMapper.toDTO(saved);
     }
 
     @Transactional
     public SistemaDTO updateSistema(Long id, UpdateSistemaRequest request) {
+        sistemaCache.invalidar(id);
         Sistema sistema = sistemaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + id));
 
@@ -91,49 +146,63 @@ public class SistemaService {
             throw new ResourceNotFoundException("Sistema no encontrado con ID: " + id);
         }
         sistemaRepository.deleteById(id);
+        sistemaCache.invalidar(id);
     }
 
-    @Transactional(readOnly = true)
-    public List<SistemaDTO> getSistemasByEmbarcacion(Long idEmbarcacion) {
-        Embarcacion embarcacion = embarcacionRepository.findById(idEmbarcacion)
-                .orElseThrow(() -> new ResourceNotFoundException("Embarcación no encontrada con ID: " + idEmbarcacion));
-        return sistemaRepository.findByEmbarcacion(embarcacion)
-                .stream()
-                .map(sistemaMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<SistemaResumenDTO> getSistemasByEmbarcacion(Long idEmbarcacion) {
+        return resultCache.get("sistemas/buscar/embarcacion", List.of(Tablas.SISTEMAS, Tablas.EMBARCACIONES), () -> {
+            if (!embarcacionRepository.existsById(idEmbarcacion)) {
+                throw new ResourceNotFoundException("Embarcación no encontrada con ID: " + idEmbarcacion);
+            }
+            return sistemaRepository.findResumenByEmbarcacionId(idEmbarcacion);
+        }, idEmbarcacion);
     }
 
-    @Transactional(readOnly = true)
-    public List<SistemaDTO> getSistemasByTipoSistema(Long idTipoSistema) {
-        TipoSistema tipoSistema = tipoSistemaRepository.findById(idTipoSistema)
-                .orElseThrow(() -> new ResourceNotFoundException("Tipo de sistema no encontrado con ID: " + idTipoSistema));
-        return sistemaRepository.findByTipoSistema(tipoSistema)
-                .stream()
-                .map(sistemaMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<SistemaResumenDTO> getSistemasByTipoSistema(Long idTipoSistema) {
+        return resultCache.get("sistemas/buscar/tipo-sistema", List.of(Tablas.SISTEMAS, Tablas.TIPOS_SISTEMA), () -> {
+            verificarTipoSistema(idTipoSistema);
+            return sistemaRepository.findResumenByTipoSistemaId(idTipoSistema);
+        }, idTipoSistema);
     }
 
-    @Transactional(readOnly = true)
-    public List<SistemaDTO> getSistemasByEstado(Sistema.EstadoSistema estado) {
-        return sistemaRepository.findByEstado(estado)
-                .stream()
-                .map(sistemaMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<SistemaResumenDTO> getSistemasByEstado(Sistema.EstadoSistema estado) {
+        return resultCache.get("sistemas/buscar/estado", List.of(Tablas.SISTEMAS),
+                () -> sistemaRepository.findResumenByEstado(estado), estado);
     }
 
-    @Transactional(readOnly = true)
-    public List<SistemaDTO> getSistemasRequiringMaintenance() {
-        return sistemaRepository.findSistemasRequiringMaintenance(LocalDate.now())
-                .stream()
-                .map(sistemaMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<SistemaResumenDTO> getSistemasRequiringMaintenance() {
+        return resultCache.hastaMedianoche("sistemas/buscar/mantenimiento-requerido", List.of(Tablas.SISTEMAS),
+                () -> sistemaRepository.findSistemasRequiringMaintenance(LocalDate.now()));
     }
 
-    @Transactional(readOnly = true)
-    public List<SistemaDTO> getSistemasByNombre(String nombre) {
-        return sistemaRepository.findByNombreContaining(nombre)
-                .stream()
-                .map(sistemaMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<SistemaResumenDTO> getSistemasByNombre(String nombre) {
+        return resultCache.get("sistemas/buscar/nombre", List.of(Tablas.SISTEMAS),
+                () -> buscarResumenes(nombre, Pageable.unpaged()).getContent(), nombre);
+    }
+
+    /** Nombre que contiene {@code q} sin distinguir mayúsculas ni tildes, los más parecidos primero. */
+    public PaginatedResponse<SistemaResumenDTO> buscarPorNombre(String q, int page, int size) {
+        Pageable pageable = Filtros.busqueda(q, page, size);
+        String texto = q.trim();
+        return resultCache.get("sistemas/buscar/nombre-paginado", List.of(Tablas.SISTEMAS),
+                () -> PaginatedResponse.from(buscarResumenes(texto, pageable)), texto, page, size);
+    }
+
+    private Page<SistemaResumenDTO> buscarResumenes(String texto, Pageable pageable) {
+        return MultiGet.enOrden(sistemaRepository.buscarIdsPorNombre(Filtros.escaparLike(texto), texto, pageable),
+                sistemaRepository::findResumenByIdIn, SistemaResumenDTO::getId);
+    }
+
+    /** Valida contra el catálogo en memoria; solo un id ausente (quizá recién creado en otro nodo) va a la base. */
+    private void verificarTipoSistema(Long idTipoSistema) {
+        if (!catalogoTiposSistema.contiene(idTipoSistema) && !tipoSistemaRepository.existsById(idTipoSistema)) {
+            throw new ResourceNotFoundException("Tipo de sistema no encontrado con ID: " + idTipoSistema);
+        }
+    }
+
+    private SistemaDTO cargarSistema(Long id) {
+        Sistema sistema = sistemaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + id));
+        return sistemaMapper.toDTO(sistema);
     }
 }
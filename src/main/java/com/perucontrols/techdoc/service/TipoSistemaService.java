@@ -1,54 +1,103 @@
 package com.perucontrols.techdoc.service;
 
+import com.perucontrols.techdoc.cache.CatalogoTiposSistema;
 import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.exception.ResourceNotFoundException;
 import com.perucontrols.techdoc.mapper.TipoSistemaMapper;
 import com.perucontrols.techdoc.model.TipoSistema;
+import com.perucontrols.techdoc.repository.KeysetPaginator;
+import com.perucontrols.techdoc.repository.MarcasModificacion.MarcaModificacion;
 import com.perucontrols.techdoc.repository.TipoSistemaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TipoSistemaService {
 
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "nombre");
+    private static final Map<String, Comparator<TipoSistemaDTO>> PAGED_SORT_KEYS = Map.of(
+            "id", Comparator.comparing(TipoSistemaDTO::getId),
+            "nombre", Comparator.comparing(TipoSistemaDTO::getNombre, Comparator.nullsLast(Comparator.naturalOrder())),
+            "categoria", Comparator.comparing(TipoSistemaDTO::getCategoria, Comparator.nullsLast(Comparator.naturalOrder())),
+            "fabricanteRecomendado", Comparator.comparing(TipoSistemaDTO::getFabricanteRecomendado,
+                    Comparator.nullsLast(Comparator.naturalOrder())),
+            "vidaUtilEstimada", Comparator.comparing(TipoSistemaDTO::getVidaUtilEstimada,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+
     private final TipoSistemaRepository tipoSistemaRepository;
     private final TipoSistemaMapper tipoSistemaMapper;
+    private final KeysetPaginator keysetPaginator;
+    private final CatalogoTiposSistema catalogo;
 
-    @Transactional(readOnly = true)
     public List<TipoSistemaDTO> getAllTiposSistema() {
-        return tipoSistemaRepository.findAll()
-                .stream()
-                .map(tipoSistemaMapper::toDTO)
-                .collect(Collectors.toList());
+        return catalogo.todos();
     }
 
-    @Transactional(readOnly = true)
+    public MarcaModificacion getMarcaCatalogo() {
+        return catalogo.marca();
+    }
+
+    public byte[] getAllTiposSistemaJson() {
+        return catalogo.jsonTodos();
+    }
+
+    /** Pagina sobre el catálogo en memoria. */
     public PaginatedResponse<TipoSistemaDTO> getAllTiposSistemaPaged(Pageable pageable) {
-        Page<TipoSistemaDTO> page = tipoSistemaRepository.findAll(pageable)
-                .map(tipoSistemaMapper::toDTO);
+        Comparator<TipoSistemaDTO> orden = Comparator.comparing(TipoSistemaDTO::getId);
+        // Del último criterio al primero: cada uno desempata con los que le siguen
+        List<Sort.Order> criterios = new ArrayList<>(pageable.getSort().toList());
+        Collections.reverse(criterios);
+        for (Sort.Order order : criterios) {
+            Comparator<TipoSistemaDTO> campo = PAGED_SORT_KEYS.get(order.getProperty());
+            if (campo == null) {
+                throw new IllegalArgumentException("Campo de ordenamiento no permitido: " + order.getProperty()
+                        + ". Use uno de " + PAGED_SORT_KEYS.keySet());
+            }
+            orden = (order.isAscending() ? campo : campo.reversed()).thenComparing(orden);
+        }
+        List<TipoSistemaDTO> ordenados = catalogo.todos().stream().sorted(orden).toList();
+        int desde = (int) Math.min(pageable.getOffset(), ordenados.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ordenados.size());
+        Page<TipoSistemaDTO> page = new PageImpl<>(ordenados.subList(desde, hasta), pageable, ordenados.size());
         return PaginatedResponse.from(page);
     }
 
     @Transactional(readOnly = true)
+    public CursorPageResponse<TipoSistemaDTO> getAllTiposSistemaCursor(CursorPageRequest request) {
+        return keysetPaginator.fetch(TipoSistema.class, CURSOR_SORT_KEYS, request)
+                .map(tipoSistemaMapper::toDTO);
+    }
+
     public TipoSistemaDTO getTipoSistemaById(Long id) {
-        TipoSistema tipoSistema = tipoSistemaRepository.findById(id)
+        return catalogo.buscar(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de sistema no encontrado con ID: " + id));
-        return tipoSistemaMapper.toDTO(tipoSistema);
+    }
+
+    public byte[] getTipoSistemaByIdJson(Long id) {
+        return catalogo.jsonPorId(id);
     }
 
     @Transactional
     public TipoSistemaDTO createTipoSistema(CreateTipoSistemaRequest request) {
         TipoSistema tipoSistema = tipoSistemaMapper.toEntity(request);
-        return tipoSistemaMapper.toDTO(tipoSistemaRepository.save(tipoSistema));
+        TipoSistema saved = tipoSistemaRepository.save(tipoSistema);
+        catalogo.recargarTrasCommit();
+        return tipoSistemaMapper.toDTO(saved);
     }
 
     @Transactional
@@ -56,7 +105,9 @@ public class TipoSistemaService {
         TipoSistema tipoSistema = tipoSistemaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de sistema no encontrado con ID: " + id));
         tipoSistemaMapper.updateEntity(tipoSistema, request);
-        return tipoSistemaMapper.toDTO(tipoSistemaRepository.save(tipoSistema));
+        TipoSistema saved = tipoSistemaRepository.save(tipoSistema);
+        catalogo.recargarTrasCommit();
+        return tipoSistemaMapper.toDTO(saved);
     }
 
     @Transactional
@@ -65,21 +116,23 @@ public class TipoSistemaService {
             throw new ResourceNotFoundException("Tipo de sistema no encontrado con ID: " + id);
         }
         tipoSistemaRepository.deleteById(id);
+        catalogo.recargarTrasCommit();
     }
 
-    @Transactional(readOnly = true)
     public List<TipoSistemaDTO> getTiposSistemaByCategoria(TipoSistema.CategoriaSistema categoria) {
-        return tipoSistemaRepository.findByCategoria(categoria)
-                .stream()
-                .map(tipoSistemaMapper::toDTO)
-                .collect(Collectors.toList());
+        return catalogo.porCategoria(categoria);
     }
 
-    @Transactional(readOnly = true)
+    public byte[] getTiposSistemaByCategoriaJson(TipoSistema.CategoriaSistema categoria) {
+        return catalogo.jsonPorCategoria(categoria);
+    }
+
+    /** Búsqueda por nombre sin distinguir mayúsculas ni tildes. */
     public List<TipoSistemaDTO> getTiposSistemaByNombre(String nombre) {
-        return tipoSistemaRepository.findByNombreContaining(nombre)
-                .stream()
-                .map(tipoSistemaMapper::toDTO)
-                .collect(Collectors.toList());
+        return catalogo.porNombre(nombre);
+    }
+
+    public byte[] getTiposSistemaByNombreJson(String nombre) {
+        return catalogo.jsonPorNombre(nombre);
     }
 }
@@ -1,12 +1,19 @@
 package com.perucontrols.techdoc.service;
 
+import com.perucontrols.techdoc.cache.EntityCache;
+import com.perucontrols.techdoc.cache.ResultCache;
+import com.perucontrols.techdoc.cache.Tablas;
 import com.perucontrols.techdoc.dto.*;
 import com.perucontrols.techdoc.exception.ResourceNotFoundException;
 import com.perucontrols.techdoc.mapper.VersionSoftwareMapper;
 import com.perucontrols.techdoc.model.Sistema;
 import com.perucontrols.techdoc.model.VersionSoftware;
+import com.perucontrols.techdoc.repository.FiltroPaginator;
+import com.perucontrols.techdoc.repository.KeysetPaginator;
 import com.perucontrols.techdoc.repository.SistemaRepository;
 import com.perucontrols.techdoc.repository.VersionSoftwareRepository;
+import com.perucontrols.techdoc.repository.VersionSoftwareSpecifications;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -16,6 +23,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,15 +33,27 @@ import java.util.stream.Collectors;
 @Slf4j
 public class VersionSoftwareService {
 
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "fechaInstalacion");
+
     private final VersionSoftwareRepository versionSoftwareRepository;
     private final SistemaRepository sistemaRepository;
     private final VersionSoftwareMapper versionSoftwareMapper;
+    private final KeysetPaginator keysetPaginator;
+    private final FiltroPaginator filtroPaginator;
+    private final EntityStreamer entityStreamer;
+    private final BatchWriter batchWriter;
+    private final EntityCache<VersionSoftwareDTO> versionSoftwareCache;
+    private final ResultCache resultCache;
+    private final LecturaResiliente lecturaResiliente;
+
+    public List<VersionSoftwareResumenDTO> getAllVersionesSoftware() {
+        return lecturaResiliente.leer("versiones-software/todas", versionSoftwareRepository::findAllResumen);
+    }
 
     @Transactional(readOnly = true)
-    public List<VersionSoftwareDTO> getAllVersionesSoftware() {
-        return versionSoftwareRepository.findAll().stream()
-                .map(versionSoftwareMapper::toDTO)
-                .collect(Collectors.toList());
+    public void exportAllVersionesSoftware(Consumer<VersionSoftwareDTO> consumer) {
+        long total = entityStreamer.forEach(versionSoftwareRepository.streamAll(), versionSoftwareMapper::toDTO, consumer);
+        log.info("Exportación de versiones de software finalizada: {} registros", total);
     }
 
     @Transactional(readOnly = true)
@@ -42,10 +64,24 @@ public class VersionSoftwareService {
     }
 
     @Transactional(readOnly = true)
+    public CursorPageResponse<VersionSoftwareDTO> getAllVersionesSoftwareCursor(CursorPageRequest request) {
+        return keysetPaginator.fetch(VersionSoftware.class, CURSOR_SORT_KEYS, request)
+                .map(versionSoftwareMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<VersionSoftwareResumenDTO> filtrarVersionesSoftware(VersionSoftwareFiltro filtro, Pageable pageable) {
+        return PaginatedResponse.from(filtroPaginator.page(VersionSoftware.class, VersionSoftwareSpecifications.filtrar(filtro),
+                pageable, VersionSoftwareResumenDTO.class, VersionSoftwareSpecifications.RESUMEN, CURSOR_SORT_KEYS));
+    }
+
     public VersionSoftwareDTO getVersionSoftwareById(Long id) {
-        VersionSoftware version = versionSoftwareRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Versión de software no encontrada con ID: " + id));
-        return versionSoftwareMapper.toDTO(version);
+        return versionSoftwareCache.get(id, this::cargarVersionSoftware);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MultiGetItem<VersionSoftwareDTO>> getVersionesSoftwareByIds(List<Long> ids) {
+        return MultiGet.resolver(ids, versionSoftwareRepository::findAllById, VersionSoftware::getId, versionSoftwareMapper::toDTO);
     }
 
     @Transactional
@@ -56,11 +92,34 @@ public class VersionSoftwareService {
         VersionSoftware version = versionSoftwareMapper.toEntity(request);
         version.setSistema(sistema);
 
-        return versionSoftwareMapper.toDTO(versionSoftwareRepository.save(version));
+        VersionSoftware saved = versionSoftwareRepository.save(version);
+        versionSoftwareCache.invalidar(saved.getId());
+        return versionSoftwareMapper.toDTO(saved);
+    }
+
+    @Transactional
+    public LoteResponse createVersionesSoftwareLote(List<CreateVersionSoftwareRequest> requests) {
+        batchWriter.validarTamano(requests);
+        Map<Long, Sistema> sistemas = batchWriter.referenciasSistema(
+                requests.stream().map(CreateVersionSoftwareRequest::getIdSistema).toList());
+
+        List<VersionSoftware> versiones = requests.stream()
+                .map(request -> {
+                    VersionSoftware version = versionSoftwareMapper.toEntity(request);
+                    version.setSistema(sistemas.get(request.getIdSistema()));
+                    return version;
+                })
+                .collect(Collectors.toList());
+
+        List<Long> ids = batchWriter.persistirTodos(versiones, VersionSoftware::getId);
+        versionSoftwareCache.invalidar(ids);
+        log.info("Lote de versiones de software creado: {} registros", ids.size());
+        return new LoteResponse(ids.size(), ids);
     }
 
     @Transactional
     public VersionSoftwareDTO updateVersionSoftware(Long id, UpdateVersionSoftwareRequest request) {
+        versionSoftwareCache.invalidar(id);
         VersionSoftware version = versionSoftwareRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Versión de software no encontrada con ID: " + id));
 
@@ -74,33 +133,39 @@ public class VersionSoftwareService {
             throw new ResourceNotFoundException("Versión de software no encontrada con ID: " + id);
         }
         versionSoftwareRepository.deleteById(id);
+        versionSoftwareCache.invalidar(id);
     }
 
-    @Transactional(readOnly = true)
-    public List<VersionSoftwareDTO> getVersionesSoftwareBySistema(Long idSistema) {
-        Sistema sistema = sistemaRepository.findById(idSistema)
-                .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + idSistema));
+    public List<VersionSoftwareResumenDTO> getVersionesSoftwareBySistema(Long idSistema) {
+        return resultCache.get("versiones/buscar/sistema", List.of(Tablas.VERSIONES_SOFTWARE, Tablas.SISTEMAS), () -> {
+            if (!sistemaRepository.existsById(idSistema)) {
+                throw new ResourceNotFoundException("Sistema no encontrado con ID: " + idSistema);
+            }
 
-        return versionSoftwareRepository.findBySistema(sistema).stream()
-                .map(versionSoftwareMapper::toDTO)
-                .collect(Collectors.toList());
+            return versionSoftwareRepository.findResumenBySistemaId(idSistema);
+        }, idSistema);
     }
 
-    @Transactional(readOnly = true)
     public VersionSoftwareDTO getVersionSoftwareActualBySistema(Long idSistema) {
-        Sistema sistema = sistemaRepository.findById(idSistema)
-                .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + idSistema));
+        return resultCache.get("versiones/buscar/sistema-actual", List.of(Tablas.VERSIONES_SOFTWARE, Tablas.SISTEMAS), () -> {
+            Sistema sistema = sistemaRepository.findById(idSistema)
+                    .orElseThrow(() -> new ResourceNotFoundException("Sistema no encontrado con ID: " + idSistema));
 
-        VersionSoftware version = versionSoftwareRepository.findBySistemaAndEstado(sistema, VersionSoftware.EstadoVersion.ACTUAL)
-                .orElseThrow(() -> new ResourceNotFoundException("Versión actual no encontrada para el sistema ID: " + idSistema));
+            VersionSoftware version = versionSoftwareRepository.findBySistemaAndEstado(sistema, VersionSoftware.EstadoVersion.ACTUAL)
+                    .orElseThrow(() -> new ResourceNotFoundException("Versión actual no encontrada para el sistema ID: " + idSistema));
 
-        return versionSoftwareMapper.toDTO(version);
+            return versionSoftwareMapper.toDTO(version);
+        }, idSistema);
     }
 
-    @Transactional(readOnly = true)
-    public List<VersionSoftwareDTO> getVersionesSoftwarePorFinSoporte() {
-        return versionSoftwareRepository.findByFechaFinSoporteLessThanEqual(LocalDate.now()).stream()
-                .map(versionSoftwareMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<VersionSoftwareResumenDTO> getVersionesSoftwarePorFinSoporte() {
+        return resultCache.hastaMedianoche("versiones/buscar/fin-soporte", List.of(Tablas.VERSIONES_SOFTWARE),
+                () -> versionSoftwareRepository.findResumenByFechaFinSoporteLessThanEqual(LocalDate.now()));
+    }
+
+    private VersionSoftwareDTO cargarVersionSoftware(Long id) {
+        VersionSoftware version = versionSoftwareRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Versión de software no encontrada con ID: " + id));
+        return versionSoftwareMapper.toDTO(version);
     }
 }
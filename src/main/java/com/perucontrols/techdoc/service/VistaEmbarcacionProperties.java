@@ -0,0 +1,17 @@
+package com.perucontrols.techdoc.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "techdoc.vistas")
+public class VistaEmbarcacionProperties {
+
+    /** Pausa entre ciclos del worker que reconstruye las vistas pendientes. */
+    private Duration intervalo = Duration.ofSeconds(1);
+
+    /** Máximo de embarcaciones reconstruidas por ciclo. */
+    private int lote = 100;
+}
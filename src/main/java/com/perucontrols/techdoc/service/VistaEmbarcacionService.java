@@ -0,0 +1,153 @@
+package com.perucontrols.techdoc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.perucontrols.techdoc.repository.EmbarcacionRepository;
+import com.perucontrols.techdoc.repository.VistasEmbarcacion;
+import com.perucontrols.techdoc.repository.VistasEmbarcacion.Retraso;
+import com.perucontrols.techdoc.repository.VistasEmbarcacion.Vista;
+import com.perucontrols.techdoc.resiliencia.LecturaResiliente;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Modelo de lectura por embarcación (CQRS): el árbol de {@link EmbarcacionArbolService} guardado
+ * como jsonb en {@code vistas_embarcacion} y servido con una lectura por clave primaria.
+ * <p>
+ * Los triggers de la base encolan la embarcación afectada por cualquier cambio en ella o en sus
+ * tablas hijas; el worker la saca de la cola y reconstruye su documento en la misma transacción,
+ * así que varios nodos pueden procesar la cola a la vez. El retraso del cambio pendiente más
+ * antiguo se publica como la métrica {@code techdoc.vistas.embarcacion.retraso}.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(VistaEmbarcacionProperties.class)
+public class VistaEmbarcacionService {
+
+    private final VistasEmbarcacion vistas;
+    private final EmbarcacionRepository embarcacionRepository;
+    private final EmbarcacionArbolService embarcacionArbolService;
+    private final ObjectMapper objectMapper;
+    private final LecturaResiliente lecturaResiliente;
+    private final VistaEmbarcacionProperties properties;
+    private final TransactionTemplate primaria;
+    private volatile Retraso retraso = new Retraso(0, 0);
+
+    public VistaEmbarcacionService(VistasEmbarcacion vistas, EmbarcacionRepository embarcacionRepository,
+                                   EmbarcacionArbolService embarcacionArbolService,
+                                   ObjectMapper objectMapper, LecturaResiliente lecturaResiliente,
+                                   VistaEmbarcacionProperties properties, PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.vistas = vistas;
+        this.embarcacionRepository = embarcacionRepository;
+        this.embarcacionArbolService = embarcacionArbolService;
+        this.objectMapper = objectMapper;
+        this.lecturaResiliente = lecturaResiliente;
+        this.properties = properties;
+        // Lectura-escritura: la reconstrucción lee de la primaria, nunca de una réplica atrasada
+        this.primaria = new TransactionTemplate(transactionManager);
+        Gauge.builder("techdoc.vistas.embarcacion.retraso", this, s -> s.retraso.segundos())
+                .description("Antigüedad del cambio más antiguo aún no reflejado en las vistas de embarcación")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("techdoc.vistas.embarcacion.pendientes", this, s -> s.retraso.pendientes())
+                .description("Embarcaciones en cola para reconstruir su vista")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Documento JSON de la embarcación. Si aún no se ha construido (embarcación recién creada y el
+     * worker no ha pasado) se construye en el momento.
+     */
+    public Vista getVista(Long idEmbarcacion) {
+        Optional<Vista> vista = lecturaResiliente.leer(List.of("vistas", idEmbarcacion),
+                () -> vistas.buscar(idEmbarcacion));
+        return vista.orElseGet(() -> primaria.execute(status -> reconstruir(idEmbarcacion)));
+    }
+
+    /** Encola todas las embarcaciones; el worker las reconstruye en los ciclos siguientes. */
+    public int reconstruirTodas() {
+        int encoladas = primaria.execute(status -> vistas.encolarTodas());
+        log.info("Reconstrucción completa de vistas solicitada: {} embarcaciones encoladas", encoladas);
+        return encoladas;
+    }
+
+    @Scheduled(fixedDelayString = "${techdoc.vistas.intervalo:1s}")
+    public void procesarPendientes() {
+        int procesadas = 0;
+        // Las que fallan vuelven a la cola con el rollback; se saltan en este ciclo para no bloquear al resto
+        List<Long> fallidas = new ArrayList<>();
+        try {
+            while (procesadas + fallidas.size() < properties.getLote()) {
+                Optional<Long> siguiente = Optional.empty();
+                try {
+                    siguiente = primaria.execute(status -> procesarSiguiente(fallidas));
+                } catch (RuntimeException e) {
+                    Long id = e instanceof ReconstruccionFallida f ? f.idEmbarcacion : null;
+                    if (id == null || LecturaResiliente.esIndisponibilidad(e)) {
+                        throw e;
+                    }
+                    log.error("No se pudo reconstruir la vista de la embarcación {}", id, e.getCause());
+                    fallidas.add(id);
+                    continue;
+                }
+                if (siguiente.isEmpty()) {
+                    break;
+                }
+                procesadas++;
+            }
+            retraso = vistas.retraso();
+        } catch (RuntimeException e) {
+            log.warn("Reconstrucción de vistas interrumpida tras {} procesadas: {}", procesadas, e.getMessage());
+        }
+        if (procesadas > 0) {
+            log.debug("Vistas de embarcación reconstruidas: {}, pendientes: {}", procesadas, retraso.pendientes());
+        }
+    }
+
+    private Optional<Long> procesarSiguiente(List<Long> excluidas) {
+        Optional<Long> siguiente = vistas.tomarPendiente(excluidas);
+        siguiente.ifPresent(id -> {
+            if (!embarcacionRepository.existsById(id)) {
+                vistas.borrar(id);
+                return;
+            }
+            try {
+                reconstruir(id);
+            } catch (RuntimeException e) {
+                throw new ReconstruccionFallida(id, e);
+            }
+        });
+        return siguiente;
+    }
+
+    private Vista reconstruir(Long idEmbarcacion) {
+        String documento;
+        try {
+            documento = objectMapper.writeValueAsString(embarcacionArbolService.getArbol(idEmbarcacion));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la vista de la embarcación " + idEmbarcacion, e);
+        }
+        return new Vista(documento, vistas.guardar(idEmbarcacion, documento));
+    }
+
+    private static final class ReconstruccionFallida extends RuntimeException {
+
+        private final Long idEmbarcacion;
+
+        ReconstruccionFallida(Long idEmbarcacion, RuntimeException cause) {
+            super(cause.getMessage(), cause);
+            this.idEmbarcacion = idEmbarcacion;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- techdoc_documentacion_vector (V7) se declaró IMMUTABLE, pero to_tsvector('es_unaccent', ...)
+-- resuelve la configuración por search_path y con ella solo es STABLE. Como en techdoc_sin_tildes
+-- (V9), con la configuración cualificada el resultado es fijo y la declaración vuelve a ser cierta.
+
+CREATE OR REPLACE FUNCTION techdoc_documentacion_vector(titulo text, tags text, tipo text, descripcion text)
+    RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('public.es_unaccent'::regconfig, coalesce(titulo, '')), 'A') ||
+           setweight(to_tsvector('public.es_unaccent'::regconfig, coalesce(tags, '') || ' ' || coalesce(tipo, '')), 'B') ||
+           setweight(to_tsvector('public.es_unaccent'::regconfig, coalesce(descripcion, '')), 'C');
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
@@ -0,0 +1,146 @@
+-- Esquema inicial, equivalente al que generaba Hibernate con ddl-auto=update.
+-- Las bases existentes se marcan como baseline en esta versión y no lo ejecutan.
+
+CREATE SEQUENCE IF NOT EXISTS embarcaciones_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tipos_sistema_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sistemas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS componentes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS documentacion_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS especificaciones_tecnicas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS mantenimientos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS versiones_software_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS embarcaciones (
+    id_embarcacion      bigint       NOT NULL,
+    nombre              varchar(100) NOT NULL,
+    tipo_embarcacion    varchar(50),
+    matricula           varchar(50)  NOT NULL,
+    empresa_propietaria varchar(100),
+    capacidad_carga     double precision,
+    fecha_construccion  date,
+    estado              varchar(255) CHECK (estado IN ('ACTIVO', 'INACTIVO', 'MANTENIMIENTO')),
+    ubicacion_actual    varchar(100),
+    fecha_registro      timestamp(6),
+    notas               text,
+    CONSTRAINT embarcaciones_pkey PRIMARY KEY (id_embarcacion),
+    CONSTRAINT uk_embarcaciones_matricula UNIQUE (matricula)
+);
+
+CREATE TABLE IF NOT EXISTS tipos_sistema (
+    id_tipo_sistema        bigint       NOT NULL,
+    nombre                 varchar(100) NOT NULL,
+    descripcion            text,
+    categoria              varchar(255) CHECK (categoria IN ('MONITOREO', 'CONTROL', 'NAVEGACION', 'COMUNICACION', 'REFRIGERACION', 'OTRO')),
+    fabricante_recomendado varchar(100),
+    vida_util_estimada     integer,
+    CONSTRAINT tipos_sistema_pkey PRIMARY KEY (id_tipo_sistema)
+);
+
+CREATE TABLE IF NOT EXISTS sistemas (
+    id_sistema                  bigint       NOT NULL,
+    id_embarcacion              bigint       NOT NULL,
+    id_tipo_sistema             bigint       NOT NULL,
+    nombre                      varchar(100) NOT NULL,
+    numero_serie                varchar(50),
+    fecha_instalacion           date         NOT NULL,
+    ubicacion_en_embarcacion    varchar(100),
+    estado                      varchar(255) CHECK (estado IN ('OPERATIVO', 'FALLA', 'MANTENIMIENTO', 'DESACTIVADO')),
+    fecha_ultima_revision       date,
+    fecha_proximo_mantenimiento date,
+    tiempo_vida_restante        integer,
+    tecnico_instalador          varchar(100),
+    notas_instalacion           text,
+    diagrama_ubicacion          varchar(255),
+    created_at                  timestamp(6),
+    updated_at                  timestamp(6),
+    CONSTRAINT sistemas_pkey PRIMARY KEY (id_sistema),
+    CONSTRAINT fk_sistemas_embarcacion FOREIGN KEY (id_embarcacion) REFERENCES embarcaciones (id_embarcacion),
+    CONSTRAINT fk_sistemas_tipo_sistema FOREIGN KEY (id_tipo_sistema) REFERENCES tipos_sistema (id_tipo_sistema)
+);
+
+CREATE TABLE IF NOT EXISTS componentes (
+    id_componente        bigint       NOT NULL,
+    id_sistema           bigint       NOT NULL,
+    nombre               varchar(100) NOT NULL,
+    numero_parte         varchar(50),
+    descripcion          text,
+    cantidad             integer,
+    ubicacion_en_sistema varchar(100),
+    reemplazable         boolean,
+    tiempo_vida_util     integer,
+    fecha_instalacion    date,
+    estado               varchar(255) CHECK (estado IN ('OPERATIVO', 'FALLA', 'REEMPLAZADO')),
+    fabricante           varchar(100),
+    modelo               varchar(100),
+    imagen               varchar(255),
+    CONSTRAINT componentes_pkey PRIMARY KEY (id_componente),
+    CONSTRAINT fk_componentes_sistema FOREIGN KEY (id_sistema) REFERENCES sistemas (id_sistema)
+);
+
+CREATE TABLE IF NOT EXISTS documentacion (
+    id_documento   bigint       NOT NULL,
+    id_sistema     bigint       NOT NULL,
+    tipo_documento varchar(255) CHECK (tipo_documento IN ('MANUAL', 'DIAGRAMA', 'CERTIFICADO', 'PROCEDIMIENTO', 'FOTO')),
+    titulo         varchar(255) NOT NULL,
+    archivo        varchar(255),
+    fecha_creacion date,
+    creado_por     varchar(100),
+    version        varchar(50),
+    descripcion    text,
+    tags           varchar(255),
+    CONSTRAINT documentacion_pkey PRIMARY KEY (id_documento),
+    CONSTRAINT fk_documentacion_sistema FOREIGN KEY (id_sistema) REFERENCES sistemas (id_sistema)
+);
+
+CREATE TABLE IF NOT EXISTS especificaciones_tecnicas (
+    id_especificacion      bigint NOT NULL,
+    id_sistema             bigint NOT NULL,
+    tipo_cableado          varchar(100),
+    voltaje                varchar(50),
+    amperaje               varchar(50),
+    protocolo_comunicacion varchar(100),
+    puertos_conexion       text,
+    dimensiones            varchar(100),
+    peso                   double precision,
+    temperatura_operacion  varchar(50),
+    proteccion_ip          varchar(20),
+    certificaciones        text,
+    requisitos_especiales  text,
+    CONSTRAINT especificaciones_tecnicas_pkey PRIMARY KEY (id_especificacion),
+    CONSTRAINT uk_especificaciones_tecnicas_sistema UNIQUE (id_sistema),
+    CONSTRAINT fk_especificaciones_tecnicas_sistema FOREIGN KEY (id_sistema) REFERENCES sistemas (id_sistema)
+);
+
+CREATE TABLE IF NOT EXISTS mantenimientos (
+    id_mantenimiento            bigint       NOT NULL,
+    id_sistema                  bigint       NOT NULL,
+    tipo                        varchar(255) CHECK (tipo IN ('PREVENTIVO', 'CORRECTIVO', 'ACTUALIZACION')),
+    fecha_inicio                timestamp(6) NOT NULL,
+    fecha_fin                   timestamp(6),
+    estado                      varchar(255) CHECK (estado IN ('PLANIFICADO', 'EN_PROGRESO', 'COMPLETADO', 'CANCELADO')),
+    realizado_por               varchar(100) NOT NULL,
+    descripcion                 text,
+    hallazgos                   text,
+    recomendaciones             text,
+    fecha_proximo_mantenimiento date,
+    costo                       double precision,
+    tiempo_inactividad          integer,
+    CONSTRAINT mantenimientos_pkey PRIMARY KEY (id_mantenimiento),
+    CONSTRAINT fk_mantenimientos_sistema FOREIGN KEY (id_sistema) REFERENCES sistemas (id_sistema)
+);
+
+CREATE TABLE IF NOT EXISTS versiones_software (
+    id_version         bigint       NOT NULL,
+    id_sistema         bigint       NOT NULL,
+    version            varchar(50)  NOT NULL,
+    fecha_instalacion  date         NOT NULL,
+    changelog          text,
+    compatible_con     varchar(255),
+    archivo_instalador varchar(255),
+    requisitos_sistema text,
+    instalado_por      varchar(100),
+    estado             varchar(255) CHECK (estado IN ('ACTUAL', 'OBSOLETO', 'COMPATIBLE')),
+    fecha_fin_soporte  date,
+    CONSTRAINT versiones_software_pkey PRIMARY KEY (id_version),
+    CONSTRAINT fk_versiones_software_sistema FOREIGN KEY (id_sistema) REFERENCES sistemas (id_sistema)
+);
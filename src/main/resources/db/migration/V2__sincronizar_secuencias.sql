@@ -0,0 +1,35 @@
+-- Secuencias con incremento 50 para el optimizador pooled de Hibernate (inserciones por lote).
+-- En bases creadas antes de Flyway (baseline en V1) adelanta cada secuencia hasta el mayor id
+-- existente; en una base nueva no hace nada.
+
+CREATE SEQUENCE IF NOT EXISTS componentes_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('componentes_seq', m.max_id) FROM (SELECT MAX(id_componente) AS max_id FROM componentes) m
+WHERE m.max_id IS NOT NULL AND m.max_id > (SELECT last_value FROM componentes_seq);
+
+CREATE SEQUENCE IF NOT EXISTS documentacion_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('documentacion_seq', m.max_id) FROM (SELECT MAX(id_documento) AS max_id FROM documentacion) m
+WHERE m.max_id IS NOT NULL AND m.max_id > (SELECT last_value FROM documentacion_seq);
+
+CREATE SEQUENCE IF NOT EXISTS embarcaciones_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('embarcaciones_seq', m.max_id) FROM (SELECT MAX(id_embarcacion) AS max_id FROM embarcaciones) m
+WHERE m.max_id IS NOT NULL AND m.max_id > (SELECT last_value FROM embarcaciones_seq);
+
+CREATE SEQUENCE IF NOT EXISTS especificaciones_tecnicas_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('especificaciones_tecnicas_seq', m.max_id) FROM (SELECT MAX(id_especificacion) AS max_id FROM especificaciones_tecnicas) m
+WHERE m.max_id IS NOT NULL AND m.max_id > (SELECT last_value FROM especificaciones_tecnicas_seq);
+
+CREATE SEQUENCE IF NOT EXISTS mantenimientos_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('mantenimientos_seq', m.max_id) FROM (SELECT MAX(id_mantenimiento) AS max_id FROM mantenimientos) m
+WHERE m.max_id IS NOT NULL AND m.max_id > (SELECT last_value FROM mantenimientos_seq);
+
+CREATE SEQUENCE IF NOT EXISTS sistemas_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('sistemas_seq', m.max_id) FROM (SELECT MAX(id_sistema) AS max_id FROM sistemas) m
+WHERE m.max_id IS NOT NULL AND m.max_id > (SELECT last_value FROM sistemas_seq);
+
+CREATE SEQUENCE IF NOT EXISTS tipos_sistema_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('tipos_sistema_seq', m.max_id) FROM (SELECT MAX(id_tipo_sistema) AS max_id FROM tipos_sistema) m
+WHERE m.max_id IS NOT NULL AND m.max_id > (SELECT last_value FROM tipos_sistema_seq);
+
+CREATE SEQUENCE IF NOT EXISTS versiones_software_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('versiones_software_seq', m.max_id) FROM (SELECT MAX(id_version) AS max_id FROM versiones_software) m
+WHERE m.max_id IS NOT NULL AND m.max_id > (SELECT last_value FROM versiones_software_seq);
@@ -0,0 +1,47 @@
+-- Índices para las consultas de los repositorios. PostgreSQL no indexa las claves foráneas por
+-- sí mismo: cada id_* queda cubierto como primera columna de algún índice compuesto.
+-- Las búsquedas LIKE '%texto%' (nombre, titulo, tags) no pueden usar un B-tree y quedan fuera.
+
+-- embarcaciones
+CREATE INDEX IF NOT EXISTS idx_embarcaciones_nombre_id ON embarcaciones (nombre, id_embarcacion);
+CREATE INDEX IF NOT EXISTS idx_embarcaciones_estado ON embarcaciones (estado);
+CREATE INDEX IF NOT EXISTS idx_embarcaciones_empresa_propietaria ON embarcaciones (empresa_propietaria);
+
+-- tipos_sistema
+CREATE INDEX IF NOT EXISTS idx_tipos_sistema_nombre_id ON tipos_sistema (nombre, id_tipo_sistema);
+CREATE INDEX IF NOT EXISTS idx_tipos_sistema_categoria ON tipos_sistema (categoria);
+
+-- sistemas
+CREATE INDEX IF NOT EXISTS idx_sistemas_nombre_id ON sistemas (nombre, id_sistema);
+CREATE INDEX IF NOT EXISTS idx_sistemas_fecha_instalacion_id ON sistemas (fecha_instalacion, id_sistema);
+CREATE INDEX IF NOT EXISTS idx_sistemas_embarcacion_id ON sistemas (id_embarcacion, id_sistema);
+CREATE INDEX IF NOT EXISTS idx_sistemas_tipo_sistema_id ON sistemas (id_tipo_sistema, id_sistema);
+CREATE INDEX IF NOT EXISTS idx_sistemas_estado_id ON sistemas (estado, id_sistema);
+-- findSistemasRequiringMaintenance: "<= :fecha OR IS NULL" se resuelve con un BitmapOr sobre este índice
+CREATE INDEX IF NOT EXISTS idx_sistemas_fecha_proximo_mantenimiento ON sistemas (fecha_proximo_mantenimiento);
+
+-- componentes
+CREATE INDEX IF NOT EXISTS idx_componentes_nombre_id ON componentes (nombre, id_componente);
+CREATE INDEX IF NOT EXISTS idx_componentes_sistema_estado ON componentes (id_sistema, estado);
+
+-- documentacion
+CREATE INDEX IF NOT EXISTS idx_documentacion_titulo_id ON documentacion (titulo, id_documento);
+CREATE INDEX IF NOT EXISTS idx_documentacion_sistema ON documentacion (id_sistema);
+CREATE INDEX IF NOT EXISTS idx_documentacion_tipo_documento ON documentacion (tipo_documento);
+
+-- especificaciones_tecnicas: id_sistema ya tiene el índice de su restricción UNIQUE
+
+-- mantenimientos (el rango de fechas usa idx_mantenimientos_fecha_inicio_id)
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_fecha_inicio_id ON mantenimientos (fecha_inicio, id_mantenimiento);
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_sistema_fecha_inicio ON mantenimientos (id_sistema, fecha_inicio DESC);
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_sistema_estado_fecha_inicio ON mantenimientos (id_sistema, estado, fecha_inicio DESC);
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_tipo_fecha_inicio ON mantenimientos (tipo, fecha_inicio DESC);
+
+-- versiones_software
+CREATE INDEX IF NOT EXISTS idx_versiones_fecha_instalacion_id ON versiones_software (fecha_instalacion, id_version);
+CREATE INDEX IF NOT EXISTS idx_versiones_sistema_estado ON versiones_software (id_sistema, estado);
+CREATE INDEX IF NOT EXISTS idx_versiones_sistema_fecha_instalacion ON versiones_software (id_sistema, fecha_instalacion DESC);
+CREATE INDEX IF NOT EXISTS idx_versiones_fecha_fin_soporte ON versiones_software (fecha_fin_soporte);
+
+ANALYZE embarcaciones, tipos_sistema, sistemas, componentes, documentacion,
+        especificaciones_tecnicas, mantenimientos, versiones_software;
@@ -0,0 +1,55 @@
+-- Marca de modificación en todas las tablas, base de los ETag (detalle: id + updated_at;
+-- listados: MAX(updated_at) + COUNT). Hibernate la fija con @UpdateTimestamp; el trigger cubre
+-- las escrituras por SQL que no la actualizan, sin pisar el valor que ya trae la fila.
+
+CREATE OR REPLACE FUNCTION techdoc_marcar_modificacion() RETURNS trigger AS $$
+BEGIN
+    IF NEW.updated_at IS NOT DISTINCT FROM OLD.updated_at THEN
+        NEW.updated_at := clock_timestamp();
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- sistemas ya tenía created_at/updated_at, pero updated_at solo se fijaba al crear
+UPDATE sistemas SET created_at = COALESCE(created_at, now()), updated_at = COALESCE(updated_at, created_at, now())
+WHERE created_at IS NULL OR updated_at IS NULL;
+ALTER TABLE sistemas ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE sistemas ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE sistemas ALTER COLUMN updated_at SET DEFAULT now();
+ALTER TABLE sistemas ALTER COLUMN updated_at SET NOT NULL;
+
+ALTER TABLE embarcaciones ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+ALTER TABLE tipos_sistema ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+ALTER TABLE componentes ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+ALTER TABLE documentacion ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+ALTER TABLE especificaciones_tecnicas ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+ALTER TABLE mantenimientos ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+ALTER TABLE versiones_software ADD COLUMN IF NOT EXISTS updated_at timestamp(6) NOT NULL DEFAULT now();
+
+CREATE TRIGGER trg_embarcaciones_modificacion BEFORE UPDATE ON embarcaciones
+    FOR EACH ROW EXECUTE FUNCTION techdoc_marcar_modificacion();
+CREATE TRIGGER trg_tipos_sistema_modificacion BEFORE UPDATE ON tipos_sistema
+    FOR EACH ROW EXECUTE FUNCTION techdoc_marcar_modificacion();
+CREATE TRIGGER trg_sistemas_modificacion BEFORE UPDATE ON sistemas
+    FOR EACH ROW EXECUTE FUNCTION techdoc_marcar_modificacion();
+CREATE TRIGGER trg_componentes_modificacion BEFORE UPDATE ON componentes
+    FOR EACH ROW EXECUTE FUNCTION techdoc_marcar_modificacion();
+CREATE TRIGGER trg_documentacion_modificacion BEFORE UPDATE ON documentacion
+    FOR EACH ROW EXECUTE FUNCTION techdoc_marcar_modificacion();
+CREATE TRIGGER trg_especificaciones_tecnicas_modificacion BEFORE UPDATE ON especificaciones_tecnicas
+    FOR EACH ROW EXECUTE FUNCTION techdoc_marcar_modificacion();
+CREATE TRIGGER trg_mantenimientos_modificacion BEFORE UPDATE ON mantenimientos
+    FOR EACH ROW EXECUTE FUNCTION techdoc_marcar_modificacion();
+CREATE TRIGGER trg_versiones_software_modificacion BEFORE UPDATE ON versiones_software
+    FOR EACH ROW EXECUTE FUNCTION techdoc_marcar_modificacion();
+
+-- MAX(updated_at) de los ETag de listado se resuelve leyendo el extremo de estos índices
+CREATE INDEX IF NOT EXISTS idx_embarcaciones_updated_at ON embarcaciones (updated_at);
+CREATE INDEX IF NOT EXISTS idx_tipos_sistema_updated_at ON tipos_sistema (updated_at);
+CREATE INDEX IF NOT EXISTS idx_sistemas_updated_at ON sistemas (updated_at);
+CREATE INDEX IF NOT EXISTS idx_componentes_updated_at ON componentes (updated_at);
+CREATE INDEX IF NOT EXISTS idx_documentacion_updated_at ON documentacion (updated_at);
+CREATE INDEX IF NOT EXISTS idx_especificaciones_tecnicas_updated_at ON especificaciones_tecnicas (updated_at);
+CREATE INDEX IF NOT EXISTS idx_mantenimientos_updated_at ON mantenimientos (updated_at);
+CREATE INDEX IF NOT EXISTS idx_versiones_software_updated_at ON versiones_software (updated_at);
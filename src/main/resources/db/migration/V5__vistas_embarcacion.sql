@@ -0,0 +1,78 @@
+-- Modelo de lectura por embarcación: el árbol completo (sistemas, componentes, documentación,
+-- versiones, mantenimientos y especificaciones) guardado como un documento jsonb que se sirve
+-- con una sola lectura por clave primaria. Los triggers encolan la embarcación afectada por
+-- cada cambio y VistaEmbarcacionService reconstruye los documentos pendientes.
+
+CREATE TABLE IF NOT EXISTS vistas_embarcacion (
+    id_embarcacion bigint       NOT NULL,
+    documento      jsonb        NOT NULL,
+    generado_en    timestamp(6) NOT NULL DEFAULT clock_timestamp(),
+    CONSTRAINT vistas_embarcacion_pkey PRIMARY KEY (id_embarcacion),
+    CONSTRAINT fk_vistas_embarcacion_embarcacion FOREIGN KEY (id_embarcacion)
+        REFERENCES embarcaciones (id_embarcacion) ON DELETE CASCADE
+);
+
+-- Sin clave foránea: una embarcación borrada puede seguir encolada y el worker solo la descarta.
+-- marcado_en es el cambio más antiguo sin procesar (ON CONFLICT DO NOTHING no lo adelanta)
+CREATE TABLE IF NOT EXISTS vistas_embarcacion_pendientes (
+    id_embarcacion bigint       NOT NULL,
+    marcado_en     timestamp(6) NOT NULL DEFAULT clock_timestamp(),
+    CONSTRAINT vistas_embarcacion_pendientes_pkey PRIMARY KEY (id_embarcacion)
+);
+
+CREATE INDEX IF NOT EXISTS idx_vistas_embarcacion_pendientes_marcado_en
+    ON vistas_embarcacion_pendientes (marcado_en);
+
+CREATE OR REPLACE FUNCTION techdoc_encolar_vista_embarcacion() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'DELETE' THEN
+        INSERT INTO vistas_embarcacion_pendientes (id_embarcacion)
+        VALUES (NEW.id_embarcacion)
+        ON CONFLICT DO NOTHING;
+    END IF;
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.id_embarcacion IS DISTINCT FROM NEW.id_embarcacion) THEN
+        INSERT INTO vistas_embarcacion_pendientes (id_embarcacion)
+        VALUES (OLD.id_embarcacion)
+        ON CONFLICT DO NOTHING;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Tablas hijas de sistemas: la embarcación se resuelve a través del sistema
+CREATE OR REPLACE FUNCTION techdoc_encolar_vista_embarcacion_por_sistema() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'DELETE' THEN
+        INSERT INTO vistas_embarcacion_pendientes (id_embarcacion)
+        SELECT s.id_embarcacion FROM sistemas s WHERE s.id_sistema = NEW.id_sistema
+        ON CONFLICT DO NOTHING;
+    END IF;
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.id_sistema IS DISTINCT FROM NEW.id_sistema) THEN
+        INSERT INTO vistas_embarcacion_pendientes (id_embarcacion)
+        SELECT s.id_embarcacion FROM sistemas s WHERE s.id_sistema = OLD.id_sistema
+        ON CONFLICT DO NOTHING;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- El borrado de la embarcación ya elimina su vista en cascada
+CREATE TRIGGER trg_embarcaciones_vista AFTER INSERT OR UPDATE ON embarcaciones
+    FOR EACH ROW EXECUTE FUNCTION techdoc_encolar_vista_embarcacion();
+CREATE TRIGGER trg_sistemas_vista AFTER INSERT OR UPDATE OR DELETE ON sistemas
+    FOR EACH ROW EXECUTE FUNCTION techdoc_encolar_vista_embarcacion();
+CREATE TRIGGER trg_componentes_vista AFTER INSERT OR UPDATE OR DELETE ON componentes
+    FOR EACH ROW EXECUTE FUNCTION techdoc_encolar_vista_embarcacion_por_sistema();
+CREATE TRIGGER trg_documentacion_vista AFTER INSERT OR UPDATE OR DELETE ON documentacion
+    FOR EACH ROW EXECUTE FUNCTION techdoc_encolar_vista_embarcacion_por_sistema();
+CREATE TRIGGER trg_especificaciones_tecnicas_vista AFTER INSERT OR UPDATE OR DELETE ON especificaciones_tecnicas
+    FOR EACH ROW EXECUTE FUNCTION techdoc_encolar_vista_embarcacion_por_sistema();
+CREATE TRIGGER trg_mantenimientos_vista AFTER INSERT OR UPDATE OR DELETE ON mantenimientos
+    FOR EACH ROW EXECUTE FUNCTION techdoc_encolar_vista_embarcacion_por_sistema();
+CREATE TRIGGER trg_versiones_software_vista AFTER INSERT OR UPDATE OR DELETE ON versiones_software
+    FOR EACH ROW EXECUTE FUNCTION techdoc_encolar_vista_embarcacion_por_sistema();
+
+-- Las embarcaciones existentes se construyen en los primeros ciclos del worker
+INSERT INTO vistas_embarcacion_pendientes (id_embarcacion)
+SELECT id_embarcacion FROM embarcaciones
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,209 @@
+-- Contadores desnormalizados para los listados ("N sistemas / N componentes / N documentos /
+-- N mantenimientos abiertos"). Los mantienen triggers en la misma transacción que la escritura
+-- de la fila hija; techdoc_reconciliar_* corrige cualquier desviación (ver ReconciliacionContadores).
+-- Un mantenimiento está abierto mientras está PLANIFICADO o EN_PROGRESO.
+
+ALTER TABLE sistemas ADD COLUMN IF NOT EXISTS total_componentes integer NOT NULL DEFAULT 0;
+ALTER TABLE sistemas ADD COLUMN IF NOT EXISTS total_documentos integer NOT NULL DEFAULT 0;
+ALTER TABLE sistemas ADD COLUMN IF NOT EXISTS mantenimientos_abiertos integer NOT NULL DEFAULT 0;
+
+ALTER TABLE embarcaciones ADD COLUMN IF NOT EXISTS total_sistemas integer NOT NULL DEFAULT 0;
+ALTER TABLE embarcaciones ADD COLUMN IF NOT EXISTS total_componentes integer NOT NULL DEFAULT 0;
+ALTER TABLE embarcaciones ADD COLUMN IF NOT EXISTS total_documentos integer NOT NULL DEFAULT 0;
+ALTER TABLE embarcaciones ADD COLUMN IF NOT EXISTS mantenimientos_abiertos integer NOT NULL DEFAULT 0;
+
+-- Suma n * signo a la columna del sistema y de su embarcación, n = veces que aparece cada id en ids
+CREATE OR REPLACE FUNCTION techdoc_sumar_contador(columna text, ids bigint[], signo integer) RETURNS void AS $$
+BEGIN
+    IF cardinality(ids) = 0 THEN
+        RETURN;
+    END IF;
+    EXECUTE format('UPDATE sistemas s SET %1$I = s.%1$I + d.n * $2
+                    FROM (SELECT id, count(*) AS n FROM unnest($1) AS id GROUP BY id) d
+                    WHERE s.id_sistema = d.id', columna)
+        USING ids, signo;
+    EXECUTE format('UPDATE embarcaciones e SET %1$I = e.%1$I + d.n * $2
+                    FROM (SELECT s.id_embarcacion, count(*) AS n
+                          FROM unnest($1) AS id JOIN sistemas s ON s.id_sistema = id
+                          GROUP BY s.id_embarcacion) d
+                    WHERE e.id_embarcacion = d.id_embarcacion', columna)
+        USING ids, signo;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Inserciones y borrados, por sentencia: un lote de N filas hace una actualización por sistema
+CREATE OR REPLACE FUNCTION techdoc_contar_hijos() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM techdoc_sumar_contador(TG_ARGV[0], ARRAY(SELECT id_sistema FROM nuevas), 1);
+    ELSE
+        PERFORM techdoc_sumar_contador(TG_ARGV[0], ARRAY(SELECT id_sistema FROM viejas), -1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION techdoc_contar_mantenimientos_abiertos() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM techdoc_sumar_contador('mantenimientos_abiertos', ARRAY(
+            SELECT id_sistema FROM nuevas WHERE estado IN ('PLANIFICADO', 'EN_PROGRESO')), 1);
+    ELSE
+        PERFORM techdoc_sumar_contador('mantenimientos_abiertos', ARRAY(
+            SELECT id_sistema FROM viejas WHERE estado IN ('PLANIFICADO', 'EN_PROGRESO')), -1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Actualizaciones, por fila y solo cuando cambia el sistema (o el estado abierto/cerrado)
+CREATE OR REPLACE FUNCTION techdoc_mover_hijo() RETURNS trigger AS $$
+BEGIN
+    PERFORM techdoc_sumar_contador(TG_ARGV[0], ARRAY[OLD.id_sistema], -1);
+    PERFORM techdoc_sumar_contador(TG_ARGV[0], ARRAY[NEW.id_sistema], 1);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION techdoc_mover_mantenimiento() RETURNS trigger AS $$
+BEGIN
+    IF OLD.estado IN ('PLANIFICADO', 'EN_PROGRESO') THEN
+        PERFORM techdoc_sumar_contador('mantenimientos_abiertos', ARRAY[OLD.id_sistema], -1);
+    END IF;
+    IF NEW.estado IN ('PLANIFICADO', 'EN_PROGRESO') THEN
+        PERFORM techdoc_sumar_contador('mantenimientos_abiertos', ARRAY[NEW.id_sistema], 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sistemas: total_sistemas de la embarcación, y al cambiar de embarcación se llevan sus contadores
+CREATE OR REPLACE FUNCTION techdoc_contar_sistemas() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE embarcaciones
+        SET total_sistemas = total_sistemas - 1,
+            total_componentes = total_componentes - OLD.total_componentes,
+            total_documentos = total_documentos - OLD.total_documentos,
+            mantenimientos_abiertos = mantenimientos_abiertos - OLD.mantenimientos_abiertos
+        WHERE id_embarcacion = OLD.id_embarcacion;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE embarcaciones
+        SET total_sistemas = total_sistemas + 1,
+            total_componentes = total_componentes + NEW.total_componentes,
+            total_documentos = total_documentos + NEW.total_documentos,
+            mantenimientos_abiertos = mantenimientos_abiertos + NEW.mantenimientos_abiertos
+        WHERE id_embarcacion = NEW.id_embarcacion;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_componentes_contar_insert AFTER INSERT ON componentes
+    REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION techdoc_contar_hijos('total_componentes');
+CREATE TRIGGER trg_componentes_contar_delete AFTER DELETE ON componentes
+    REFERENCING OLD TABLE AS viejas
+    FOR EACH STATEMENT EXECUTE FUNCTION techdoc_contar_hijos('total_componentes');
+CREATE TRIGGER trg_componentes_contar_update AFTER UPDATE OF id_sistema ON componentes
+    FOR EACH ROW WHEN (OLD.id_sistema IS DISTINCT FROM NEW.id_sistema)
+    EXECUTE FUNCTION techdoc_mover_hijo('total_componentes');
+
+CREATE TRIGGER trg_documentacion_contar_insert AFTER INSERT ON documentacion
+    REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION techdoc_contar_hijos('total_documentos');
+CREATE TRIGGER trg_documentacion_contar_delete AFTER DELETE ON documentacion
+    REFERENCING OLD TABLE AS viejas
+    FOR EACH STATEMENT EXECUTE FUNCTION techdoc_contar_hijos('total_documentos');
+CREATE TRIGGER trg_documentacion_contar_update AFTER UPDATE OF id_sistema ON documentacion
+    FOR EACH ROW WHEN (OLD.id_sistema IS DISTINCT FROM NEW.id_sistema)
+    EXECUTE FUNCTION techdoc_mover_hijo('total_documentos');
+
+CREATE TRIGGER trg_mantenimientos_contar_insert AFTER INSERT ON mantenimientos
+    REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION techdoc_contar_mantenimientos_abiertos();
+CREATE TRIGGER trg_mantenimientos_contar_delete AFTER DELETE ON mantenimientos
+    REFERENCING OLD TABLE AS viejas
+    FOR EACH STATEMENT EXECUTE FUNCTION techdoc_contar_mantenimientos_abiertos();
+CREATE TRIGGER trg_mantenimientos_contar_update AFTER UPDATE OF id_sistema, estado ON mantenimientos
+    FOR EACH ROW WHEN (OLD.id_sistema IS DISTINCT FROM NEW.id_sistema
+        OR (OLD.estado IN ('PLANIFICADO', 'EN_PROGRESO')) IS DISTINCT FROM (NEW.estado IN ('PLANIFICADO', 'EN_PROGRESO')))
+    EXECUTE FUNCTION techdoc_mover_mantenimiento();
+
+CREATE TRIGGER trg_sistemas_contar_insert AFTER INSERT ON sistemas
+    FOR EACH ROW EXECUTE FUNCTION techdoc_contar_sistemas();
+CREATE TRIGGER trg_sistemas_contar_delete AFTER DELETE ON sistemas
+    FOR EACH ROW EXECUTE FUNCTION techdoc_contar_sistemas();
+CREATE TRIGGER trg_sistemas_contar_update AFTER UPDATE OF id_embarcacion ON sistemas
+    FOR EACH ROW WHEN (OLD.id_embarcacion IS DISTINCT FROM NEW.id_embarcacion)
+    EXECUTE FUNCTION techdoc_contar_sistemas();
+
+-- Reconciliación. Se bloquea primero la fila padre: un trigger concurrente que ya la tenga
+-- bloqueada confirma antes, y uno que llegue después espera a que el recuento esté escrito,
+-- así que el recuento (nueva instantánea por sentencia) no pisa un incremento en curso.
+CREATE OR REPLACE FUNCTION techdoc_reconciliar_sistemas(ids bigint[]) RETURNS integer AS $$
+DECLARE
+    corregidos integer;
+BEGIN
+    PERFORM 1 FROM sistemas WHERE id_sistema = ANY (ids) ORDER BY id_sistema FOR UPDATE;
+    UPDATE sistemas s
+    SET total_componentes = r.componentes,
+        total_documentos = r.documentos,
+        mantenimientos_abiertos = r.abiertos
+    FROM (SELECT s2.id_sistema,
+                 (SELECT count(*) FROM componentes c WHERE c.id_sistema = s2.id_sistema) AS componentes,
+                 (SELECT count(*) FROM documentacion d WHERE d.id_sistema = s2.id_sistema) AS documentos,
+                 (SELECT count(*) FROM mantenimientos m WHERE m.id_sistema = s2.id_sistema
+                      AND m.estado IN ('PLANIFICADO', 'EN_PROGRESO')) AS abiertos
+          FROM sistemas s2
+          WHERE s2.id_sistema = ANY (ids)) r
+    WHERE s.id_sistema = r.id_sistema
+      AND (s.total_componentes, s.total_documentos, s.mantenimientos_abiertos)
+          IS DISTINCT FROM (r.componentes::integer, r.documentos::integer, r.abiertos::integer);
+    GET DIAGNOSTICS corregidos = ROW_COUNT;
+    RETURN corregidos;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION techdoc_reconciliar_embarcaciones(ids bigint[]) RETURNS integer AS $$
+DECLARE
+    corregidas integer;
+BEGIN
+    PERFORM 1 FROM embarcaciones WHERE id_embarcacion = ANY (ids) ORDER BY id_embarcacion FOR UPDATE;
+    UPDATE embarcaciones e
+    SET total_sistemas = r.sistemas,
+        total_componentes = r.componentes,
+        total_documentos = r.documentos,
+        mantenimientos_abiertos = r.abiertos
+    FROM (SELECT e2.id_embarcacion,
+                 (SELECT count(*) FROM sistemas s WHERE s.id_embarcacion = e2.id_embarcacion) AS sistemas,
+                 (SELECT count(*) FROM componentes c JOIN sistemas s ON s.id_sistema = c.id_sistema
+                      WHERE s.id_embarcacion = e2.id_embarcacion) AS componentes,
+                 (SELECT count(*) FROM documentacion d JOIN sistemas s ON s.id_sistema = d.id_sistema
+                      WHERE s.id_embarcacion = e2.id_embarcacion) AS documentos,
+                 (SELECT count(*) FROM mantenimientos m JOIN sistemas s ON s.id_sistema = m.id_sistema
+                      WHERE s.id_embarcacion = e2.id_embarcacion
+                        AND m.estado IN ('PLANIFICADO', 'EN_PROGRESO')) AS abiertos
+          FROM embarcaciones e2
+          WHERE e2.id_embarcacion = ANY (ids)) r
+    WHERE e.id_embarcacion = r.id_embarcacion
+      AND (e.total_sistemas, e.total_componentes, e.total_documentos, e.mantenimientos_abiertos)
+          IS DISTINCT FROM (r.sistemas::integer, r.componentes::integer, r.documentos::integer, r.abiertos::integer);
+    GET DIAGNOSTICS corregidas = ROW_COUNT;
+    RETURN corregidas;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Valores iniciales
+SELECT techdoc_reconciliar_sistemas(ARRAY(SELECT id_sistema FROM sistemas));
+SELECT techdoc_reconciliar_embarcaciones(ARRAY(SELECT id_embarcacion FROM embarcaciones));
+
+-- Orden por contador en la paginación por cursor: (contador, id)
+CREATE INDEX IF NOT EXISTS idx_sistemas_total_componentes ON sistemas (total_componentes, id_sistema);
+CREATE INDEX IF NOT EXISTS idx_sistemas_total_documentos ON sistemas (total_documentos, id_sistema);
+CREATE INDEX IF NOT EXISTS idx_sistemas_mantenimientos_abiertos ON sistemas (mantenimientos_abiertos, id_sistema);
+CREATE INDEX IF NOT EXISTS idx_embarcaciones_total_sistemas ON embarcaciones (total_sistemas, id_embarcacion);
+CREATE INDEX IF NOT EXISTS idx_embarcaciones_total_componentes ON embarcaciones (total_componentes, id_embarcacion);
+CREATE INDEX IF NOT EXISTS idx_embarcaciones_total_documentos ON embarcaciones (total_documentos, id_embarcacion);
+CREATE INDEX IF NOT EXISTS idx_embarcaciones_mantenimientos_abiertos ON embarcaciones (mantenimientos_abiertos, id_embarcacion);
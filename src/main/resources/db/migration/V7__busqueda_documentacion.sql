@@ -0,0 +1,45 @@
+-- Búsqueda de texto completo en documentacion: tsvector sobre título, tags, tipo y descripción
+-- con una configuración española sin tildes ("hidraulica" encuentra "hidráulica") e índice GIN.
+-- Lo mantiene un trigger en cada escritura, también en las que no pasan por Hibernate.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'es_unaccent') THEN
+        CREATE TEXT SEARCH CONFIGURATION es_unaccent (COPY = spanish);
+        ALTER TEXT SEARCH CONFIGURATION es_unaccent
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, spanish_stem;
+    END IF;
+END;
+$$;
+
+ALTER TABLE documentacion ADD COLUMN IF NOT EXISTS busqueda tsvector;
+
+-- Pesos: título A, tags y tipo B, descripción C (ts_rank prioriza coincidencias en el título)
+CREATE OR REPLACE FUNCTION techdoc_documentacion_vector(titulo text, tags text, tipo text, descripcion text)
+    RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('es_unaccent', coalesce(titulo, '')), 'A') ||
+           setweight(to_tsvector('es_unaccent', coalesce(tags, '') || ' ' || coalesce(tipo, '')), 'B') ||
+           setweight(to_tsvector('es_unaccent', coalesce(descripcion, '')), 'C');
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION techdoc_documentacion_busqueda() RETURNS trigger AS $$
+BEGIN
+    NEW.busqueda := techdoc_documentacion_vector(NEW.titulo, NEW.tags, NEW.tipo_documento, NEW.descripcion);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_documentacion_busqueda BEFORE INSERT OR UPDATE OF titulo, tags, tipo_documento, descripcion
+    ON documentacion
+    FOR EACH ROW EXECUTE FUNCTION techdoc_documentacion_busqueda();
+
+-- Relleno de las filas existentes sin tocar updated_at (cambiaría los ETag) ni encolar vistas
+ALTER TABLE documentacion DISABLE TRIGGER trg_documentacion_modificacion;
+ALTER TABLE documentacion DISABLE TRIGGER trg_documentacion_vista;
+UPDATE documentacion SET busqueda = techdoc_documentacion_vector(titulo, tags, tipo_documento, descripcion);
+ALTER TABLE documentacion ENABLE TRIGGER trg_documentacion_modificacion;
+ALTER TABLE documentacion ENABLE TRIGGER trg_documentacion_vista;
+
+CREATE INDEX IF NOT EXISTS idx_documentacion_busqueda ON documentacion USING gin (busqueda);
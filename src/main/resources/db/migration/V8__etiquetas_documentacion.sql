@@ -0,0 +1,53 @@
+-- Etiquetas de documentacion: de la cadena separada por comas (tags varchar, buscada con LIKE '%x%')
+-- a un text[] normalizado (minúsculas, sin espacios sobrantes, sin repetidas, ordenado) con índice GIN.
+-- Las búsquedas pasan a ser exactas ("bomba" ya no encuentra "bombas-aux") y usan el índice:
+-- etiquetas @> '{a,b}' (todas), etiquetas && '{a,b}' (alguna).
+--
+-- La columna tags se mantiene, sincronizada por el trigger, mientras convivan nodos anteriores a
+-- esta versión (solo leen y escriben tags) y para poder volver atrás. Se eliminará, junto con
+-- techdoc_etiquetas y la rama de transición del trigger, en una migración de una versión posterior.
+
+ALTER TABLE documentacion ADD COLUMN IF NOT EXISTS etiquetas text[] NOT NULL DEFAULT '{}';
+
+CREATE OR REPLACE FUNCTION techdoc_etiquetas(tags text) RETURNS text[] AS $$
+    SELECT coalesce(array_agg(DISTINCT lower(btrim(t)) ORDER BY lower(btrim(t))), '{}')
+    FROM unnest(string_to_array(tags, ',')) AS t
+    WHERE btrim(t) <> ''
+$$ LANGUAGE sql IMMUTABLE;
+
+-- El vector de búsqueda (V7) pasa a leer las etiquetas del array
+DROP TRIGGER IF EXISTS trg_documentacion_busqueda ON documentacion;
+
+CREATE OR REPLACE FUNCTION techdoc_documentacion_busqueda() RETURNS trigger AS $$
+BEGIN
+    -- Transición: un nodo anterior escribe tags y deja etiquetas como estaban
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.etiquetas = '{}' AND NEW.tags IS NOT NULL THEN
+            NEW.etiquetas := techdoc_etiquetas(NEW.tags);
+        END IF;
+    ELSIF NEW.tags IS DISTINCT FROM OLD.tags AND NEW.etiquetas = OLD.etiquetas THEN
+        NEW.etiquetas := techdoc_etiquetas(NEW.tags);
+    END IF;
+    NEW.tags := nullif(left(array_to_string(NEW.etiquetas, ','), 255), '');
+    NEW.busqueda := techdoc_documentacion_vector(NEW.titulo, array_to_string(NEW.etiquetas, ' '),
+                                                 NEW.tipo_documento, NEW.descripcion);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_documentacion_busqueda BEFORE INSERT OR UPDATE OF titulo, etiquetas, tags, tipo_documento, descripcion
+    ON documentacion
+    FOR EACH ROW EXECUTE FUNCTION techdoc_documentacion_busqueda();
+
+-- Relleno sin tocar updated_at ni encolar vistas; el trigger anterior recalcula busqueda
+ALTER TABLE documentacion DISABLE TRIGGER trg_documentacion_modificacion;
+ALTER TABLE documentacion DISABLE TRIGGER trg_documentacion_vista;
+UPDATE documentacion d
+SET etiquetas = techdoc_etiquetas(d.tags)
+WHERE d.tags IS NOT NULL;
+ALTER TABLE documentacion ENABLE TRIGGER trg_documentacion_modificacion;
+ALTER TABLE documentacion ENABLE TRIGGER trg_documentacion_vista;
+
+CREATE INDEX IF NOT EXISTS idx_documentacion_etiquetas ON documentacion USING gin (etiquetas);
+
+ANALYZE documentacion;
@@ -0,0 +1,22 @@
+-- Búsquedas "contiene" por nombre/título con índices de trigramas (pg_trgm) sobre el texto sin
+-- tildes y en minúsculas: "navegacion" encuentra "Navegación" y LIKE '%x%' deja de recorrer la tabla.
+-- Las consultas deben usar la misma expresión, techdoc_sin_tildes(columna), para aprovechar el índice.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() es STABLE (depende de search_path) y no sirve en un índice; con el diccionario
+-- cualificado el resultado es fijo y la función puede declararse IMMUTABLE
+CREATE OR REPLACE FUNCTION techdoc_sin_tildes(texto text) RETURNS text AS $$
+    SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto));
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+CREATE INDEX IF NOT EXISTS idx_sistemas_nombre_trgm
+    ON sistemas USING gin (techdoc_sin_tildes(nombre) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_componentes_nombre_trgm
+    ON componentes USING gin (techdoc_sin_tildes(nombre) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_documentacion_titulo_trgm
+    ON documentacion USING gin (techdoc_sin_tildes(titulo) gin_trgm_ops);
+
+-- Estadísticas de las expresiones indexadas para estimar bien la selectividad
+ANALYZE sistemas, componentes, documentacion;
@@ -0,0 +1,69 @@
+package com.perucontrols.techdoc.benchmark;
+
+import com.perucontrols.techdoc.model.Embarcacion;
+import com.perucontrols.techdoc.model.Sistema;
+import com.perucontrols.techdoc.model.TipoSistema;
+import com.perucontrols.techdoc.repository.EmbarcacionRepository;
+import com.perucontrols.techdoc.repository.SistemaRepository;
+import com.perucontrols.techdoc.repository.TipoSistemaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Base de los benchmarks que insertan componentes: antes de cada uno crea un tipo de sistema, una
+ * embarcación y un sistema propios, y al terminar los borra junto con sus componentes. Requiere
+ * una base PostgreSQL en DB_URL; se ejecutan con {@code ./gradlew benchmark}.
+ */
+@SpringBootTest
+@Tag("benchmark")
+abstract class BenchmarkConSistema {
+
+    @Autowired
+    protected SistemaRepository sistemaRepository;
+    @Autowired
+    protected EmbarcacionRepository embarcacionRepository;
+    @Autowired
+    protected TipoSistemaRepository tipoSistemaRepository;
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    @Autowired
+    protected TransactionTemplate transactionTemplate;
+
+    protected Sistema sistema;
+
+    @BeforeEach
+    void crearSistema() {
+        TipoSistema tipo = new TipoSistema();
+        tipo.setNombre("benchmark");
+        tipo.setCategoria(TipoSistema.CategoriaSistema.OTRO);
+        tipo = tipoSistemaRepository.save(tipo);
+
+        Embarcacion embarcacion = new Embarcacion();
+        embarcacion.setNombre("benchmark");
+        embarcacion.setMatricula("BENCH-" + UUID.randomUUID());
+        embarcacion = embarcacionRepository.save(embarcacion);
+
+        Sistema nuevo = new Sistema();
+        nuevo.setNombre("benchmark");
+        nuevo.setEmbarcacion(embarcacion);
+        nuevo.setTipoSistema(tipo);
+        nuevo.setFechaInstalacion(LocalDate.now());
+        sistema = sistemaRepository.save(nuevo);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM componentes WHERE id_sistema = ?", sistema.getId());
+        sistemaRepository.deleteById(sistema.getId());
+        embarcacionRepository.deleteById(sistema.getEmbarcacion().getId());
+        tipoSistemaRepository.deleteById(sistema.getTipoSistema().getId());
+    }
+}
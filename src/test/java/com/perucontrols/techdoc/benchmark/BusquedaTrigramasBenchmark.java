@@ -0,0 +1,90 @@
+package com.perucontrols.techdoc.benchmark;
+
+import com.perucontrols.techdoc.repository.ComponenteRepository;
+import com.perucontrols.techdoc.repository.Filtros;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara la búsqueda de componentes por nombre con {@code LIKE '%x%'} (recorrido completo,
+ * sensible a mayúsculas y tildes) contra la consulta de trigramas de V9 sobre 1M de componentes
+ * sintéticos. Ver {@link BenchmarkConSistema}.
+ */
+class BusquedaTrigramasBenchmark extends BenchmarkConSistema {
+
+    private static final int FILAS = 1_000_000;
+    private static final int REPETICIONES = 20;
+
+    @Autowired
+    private ComponenteRepository componenteRepository;
+
+    /** Tras {@link BenchmarkConSistema#crearSistema}: los componentes cuelgan de su sistema. */
+    @BeforeEach
+    void crearComponentes() {
+        // Nombres como "Navegación 3f1c9a2b": palabra con tildes y sufijo casi único
+        jdbcTemplate.update("""
+                INSERT INTO componentes (id_componente, id_sistema, nombre, estado)
+                SELECT nextval('componentes_seq'), ?,
+                       (ARRAY['Bomba', 'Válvula', 'Navegación', 'Sensor', 'Compresor', 'Radar', 'Hélice', 'Motor'])[1 + i % 8]
+                           || ' ' || substr(md5(i::text), 1, 8),
+                       'OPERATIVO'
+                FROM generate_series(1, ?) AS i
+                """, sistema.getId(), FILAS);
+        jdbcTemplate.execute("ANALYZE componentes");
+    }
+
+    @Test
+    void likeVsTrigramas() {
+        // i = 42 → 42 % 8 = 2 → "Navegación"
+        String sufijo = jdbcTemplate.queryForObject("SELECT substr(md5('42'), 1, 6)", String.class);
+        String exacto = "Navegación " + sufijo;
+        String sinTildes = "navegacion " + sufijo;
+
+        List<Long> antes = jdbcTemplate.queryForList(
+                "SELECT id_componente FROM componentes WHERE nombre LIKE ?", Long.class, "%" + sinTildes + "%");
+        double msLike = mediana(() -> jdbcTemplate.queryForList(
+                "SELECT id_componente FROM componentes WHERE nombre LIKE ?", Long.class, "%" + exacto + "%"));
+
+        PageRequest pagina = PageRequest.of(0, 20);
+        Page<Long> despues = buscar(sinTildes, pagina);
+        double msTrigramas = mediana(() -> buscar(sinTildes, pagina));
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT c.id_componente FROM componentes c "
+                        + "WHERE techdoc_sin_tildes(c.nombre) LIKE '%' || techdoc_sin_tildes(?) || '%'",
+                String.class, Filtros.escaparLike(sinTildes)));
+
+        assertEquals(0, antes.size(), "LIKE distingue tildes y no debería encontrar el texto sin ellas");
+        assertTrue(despues.getTotalElements() >= 1, "La búsqueda sin tildes debería encontrar el componente");
+        assertTrue(plan.contains("idx_componentes_nombre_trgm"), "Plan sin el índice de trigramas:\n" + plan);
+        System.out.printf("Búsqueda por nombre en %d componentes: LIKE %.1f ms, trigramas %.1f ms (x%.0f)%n",
+                FILAS, msLike, msTrigramas, msLike / msTrigramas);
+    }
+
+    private Page<Long> buscar(String texto, PageRequest pagina) {
+        return transactionTemplate.execute(status ->
+                componenteRepository.buscarIdsPorNombre(Filtros.escaparLike(texto), texto, pagina));
+    }
+
+    private static double mediana(Supplier<?> consulta) {
+        consulta.get();
+        double[] tiempos = new double[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            consulta.get();
+            tiempos[i] = (System.nanoTime() - inicio) / 1_000_000.0;
+        }
+        Arrays.sort(tiempos);
+        return tiempos[REPETICIONES / 2];
+    }
+}
@@ -0,0 +1,60 @@
+package com.perucontrols.techdoc.benchmark;
+
+import com.perucontrols.techdoc.dto.CreateComponenteRequest;
+import com.perucontrols.techdoc.dto.LoteResponse;
+import com.perucontrols.techdoc.service.BatchWriter;
+import com.perucontrols.techdoc.service.ComponenteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara filas/segundo al insertar componentes fila por fila (un round trip por INSERT, como
+ * ocurría con IDENTITY) contra el endpoint de lote (secuencia pooled + batches JDBC).
+ * Ver {@link BenchmarkConSistema}.
+ */
+class InsercionLoteBenchmark extends BenchmarkConSistema {
+
+    private static final int FILAS = BatchWriter.MAX_LOTE;
+
+    @Autowired
+    private ComponenteService componenteService;
+
+    @Test
+    void filaPorFilaVsLote() {
+        long inicio = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < FILAS; i++) {
+                jdbcTemplate.queryForObject(
+                        "INSERT INTO componentes (id_componente, id_sistema, nombre, estado) "
+                                + "VALUES (nextval('componentes_seq'), ?, ?, 'OPERATIVO') RETURNING id_componente",
+                        Long.class, sistema.getId(), "fila-" + i);
+            }
+        });
+        double filaPorFila = FILAS / segundosDesde(inicio);
+
+        List<CreateComponenteRequest> lote = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            CreateComponenteRequest request = new CreateComponenteRequest();
+            request.setIdSistema(sistema.getId());
+            request.setNombre("lote-" + i);
+            request.setEstado("OPERATIVO");
+            lote.add(request);
+        }
+        inicio = System.nanoTime();
+        LoteResponse response = componenteService.createComponentesLote(lote);
+        double porLote = FILAS / segundosDesde(inicio);
+
+        assertEquals(FILAS, response.getCreados());
+        System.out.printf("Inserción de %d componentes: fila por fila %.0f filas/s, por lote %.0f filas/s (x%.1f)%n",
+                FILAS, filaPorFila, porLote, porLote / filaPorFila);
+    }
+
+    private static double segundosDesde(long inicioNanos) {
+        return (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+    }
+}
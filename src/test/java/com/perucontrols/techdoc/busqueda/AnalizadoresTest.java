@@ -0,0 +1,57 @@
+package com.perucontrols.techdoc.busqueda;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalizadoresTest {
+
+    private final Analyzer analizador = Analizadores.crear();
+
+    @Test
+    void elTextoLibreIgnoraTildesMayusculasYPlurales() throws IOException {
+        assertEquals(terminos(IndiceBusqueda.CONTENIDO, "bomba valvula"),
+                terminos(IndiceBusqueda.CONTENIDO, "Bombas VÁLVULAS"));
+    }
+
+    @Test
+    void elTextoLibreQuitaPalabrasVaciasConYSinTilde() throws IOException {
+        assertEquals(terminos(IndiceBusqueda.CONTENIDO, "motor"), terminos(IndiceBusqueda.CONTENIDO, "el motor de más"));
+    }
+
+    @Test
+    void losCodigosSeIndexanEnterosSinTildesNiMayusculas() throws IOException {
+        assertEquals(List.of("bom-001 n/s"), terminos(IndiceBusqueda.CODIGO, "BOM-001 Ñ/S"));
+    }
+
+    @Test
+    void losCodigosNoSeReducenALaRaiz() throws IOException {
+        assertEquals(List.of("bombas"), terminos(IndiceBusqueda.CODIGO, "BOMBAS"));
+    }
+
+    @Test
+    void normalizaLosTerminosDeComodinesYPrefijos() {
+        assertEquals("valvu", analizador.normalize(IndiceBusqueda.CONTENIDO, "VÁLVU").utf8ToString());
+        assertEquals("bom-0", analizador.normalize(IndiceBusqueda.CODIGO, "BOM-0").utf8ToString());
+    }
+
+    private List<String> terminos(String campo, String texto) throws IOException {
+        List<String> terminos = new ArrayList<>();
+        try (TokenStream stream = analizador.tokenStream(campo, texto)) {
+            CharTermAttribute termino = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terminos.add(termino.toString());
+            }
+            stream.end();
+        }
+        return terminos;
+    }
+}
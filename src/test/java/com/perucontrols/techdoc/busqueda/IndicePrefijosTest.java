@@ -0,0 +1,105 @@
+package com.perucontrols.techdoc.busqueda;
+
+import com.perucontrols.techdoc.dto.SugerenciaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class IndicePrefijosTest {
+
+    @Test
+    void normalizaMinusculasTildesYEspacios() {
+        assertEquals("valvula de alivio", IndicePrefijos.normalizar("  Válvula   de\tALIVIO "));
+    }
+
+    @Test
+    void elTextoExactoVaAntesQueSusExtensiones() {
+        IndicePrefijos indice = new IndicePrefijos(TipoResultado.COMPONENTE);
+        indice.guardar(1L, 10L, null, "Bomba x");
+        indice.guardar(2L, 10L, null, "Bomba");
+        indice.guardar(3L, 10L, null, "Bomba!");
+
+        // El separador ordena antes que el espacio y que cualquier otro carácter
+        assertEquals(List.of(2L, 1L, 3L), ids(indice.completar("bomba", null, 10)));
+    }
+
+    @Test
+    void elRangoCubreTodasLasContinuacionesDelPrefijo() {
+        IndicePrefijos indice = new IndicePrefijos(TipoResultado.COMPONENTE);
+        indice.guardar(1L, 10L, null, "Bom");
+        indice.guardar(2L, 10L, null, "Bomzz");
+        indice.guardar(3L, 10L, null, "Bom\uFFFE");
+        indice.guardar(4L, 10L, null, "Bon");
+        indice.guardar(5L, 10L, null, "Bo");
+
+        assertEquals(List.of(1L, 2L, 3L), ids(indice.completar("bom", null, 10)));
+        assertEquals(List.of(1L, 2L), ids(indice.completar("bom", null, 2)));
+    }
+
+    @Test
+    void filtraPorEmbarcacion() {
+        IndicePrefijos indice = new IndicePrefijos(TipoResultado.SISTEMA);
+        indice.guardar(1L, 10L, 1L, "Radar");
+        indice.guardar(2L, 20L, 2L, "Radar de proa");
+
+        assertEquals(List.of(2L), ids(indice.completar("radar", 20L, 10)));
+        assertEquals(List.of(), ids(indice.completar("radar", 30L, 10)));
+    }
+
+    @Test
+    void borrarQuitaLasEntradasDeAmbosMapas() {
+        IndicePrefijos indice = new IndicePrefijos(TipoResultado.COMPONENTE);
+        indice.guardar(1L, 10L, null, "Filtro", "FIL-001");
+        indice.borrar(1L);
+
+        assertFalse(indice.contiene(1L));
+        assertEquals(List.of(), ids(indice.completar("fil", null, 10)));
+        assertEquals(List.of(), ids(indice.completar("fil", 10L, 10)));
+    }
+
+    @Test
+    void moverSistemaCambiaLaEmbarcacionDeSusComponentes() {
+        IndicePrefijos indice = new IndicePrefijos(TipoResultado.COMPONENTE);
+        indice.guardar(1L, 10L, 5L, "Filtro", "FIL-001");
+        indice.guardar(2L, 10L, 6L, "Filtro de aire");
+
+        indice.moverSistema(5L, 20L);
+
+        assertEquals(20L, indice.embarcacionDe(1L));
+        assertEquals(10L, indice.embarcacionDe(2L));
+        assertEquals(List.of(1L, 1L), ids(indice.completar("fil", 20L, 10)));
+        assertEquals(List.of(2L), ids(indice.completar("fil", 10L, 10)));
+        assertEquals(2, indice.entidades());
+    }
+
+    @Test
+    void unaEntidadQueCoincidePorNombreYCodigoSaleUnaVez() {
+        IndicePrefijos componentes = new IndicePrefijos(TipoResultado.COMPONENTE);
+        componentes.guardar(1L, 10L, 5L, "Bomba de achique", "BOM-001");
+        componentes.guardar(2L, 10L, 5L, "Bomba de combustible");
+        IndicePrefijos sistemas = new IndicePrefijos(TipoResultado.SISTEMA);
+        sistemas.guardar(5L, 10L, 5L, "Bombeo", "BOM-100");
+
+        List<Map.Entry<String, SugerenciaDTO>> candidatas = new ArrayList<>();
+        candidatas.addAll(componentes.completar("bom", null, 10));
+        candidatas.addAll(sistemas.completar("bom", null, 10));
+        assertEquals(5, candidatas.size());
+
+        List<SugerenciaDTO> sugerencias = AutocompletadoService.unaPorEntidad(candidatas, 10);
+
+        assertEquals(List.of("BOM-001", "BOM-100", "Bomba de combustible"),
+                sugerencias.stream().map(SugerenciaDTO::getTexto).toList());
+        assertEquals(List.of("Bomba de achique", "Bombeo", "Bomba de combustible"),
+                sugerencias.stream().map(SugerenciaDTO::getNombre).toList());
+        assertEquals(2, AutocompletadoService.unaPorEntidad(new ArrayList<>(candidatas), 2).size());
+    }
+
+    private static List<Long> ids(List<Map.Entry<String, SugerenciaDTO>> entradas) {
+        return entradas.stream().map(e -> e.getValue().getId()).toList();
+    }
+}
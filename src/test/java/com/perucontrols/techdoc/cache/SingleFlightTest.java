@@ -0,0 +1,133 @@
+package com.perucontrols.techdoc.cache;
+
+import com.perucontrols.techdoc.dto.SingleFlightStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int HILOS = 8;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    void lasLlamadasConcurrentesCompartenUnaCarga() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        List<Future<String>> resultados = concurrentes("clave", () -> {
+            cargas.incrementAndGet();
+            return "valor";
+        });
+
+        for (Future<String> resultado : resultados) {
+            assertEquals("valor", resultado.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, cargas.get());
+        SingleFlightStatsDTO stats = singleFlight.stats();
+        assertEquals(HILOS, stats.getLlamadas());
+        assertEquals(1, stats.getCargas());
+        assertEquals(HILOS - 1, stats.getCoalescidas());
+        assertEquals(0, stats.getEnVuelo());
+    }
+
+    @Test
+    void lasEsperasRecibenLaMismaExcepcion() throws Exception {
+        IllegalStateException error = new IllegalStateException("base caída");
+        List<Future<String>> resultados = concurrentes("clave", () -> {
+            throw error;
+        });
+
+        for (Future<String> resultado : resultados) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            assertSame(error, e.getCause());
+        }
+        assertEquals(1, singleFlight.stats().getErrores());
+    }
+
+    @Test
+    void noGuardaNadaAlTerminar() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        singleFlight.ejecutar("clave", cargas::incrementAndGet);
+        singleFlight.ejecutar("clave", cargas::incrementAndGet);
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.ejecutar("clave", () -> {
+            throw new IllegalArgumentException();
+        }));
+
+        assertEquals(3, singleFlight.ejecutar("clave", cargas::incrementAndGet));
+        assertEquals(0, singleFlight.stats().getCoalescidas());
+    }
+
+    @Test
+    void clavesDistintasNoSeEsperan() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> lenta = hilos.submit(() -> singleFlight.ejecutar("a", () -> {
+                dentro.countDown();
+                esperar(soltar);
+                return "a";
+            }));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+            assertEquals("b", singleFlight.ejecutar("b", () -> "b"));
+            soltar.countDown();
+            assertEquals("a", lenta.get(5, TimeUnit.SECONDS));
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    /** Lanza {@code HILOS} llamadas con la misma clave mientras la primera carga sigue en curso. */
+    private List<Future<String>> concurrentes(String clave, Supplier<String> carga) throws InterruptedException {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            resultados.add(hilos.submit(() -> singleFlight.ejecutar(clave, () -> {
+                dentro.countDown();
+                esperar(soltar);
+                return carga.get();
+            })));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < HILOS; i++) {
+                resultados.add(hilos.submit(() -> singleFlight.ejecutar(clave, () -> {
+                    throw new AssertionError("La carga no debía repetirse");
+                })));
+            }
+            // Las demás ya están esperando la carga en curso antes de soltarla
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (singleFlight.stats().getCoalescidas() < HILOS - 1 && System.nanoTime() < limite) {
+                Thread.onSpinWait();
+            }
+            soltar.countDown();
+            return resultados;
+        } finally {
+            hilos.shutdown();
+        }
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.perucontrols.techdoc.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection deLaPrimaria = mock(Connection.class);
+    private final DataSource primaria = fuente(deLaPrimaria);
+
+    @AfterEach
+    void limpiarTransaccion() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lasEscriturasVanALaPrimaria() throws SQLException {
+        Connection deLaReplica = sana();
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", fuente(deLaReplica)));
+
+        assertSame(deLaPrimaria, routing.getConnection());
+    }
+
+    @Test
+    void lasLecturasVanAUnaReplicaSana() throws SQLException {
+        Connection deLaReplica = sana();
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", fuente(deLaReplica)));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(deLaReplica, routing.getConnection());
+    }
+
+    @Test
+    void lasLecturasSeRepartenEntreLasReplicas() throws SQLException {
+        Connection deLaPrimera = sana();
+        Connection deLaSegunda = sana();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", fuente(deLaPrimera));
+        replicas.put("replica-2", fuente(deLaSegunda));
+        ReplicaRoutingDataSource routing = routing(replicas);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(deLaPrimera, routing.getConnection());
+        assertSame(deLaSegunda, routing.getConnection());
+        assertSame(deLaPrimera, routing.getConnection());
+    }
+
+    @Test
+    void sinReplicasSanasLeeDeLaPrimariaHastaQueSeRecupere() throws SQLException {
+        Connection deLaReplica = mock(Connection.class);
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", fuente(deLaReplica)));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(deLaPrimaria, routing.getConnection());
+
+        when(deLaReplica.isValid(anyInt())).thenReturn(true);
+        routing.verificarReplicas();
+        assertSame(deLaReplica, routing.getConnection());
+    }
+
+    @Test
+    void siLaReplicaFallaAlConectarSeUsaLaPrimariaYQuedaFuera() throws SQLException {
+        Connection deLaReplica = sana();
+        DataSource replica = fuente(deLaReplica);
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", replica));
+        doThrow(new SQLException("Connection refused")).when(replica).getConnection();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(deLaPrimaria, routing.getConnection());
+        assertSame(deLaPrimaria, routing.getConnection());
+        // Una vez al verificar en el constructor y otra al fallar; después ya no se intenta
+        verify(replica, times(2)).getConnection();
+    }
+
+    @Test
+    void elClienteQueAcabaDeEscribirLeeDeLaPrimaria() throws Exception {
+        Connection deLaReplica = sana();
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", fuente(deLaReplica)));
+
+        comoCliente("consola-1", () -> {
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            assertSame(deLaPrimaria, routing.getConnection());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            limpiarTransaccion();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertSame(deLaPrimaria, routing.getConnection());
+        });
+        comoCliente("consola-2", () -> {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertSame(deLaReplica, routing.getConnection());
+        });
+    }
+
+    @Test
+    void sinCabeceraNoHayReadYourWrites() throws Exception {
+        Connection deLaReplica = sana();
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", fuente(deLaReplica)));
+
+        comoCliente(null, () -> {
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            assertSame(deLaPrimaria, routing.getConnection());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            limpiarTransaccion();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertSame(deLaReplica, routing.getConnection());
+        });
+        // Detrás del balanceador otro cliente llega desde la misma dirección
+        comoCliente(null, () -> {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertSame(deLaReplica, routing.getConnection());
+        });
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primaria, replicas, Duration.ofMinutes(1));
+    }
+
+    private static Connection sana() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        return connection;
+    }
+
+    private static DataSource fuente(Connection connection) {
+        DataSource dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+
+    private static void comoCliente(String cliente, Peticion peticion) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cliente != null) {
+            request.addHeader(ClienteActual.HEADER, cliente);
+        }
+        new ClienteActual().doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            try {
+                peticion.ejecutar();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Peticion {
+        void ejecutar() throws SQLException;
+    }
+}
@@ -0,0 +1,49 @@
+package com.perucontrols.techdoc.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiltrosTest {
+
+    private static final Set<String> INDEXADOS = Set.of("sistema", "nombre");
+
+    @Test
+    void unTextoDeAlMenosTresCaracteresCuentaComoIndexado() {
+        assertDoesNotThrow(() -> Filtros.<Object>indexados(INDEXADOS)
+                .conTexto("nombre", "nombre", "bom")
+                .con("estado", "OPERATIVO", estado -> (root, query, cb) -> cb.conjunction())
+                .build());
+    }
+
+    @Test
+    void unTextoCortoNoTieneTrigramasYSeRechazaSolo() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Filtros.<Object>indexados(INDEXADOS).conTexto("nombre", "nombre", " a ").build());
+
+        assertTrue(e.getMessage().contains("nombre (menos de 3 caracteres)"), e.getMessage());
+    }
+
+    @Test
+    void unTextoCortoSirveJuntoAUnFiltroIndexado() {
+        assertDoesNotThrow(() -> Filtros.<Object>indexados(INDEXADOS)
+                .con("sistema", 5L, id -> (root, query, cb) -> cb.conjunction())
+                .conTexto("nombre", "nombre", "ab")
+                .build());
+    }
+
+    @Test
+    void unTextoEnBlancoNoFiltra() {
+        assertDoesNotThrow(() -> Filtros.<Object>indexados(INDEXADOS).conTexto("nombre", "nombre", "   ").build());
+    }
+
+    @Test
+    void escapaLosComodinesDeLike() {
+        assertEquals("50\\%\\_a\\\\b", Filtros.escaparLike("50%_a\\b"));
+    }
+}
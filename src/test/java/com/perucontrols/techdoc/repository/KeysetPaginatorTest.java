@@ -0,0 +1,76 @@
+package com.perucontrols.techdoc.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetPaginatorTest {
+
+    @Test
+    void elCursorConservaValorEIdDeCadaTipoDeClave() {
+        assertEquals(new KeysetPaginator.Cursor(42L, 42L), ida("id", Sort.Direction.ASC, 42L, 42L, Long.class));
+        assertEquals(new KeysetPaginator.Cursor("Bomba de achique", 7L),
+                ida("nombre", Sort.Direction.DESC, "Bomba de achique", 7L, String.class));
+        assertEquals(new KeysetPaginator.Cursor(LocalDate.of(2024, 2, 29), 3L),
+                ida("fechaInstalacion", Sort.Direction.ASC, LocalDate.of(2024, 2, 29), 3L, LocalDate.class));
+        assertEquals(new KeysetPaginator.Cursor(LocalDateTime.of(2024, 5, 1, 8, 30, 15), 4L),
+                ida("updatedAt", Sort.Direction.DESC, LocalDateTime.of(2024, 5, 1, 8, 30, 15), 4L, LocalDateTime.class));
+        assertEquals(new KeysetPaginator.Cursor(Sort.Direction.DESC, 5L),
+                ida("estado", Sort.Direction.ASC, Sort.Direction.DESC, 5L, Sort.Direction.class));
+    }
+
+    @Test
+    void unValorConElSeparadorSeLeeEntero() {
+        assertEquals(new KeysetPaginator.Cursor("A|B|C", 9L), ida("nombre", Sort.Direction.ASC, "A|B|C", 9L, String.class));
+    }
+
+    @Test
+    void elCursorEsSeguroEnUnaUrl() {
+        String cursor = KeysetPaginator.encode("nombre", Sort.Direction.ASC, "¿válvula?>>~", 1L);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    void rechazaUnCursorDeOtroOrden() {
+        String cursor = KeysetPaginator.encode("nombre", Sort.Direction.ASC, "Radar", 1L);
+
+        IllegalArgumentException otraClave = assertThrows(IllegalArgumentException.class,
+                () -> KeysetPaginator.decode(cursor, "id", Sort.Direction.ASC, Long.class));
+        IllegalArgumentException otraDireccion = assertThrows(IllegalArgumentException.class,
+                () -> KeysetPaginator.decode(cursor, "nombre", Sort.Direction.DESC, String.class));
+        assertEquals("El cursor no corresponde al orden solicitado", otraClave.getMessage());
+        assertEquals("El cursor no corresponde al orden solicitado", otraDireccion.getMessage());
+    }
+
+    @Test
+    void rechazaCursoresMalFormados() {
+        assertInvalido("no es base64!", "id", Long.class);
+        assertInvalido(base64("id|ASC"), "id", Long.class);
+        assertInvalido(base64("id|ASC|5|x"), "id", Long.class);
+        assertInvalido(base64("id|ASC|x|5"), "id", Long.class);
+        assertInvalido(base64("fechaInstalacion|ASC|ayer|5"), "fechaInstalacion", LocalDate.class);
+    }
+
+    private static KeysetPaginator.Cursor ida(String sortBy, Sort.Direction direccion, Object valor, Long id, Class<?> tipo) {
+        return KeysetPaginator.decode(KeysetPaginator.encode(sortBy, direccion, valor, id), sortBy, direccion, tipo);
+    }
+
+    private static void assertInvalido(String cursor, String sortBy, Class<?> tipo) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> KeysetPaginator.decode(cursor, sortBy, Sort.Direction.ASC, tipo));
+        assertEquals("Cursor inválido", e.getMessage());
+    }
+
+    private static String base64(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
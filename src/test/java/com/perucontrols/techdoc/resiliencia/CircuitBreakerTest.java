@@ -0,0 +1,79 @@
+package com.perucontrols.techdoc.resiliencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final RuntimeException CAIDA = new RuntimeException("sin conexión");
+
+    private final ResilienciaProperties properties = new ResilienciaProperties();
+    private final CircuitBreaker circuito = new CircuitBreaker(properties);
+
+    @Test
+    void seAbreAlLlegarAlUmbralDeFallosSeguidos() {
+        properties.setUmbralFallos(3);
+        properties.setEspera(Duration.ofHours(1));
+
+        circuito.fallo(CAIDA);
+        circuito.fallo(CAIDA);
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuito.getEstado());
+        assertTrue(circuito.permite());
+
+        circuito.fallo(CAIDA);
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuito.getEstado());
+        assertFalse(circuito.permite());
+        assertTrue(circuito.segundosHastaPrueba() > 3500);
+    }
+
+    @Test
+    void unExitoReiniciaLaCuentaDeFallos() {
+        properties.setUmbralFallos(3);
+
+        circuito.fallo(CAIDA);
+        circuito.fallo(CAIDA);
+        circuito.exito();
+        circuito.fallo(CAIDA);
+        circuito.fallo(CAIDA);
+
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuito.getEstado());
+    }
+
+    @Test
+    void semiabiertoDejaPasarUnaSolaPruebaYSeCierraSiFunciona() {
+        properties.setUmbralFallos(1);
+        properties.setEspera(Duration.ZERO);
+        circuito.fallo(CAIDA);
+
+        assertEquals(CircuitBreaker.Estado.SEMIABIERTO, circuito.getEstado());
+        assertTrue(circuito.permite());
+        assertFalse(circuito.permite());
+
+        circuito.exito();
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuito.getEstado());
+        assertTrue(circuito.permite());
+        assertTrue(circuito.permite());
+    }
+
+    @Test
+    void unaPruebaFallidaVuelveAAbrirlo() {
+        properties.setUmbralFallos(5);
+        properties.setEspera(Duration.ZERO);
+        for (int i = 0; i < 5; i++) {
+            circuito.fallo(CAIDA);
+        }
+        assertTrue(circuito.permite());
+
+        // Abierto, un solo fallo basta: no vuelve a contar hasta el umbral
+        properties.setEspera(Duration.ofHours(1));
+        circuito.fallo(CAIDA);
+
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuito.getEstado());
+        assertFalse(circuito.permite());
+    }
+}
@@ -0,0 +1,42 @@
+package com.perucontrols.techdoc.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DocumentacionServiceTest {
+
+    private static final char INICIO = '\u0002';
+    private static final char FIN = '\u0003';
+
+    @Test
+    void lasMarcasDeTsHeadlineSeCambianPorMark() {
+        assertEquals("Manual de la <mark>bomba</mark> de <mark>achique</mark>",
+                DocumentacionService.resaltado("Manual de la " + INICIO + "bomba" + FIN + " de " + INICIO + "achique" + FIN));
+    }
+
+    @Test
+    void unScriptEnElTituloSeEscapaAntesDeMarcar() {
+        assertEquals("&lt;script&gt;alert(1)&lt;/script&gt; <mark>radar</mark>",
+                DocumentacionService.resaltado("<script>alert(1)</script> " + INICIO + "radar" + FIN));
+    }
+
+    @Test
+    void unScriptDentroDeLaCoincidenciaTambienSeEscapa() {
+        assertEquals("Ver <mark>&lt;img src=x onerror=alert(1)&gt;</mark> &amp; &quot;más&quot;",
+                DocumentacionService.resaltado("Ver " + INICIO + "<img src=x onerror=alert(1)>" + FIN + " & \"más\""));
+    }
+
+    @Test
+    void lasMarcasSueltasSeDescartan() {
+        assertEquals("abierta y cerrada", DocumentacionService.resaltado("abierta" + FIN + " y " + INICIO + "cerrada"));
+        assertEquals("<mark>a</mark>b", DocumentacionService.resaltado(String.valueOf(INICIO) + INICIO + "a" + FIN + "b" + INICIO));
+    }
+
+    @Test
+    void sinTextoNoHayResaltado() {
+        assertNull(DocumentacionService.resaltado(null));
+        assertEquals("", DocumentacionService.resaltado(""));
+    }
+}